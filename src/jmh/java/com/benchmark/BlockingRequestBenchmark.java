@@ -0,0 +1,96 @@
+package com.benchmark;
+
+import com.utils.ThreadFactories;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A burst of {@code concurrency} requests that each block for {@code blockMillis}, like a call
+ * to the notification API or a JDBC round trip, served either by a pool of 200 platform
+ * threads (Tomcat's default maximum) or by one virtual thread per request. The time per burst
+ * shows how far the pool size limits throughput once requests mostly wait.
+ * <p>
+ * The {@code virtual} case needs Java 21: {@code mvn -Pbenchmark,java21 ...}; on older JVMs its
+ * setup fails and JMH moves on to the next case.
+ * <p>
+ * The tasks only sleep; no request reaches the service. The time per burst bounds what the
+ * thread model allows, and a load test against the running application is still needed to
+ * compare the two modes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BlockingRequestBenchmark {
+
+    private static final int PLATFORM_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"200", "2000", "10000"})
+    public int concurrency;
+
+    @Param("20")
+    public long blockMillis;
+
+    private ExecutorService platformPool;
+    private ThreadFactory virtualThreads;
+
+    @Setup
+    public void setUp() {
+        if ("virtual".equals(threads)) {
+            virtualThreads = ThreadFactories.named("benchmark-request-", true);
+        } else {
+            platformPool = Executors.newFixedThreadPool(PLATFORM_THREADS,
+                    ThreadFactories.named("benchmark-request-", false));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (platformPool != null) {
+            platformPool.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public void burst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(concurrency);
+        Runnable request = () -> {
+            try {
+                Thread.sleep(blockMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                done.countDown();
+            }
+        };
+        for (int i = 0; i < concurrency; i++) {
+            if (platformPool != null) {
+                platformPool.execute(request);
+            } else {
+                virtualThreads.newThread(request).start();
+            }
+        }
+        done.await();
+    }
+}
@@ -0,0 +1,62 @@
+package com.benchmark;
+
+import com.dto.PaymentResponseDTO;
+import com.model.Currency;
+import com.model.Payment;
+import com.model.Type1Payment;
+import com.utils.PaymentMapper;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflective ModelMapper mapping with {@link PaymentMapper}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PaymentMapperBenchmark {
+
+    private ModelMapper modelMapper;
+    private Payment payment;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        Type1Payment type1Payment = new Type1Payment();
+        type1Payment.setId(1L);
+        type1Payment.setAmount(new BigDecimal("100.00"));
+        type1Payment.setCurrency(Currency.EUR);
+        type1Payment.setDebtorIban("DE89370400440532013000");
+        type1Payment.setCreditorIban("GB29NWBK60161331926819");
+        type1Payment.setCreationTime(LocalDateTime.of(2025, 3, 17, 12, 0));
+        type1Payment.setCancellationFee(new BigDecimal("0.00"));
+        type1Payment.setDetails("Invoice 42");
+        payment = type1Payment;
+    }
+
+    @Benchmark
+    public PaymentResponseDTO modelMapper() {
+        return modelMapper.map(payment, PaymentResponseDTO.class);
+    }
+
+    @Benchmark
+    public PaymentResponseDTO paymentMapper() {
+        return PaymentMapper.toResponseDTO(payment);
+    }
+}
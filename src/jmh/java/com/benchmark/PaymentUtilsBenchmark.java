@@ -0,0 +1,95 @@
+package com.benchmark;
+
+import com.dto.PaymentRequestDTO;
+import com.model.Currency;
+import com.model.Payment;
+import com.utils.CancellationFeeCalculator;
+import com.utils.PaymentUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request validation, entity creation and fee calculation, once per payment type.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PaymentUtilsBenchmark {
+
+    @Param({"TYPE1", "TYPE2", "TYPE3"})
+    public String paymentType;
+
+    private PaymentRequestDTO request;
+    private Payment payment;
+    private BigDecimal usdAmount;
+    private CancellationFeeCalculator feeCalculator;
+
+    @Setup
+    public void setUp() {
+        request = new PaymentRequestDTO();
+        request.setAmount(new BigDecimal("1222.50"));
+        request.setDebtorIban("DE89370400440532013000");
+        request.setCreditorIban("GB29NWBK60161331926819");
+        switch (paymentType) {
+            case "TYPE1" -> {
+                request.setCurrency(Currency.EUR);
+                request.setDetails("Invoice 42");
+            }
+            case "TYPE2" -> request.setCurrency(Currency.USD);
+            default -> {
+                request.setCurrency(Currency.USD);
+                request.setCreditorBic("CBVILT2X");
+            }
+        }
+
+        payment = PaymentUtils.determineAndCreatePaymentEntity(request);
+        payment.setAmount(request.getAmount());
+        payment.setCurrency(request.getCurrency());
+        payment.setCreationTime(LocalDateTime.now().minusHours(7));
+        usdAmount = new BigDecimal("1.35");
+        feeCalculator = new CancellationFeeCalculator(Clock.systemDefaultZone());
+    }
+
+    @Benchmark
+    public PaymentRequestDTO validatePaymentRequest() {
+        PaymentUtils.validatePaymentRequest(request);
+        return request;
+    }
+
+    @Benchmark
+    public Payment determineAndCreatePaymentEntity() {
+        return PaymentUtils.determineAndCreatePaymentEntity(request);
+    }
+
+    @Benchmark
+    public BigDecimal calculateCancellationFee() {
+        return PaymentUtils.calculateCancellationFee(payment);
+    }
+
+    @Benchmark
+    public long cancellationFeeMinorUnits() {
+        return feeCalculator.feeMinorUnits(payment, PaymentUtils.DEFAULT_EXCHANGE_RATES);
+    }
+
+    @Benchmark
+    public BigDecimal convertUsdToEur() {
+        return PaymentUtils.convertUsdToEur(usdAmount);
+    }
+}
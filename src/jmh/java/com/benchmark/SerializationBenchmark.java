@@ -0,0 +1,84 @@
+package com.benchmark;
+
+import com.dto.PaymentResponseDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.model.Currency;
+import com.utils.PaymentIdCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialization: a single payment as JSON, and payment ID lists as JSON or in the
+ * delta+varint encoding. IDs are mostly consecutive with occasional gaps, as after cancellations.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    public int idCount;
+
+    private ObjectMapper objectMapper;
+    private PaymentResponseDTO response;
+    private List<Long> ids;
+
+    @Setup
+    public void setUp() {
+        // configured like Spring Boot's auto-configured ObjectMapper
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        response = new PaymentResponseDTO(1L, new BigDecimal("1222.50"), Currency.EUR,
+                "DE89370400440532013000", "GB29NWBK60161331926819",
+                LocalDateTime.of(2025, 3, 17, 12, 0), false, new BigDecimal("0.00"));
+
+        ids = new ArrayList<>(idCount);
+        long id = 1_000;
+        for (int i = 0; i < idCount; i++) {
+            id += i % 10 == 0 ? 7 : 1;
+            ids.add(id);
+        }
+    }
+
+    @Benchmark
+    public byte[] paymentResponseJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] idListJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ids);
+    }
+
+    @Benchmark
+    public byte[] idListDeltaVarint() {
+        long[] values = new long[ids.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = ids.get(i);
+        }
+        return PaymentIdCodec.encode(values);
+    }
+}
@@ -1,16 +1,23 @@
 package com.config;
 
-import org.modelmapper.ModelMapper;
+import com.utils.CancellationFeeCalculator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Clock;
 
 @Configuration
+@EnableScheduling
 public class ApplicationConfig {
 
     @Bean
-    public ModelMapper modelMapper() {return new ModelMapper();}
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
 
     @Bean
-    public RestTemplate restTemplate() { return new RestTemplate(); }
-}
\ No newline at end of file
+    public CancellationFeeCalculator cancellationFeeCalculator(Clock clock) {
+        return new CancellationFeeCalculator(clock);
+    }
+}
@@ -0,0 +1,137 @@
+package com.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limits the number of in-flight requests per remote endpoint. A permit is held until the
+ * response is closed, so it also covers the time spent reading the body. When no permit
+ * becomes available within the acquire timeout the call fails fast with a
+ * {@link ResourceAccessException} instead of queueing the caller's thread.
+ */
+public class BulkheadInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final String BULKHEAD_FULL_MSG = "Bulkhead '%s' is full (%d concurrent calls)";
+    private static final String BULKHEAD_INTERRUPTED_MSG = "Interrupted while waiting for bulkhead '%s'";
+
+    private final List<Bulkhead> bulkheads = new ArrayList<>();
+    private final long acquireTimeoutNanos;
+
+    public BulkheadInterceptor(Map<String, OutboundHttpProperties.Bulkhead> config, Duration acquireTimeout) {
+        config.forEach((name, bulkhead) -> bulkheads.add(
+                new Bulkhead(name, bulkhead.getUrlPrefix(), bulkhead.getMaxConcurrentCalls())));
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+                                        ClientHttpRequestExecution execution) throws IOException {
+        Bulkhead bulkhead = resolve(request.getURI().toString());
+        if (bulkhead == null) {
+            return execution.execute(request, body);
+        }
+
+        bulkhead.acquire(acquireTimeoutNanos);
+        try {
+            return new PermitReleasingResponse(execution.execute(request, body), bulkhead);
+        } catch (IOException | RuntimeException e) {
+            bulkhead.release();
+            throw e;
+        }
+    }
+
+    private Bulkhead resolve(String url) {
+        for (Bulkhead bulkhead : bulkheads) {
+            if (url.startsWith(bulkhead.urlPrefix)) {
+                return bulkhead;
+            }
+        }
+        return null;
+    }
+
+    private static final class Bulkhead {
+        private final String name;
+        private final String urlPrefix;
+        private final int maxConcurrentCalls;
+        private final Semaphore permits;
+
+        private Bulkhead(String name, String urlPrefix, int maxConcurrentCalls) {
+            this.name = name;
+            this.urlPrefix = urlPrefix;
+            this.maxConcurrentCalls = maxConcurrentCalls;
+            this.permits = new Semaphore(maxConcurrentCalls);
+        }
+
+        private void acquire(long timeoutNanos) {
+            try {
+                if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                    throw new ResourceAccessException(String.format(BULKHEAD_FULL_MSG, name, maxConcurrentCalls));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ResourceAccessException(String.format(BULKHEAD_INTERRUPTED_MSG, name));
+            }
+        }
+
+        private void release() {
+            permits.release();
+        }
+    }
+
+    private static final class PermitReleasingResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final Bulkhead bulkhead;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private PermitReleasingResponse(ClientHttpResponse delegate, Bulkhead bulkhead) {
+            this.delegate = delegate;
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    bulkhead.release();
+                }
+            }
+        }
+    }
+}
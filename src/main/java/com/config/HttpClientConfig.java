@@ -0,0 +1,44 @@
+package com.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+
+@Configuration
+@EnableConfigurationProperties(OutboundHttpProperties.class)
+public class HttpClientConfig {
+
+    @Bean
+    public RestTemplate notificationRestTemplate(OutboundHttpProperties properties) {
+        return buildRestTemplate(properties.getNotification());
+    }
+
+    @Bean
+    public RestTemplate geoRestTemplate(OutboundHttpProperties properties) {
+        return buildRestTemplate(properties.getGeo());
+    }
+
+    /**
+     * Builds a RestTemplate on top of a dedicated JDK HttpClient, which keeps connections
+     * alive in its own pool and negotiates HTTP/2 when the destination supports it.
+     */
+    private RestTemplate buildRestTemplate(OutboundHttpProperties.Destination destination) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(destination.getVersion())
+                .connectTimeout(destination.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(destination.getReadTimeout());
+
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(
+                new BulkheadInterceptor(destination.getBulkheads(), destination.getAcquireTimeout()));
+        return restTemplate;
+    }
+}
@@ -0,0 +1,39 @@
+package com.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "outbound.http")
+public class OutboundHttpProperties {
+
+    private Destination notification = new Destination();
+    private Destination geo = new Destination();
+
+    /**
+     * Connection settings shared by every call to one remote host. Each destination gets
+     * its own pooled client, so a slow host cannot exhaust connections used by another.
+     */
+    @Data
+    public static class Destination {
+        private HttpClient.Version version = HttpClient.Version.HTTP_2;
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration readTimeout = Duration.ofSeconds(5);
+        private Duration acquireTimeout = Duration.ofMillis(100);
+        private Map<String, Bulkhead> bulkheads = new LinkedHashMap<>();
+    }
+
+    /**
+     * Concurrency limit for all requests whose URL starts with {@code urlPrefix}.
+     */
+    @Data
+    public static class Bulkhead {
+        private String urlPrefix;
+        private int maxConcurrentCalls = 20;
+    }
+}
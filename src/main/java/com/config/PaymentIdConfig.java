@@ -0,0 +1,55 @@
+package com.config;
+
+import com.model.PaymentIdGenerator;
+import com.repository.PaymentRepository;
+import com.utils.TimeOrderedIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Switches payment IDs to {@link TimeOrderedIdGenerator} when
+ * {@code payments.id.strategy=time-ordered}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "payments.id.strategy", havingValue = "time-ordered")
+@Slf4j
+public class PaymentIdConfig {
+
+    private static final String ID_GENERATOR_LOG = "Generating time-ordered payment IDs as node {}";
+    private static final String CLOCK_CHECKED_LOG = "Highest stored payment ID {} was created at {}, clock check passed";
+
+    @Bean
+    public TimeOrderedIdGenerator paymentIdGenerator(@Value("${payments.id.node-id}") int nodeId,
+                                                     @Value("${payments.id.max-clock-drift}") Duration maxClockDrift) {
+        log.info(ID_GENERATOR_LOG, nodeId);
+        return new TimeOrderedIdGenerator(nodeId, maxClockDrift);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer paymentIdGeneratorCustomizer(TimeOrderedIdGenerator paymentIdGenerator) {
+        return properties -> properties.put(PaymentIdGenerator.TIME_ORDERED_GENERATOR, paymentIdGenerator);
+    }
+
+    /**
+     * Refuses to start when stored IDs lie further in the future than the allowed drift,
+     * which means the clock has moved backwards since they were generated.
+     */
+    @Bean
+    public SmartInitializingSingleton paymentIdClockGuard(PaymentRepository paymentRepository,
+                                                          TimeOrderedIdGenerator paymentIdGenerator) {
+        return () -> {
+            Long maxId = paymentRepository.findMaxId();
+            if (maxId != null) {
+                paymentIdGenerator.advancePast(maxId);
+                log.info(CLOCK_CHECKED_LOG, maxId, TimeOrderedIdGenerator.instantOf(maxId));
+            }
+        };
+    }
+}
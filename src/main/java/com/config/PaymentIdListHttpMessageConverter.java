@@ -0,0 +1,95 @@
+package com.config;
+
+import com.utils.PaymentIdCodec;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads and writes lists of payment IDs in the {@link PaymentIdCodec} delta+varint format.
+ * It only handles {@code List<Long>} bodies and is only selected for {@link #MEDIA_TYPE};
+ * JSON stays the default. Decoded lists are in ascending order, whatever order was written.
+ */
+public class PaymentIdListHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<Long>> {
+
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.payment-ids.delta-varint";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    public PaymentIdListHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    /**
+     * A raw class does not tell the element type, so only the generic variant can match.
+     */
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return isLongList(type != null ? type : contextClass) && (mediaType == null || MEDIA_TYPE.includes(mediaType));
+    }
+
+    /**
+     * A raw class does not tell the element type, so only the generic variant can match.
+     */
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return isLongList(type != null ? type : clazz) && (mediaType == null || MEDIA_TYPE.includes(mediaType));
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return supports(clazz) ? getSupportedMediaTypes() : List.of();
+    }
+
+    @Override
+    public List<Long> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return readIds(inputMessage);
+    }
+
+    @Override
+    protected List<Long> readInternal(Class<? extends List<Long>> clazz, HttpInputMessage inputMessage)
+            throws IOException {
+        return readIds(inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(List<Long> ids, Type type, HttpOutputMessage outputMessage) throws IOException {
+        PaymentIdCodec.encode(ids, outputMessage.getBody());
+    }
+
+    private static List<Long> readIds(HttpInputMessage inputMessage) throws IOException {
+        try {
+            return Arrays.stream(PaymentIdCodec.decode(inputMessage.getBody().readAllBytes())).boxed().toList();
+        } catch (IllegalArgumentException e) {
+            throw new HttpMessageNotReadableException(e.getMessage(), e, inputMessage);
+        }
+    }
+
+    private static boolean isLongList(Type type) {
+        ResolvableType resolvedType = ResolvableType.forType(type);
+        return List.class.isAssignableFrom(resolvedType.toClass())
+                && resolvedType.asCollection().resolveGeneric() == Long.class;
+    }
+}
@@ -0,0 +1,146 @@
+package com.config;
+
+import com.exeption.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.utils.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Applies per-client token bucket limits to payment requests before they reach the controller.
+ * Clients are identified by the request's remote address. Forwarding headers such as
+ * {@code X-Forwarded-For} are applied to it by the server only when the request comes from a
+ * trusted proxy ({@code server.forward-headers-strategy=native}), so a client cannot pick a new
+ * bucket by sending a different header value. Requests over the limit get 429 with a
+ * {@code Retry-After} header.
+ * <p>
+ * Buckets live in a bounded Caffeine cache keyed by limit and client IP and are dropped once
+ * idle; acquiring a token is a compare-and-set on the bucket, so requests never wait on a lock.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String RATE_LIMITED_COUNTER = "payments.rate.limited";
+
+    private static final String RATE_LIMITED_MSG = "Too many requests, retry after %d second(s)";
+    private static final String RATE_LIMITED_LOG = "Rate limit {} exceeded by client IP: {}";
+    private static final String IDLE_TIMEOUT_ERROR_MSG =
+            "payments.rate-limit.idle-timeout must be at least the refill time of limit %s (%d ms)";
+
+    private final List<Rule> rules;
+    private final Cache<String, TokenBucket> buckets;
+    private final ObjectMapper objectMapper;
+    private final LongSupplier nanoClock;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this(properties, objectMapper, meterRegistry, System::nanoTime);
+    }
+
+    RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                    LongSupplier nanoClock) {
+        this.objectMapper = objectMapper;
+        this.nanoClock = nanoClock;
+        this.rules = new ArrayList<>(properties.getLimits().size());
+        for (Map.Entry<String, RateLimitProperties.Limit> entry : properties.getLimits().entrySet()) {
+            Rule rule = new Rule(entry.getKey(), entry.getValue(), meterRegistry);
+            long refillNanos = new TokenBucket(rule.limit.getRequestsPerSecond(), rule.limit.getBurst(), 0)
+                    .getRefillNanos();
+            if (properties.getIdleTimeout().toNanos() < refillNanos) {
+                throw new IllegalArgumentException(String.format(IDLE_TIMEOUT_ERROR_MSG, rule.name,
+                        TimeUnit.NANOSECONDS.toMillis(refillNanos)));
+            }
+            rules.add(rule);
+        }
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Rule rule = findRule(request);
+        if (rule == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String clientIp = request.getRemoteAddr();
+        long now = nanoClock.getAsLong();
+        TokenBucket bucket = buckets.get(rule.name + ' ' + clientIp,
+                key -> new TokenBucket(rule.limit.getRequestsPerSecond(), rule.limit.getBurst(), now));
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        rule.rejected.increment();
+        log.debug(RATE_LIMITED_LOG, rule.name, clientIp);
+        long retryAfterSeconds = Math.max(1L, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS.value(),
+                String.format(RATE_LIMITED_MSG, retryAfterSeconds)));
+    }
+
+    private Rule findRule(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Rule rule : rules) {
+            if (rule.matches(request.getMethod(), path, pathMatcher)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private static final class Rule {
+        private final String name;
+        private final RateLimitProperties.Limit limit;
+        private final Counter rejected;
+
+        private Rule(String name, RateLimitProperties.Limit limit, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.limit = limit;
+            this.rejected = Counter.builder(RATE_LIMITED_COUNTER)
+                    .description("Requests rejected with 429 because the client exceeded its rate limit")
+                    .tag("limit", name)
+                    .register(meterRegistry);
+        }
+
+        private boolean matches(String method, String path, AntPathMatcher pathMatcher) {
+            if (limit.getMethod() != null && !limit.getMethod().isEmpty()
+                    && !limit.getMethod().equalsIgnoreCase(method)) {
+                return false;
+            }
+            for (String pattern : limit.getPaths()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "payments.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    /**
+     * Upper bound on the number of client buckets kept in memory.
+     */
+    private long maxClients = 100_000;
+    /**
+     * Buckets unused for this long are dropped. Must be at least the time any limit's bucket
+     * takes to refill, so that dropping a bucket never gives a client more tokens than waiting would.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    /**
+     * Limits by name, checked in configuration order; the first one matching a request applies.
+     */
+    private Map<String, Limit> limits = new LinkedHashMap<>();
+
+    /**
+     * Requests per second and burst allowed to each client IP on the matching endpoints.
+     */
+    @Data
+    public static class Limit {
+        /**
+         * HTTP method to match, or any method when empty.
+         */
+        private String method;
+        /**
+         * Ant-style path patterns, e.g. {@code /api/payments/*}.
+         */
+        private List<String> paths = new ArrayList<>();
+        private double requestsPerSecond = 10;
+        private int burst = 20;
+    }
+}
@@ -0,0 +1,46 @@
+package com.config;
+
+import com.utils.RequestTimings;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Times the phases of each payment request with {@link RequestTimings}. The breakdown is sent
+ * in the {@code Server-Timing} header by {@link ServerTimingAdvice} and logged when the whole
+ * request, including writing the response, takes at least the slow request threshold.
+ * <p>
+ * Phases of a streamed response body run on another thread and are not timed.
+ */
+@Slf4j
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    private static final String SLOW_REQUEST_LOG = "Slow request {} {} ({}): {}";
+
+    private final long slowThresholdNanos;
+
+    public RequestTimingFilter(Duration slowThreshold) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTimings.end();
+            if (timings.getElapsedNanos() >= slowThresholdNanos) {
+                log.warn(SLOW_REQUEST_LOG, request.getMethod(), request.getRequestURI(), response.getStatus(),
+                        timings.toServerTiming());
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.config;
+
+import com.controller.PaymentController;
+import com.exeption.GlobalExceptionHandler;
+import com.utils.RequestTimings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the phases timed so far to payment responses, including error responses, as a
+ * {@code Server-Timing} header. Its {@code total} is measured just before the body is written.
+ */
+@ControllerAdvice(assignableTypes = {PaymentController.class, GlobalExceptionHandler.class})
+@ConditionalOnProperty(name = "payments.request-timing.enabled", havingValue = "true")
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            response.getHeaders().set(SERVER_TIMING_HEADER, timings.toServerTiming());
+        }
+        return body;
+    }
+}
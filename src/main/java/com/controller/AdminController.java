@@ -0,0 +1,114 @@
+package com.controller;
+
+import com.dto.ExchangeRatesDTO;
+import com.dto.FeeQuoteCacheStatsDTO;
+import com.dto.GeoLookupCacheStatsDTO;
+import com.dto.PaymentCacheStatsDTO;
+import com.dto.PaymentIndexReportDTO;
+import com.model.Currency;
+import com.service.CancellationFeeQuoteService;
+import com.service.CountryResolverServiceImpl;
+import com.service.ExchangeRateProvider;
+import com.service.PaymentAmountIndex;
+import com.service.PaymentEntityCache;
+import com.utils.ExchangeRateTable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminController {
+
+    private final PaymentAmountIndex paymentAmountIndex;
+    private final ExchangeRateProvider exchangeRateProvider;
+    private final CancellationFeeQuoteService cancellationFeeQuoteService;
+    private final PaymentEntityCache paymentEntityCache;
+    private final ObjectProvider<CountryResolverServiceImpl> countryResolverService;
+
+    /** The admin API has no authentication, so rates that set customer fees are read-only unless enabled. */
+    @Value("${payments.fx.admin-updates-enabled}")
+    boolean exchangeRateUpdatesEnabled;
+
+    private static final String REBUILD_INDEX_LOG = "Rebuilding payment amount index on request";
+    private static final String RELOAD_RATES_LOG = "Reloading exchange rates on request";
+    private static final String UPDATE_RATES_LOG = "Updating exchange rates on request: {}";
+    private static final String RATES_READ_ONLY_LOG = "Rejected exchange rate change, payments.fx.admin-updates-enabled is off";
+
+    @GetMapping("/payment-index")
+    public ResponseEntity<PaymentIndexReportDTO> verifyPaymentIndex() {
+        return ResponseEntity.ok(paymentAmountIndex.verify());
+    }
+
+    @PostMapping("/payment-index/rebuild")
+    public ResponseEntity<PaymentIndexReportDTO> rebuildPaymentIndex() {
+        log.info(REBUILD_INDEX_LOG);
+        paymentAmountIndex.rebuild();
+        return ResponseEntity.ok(paymentAmountIndex.verify());
+    }
+
+    @GetMapping("/exchange-rates")
+    public ResponseEntity<ExchangeRatesDTO> getExchangeRates() {
+        return ResponseEntity.ok(toDTO(exchangeRateProvider.current()));
+    }
+
+    @PutMapping("/exchange-rates")
+    public ResponseEntity<ExchangeRatesDTO> updateExchangeRates(@RequestBody Map<String, BigDecimal> rates) {
+        if (!exchangeRateUpdatesEnabled) {
+            log.warn(RATES_READ_ONLY_LOG);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        log.info(UPDATE_RATES_LOG, rates);
+        Map<Currency, BigDecimal> currencyRates = new EnumMap<>(Currency.class);
+        rates.forEach((code, rate) -> currencyRates.put(ExchangeRateTable.parseCurrency(code), rate));
+        return ResponseEntity.ok(toDTO(exchangeRateProvider.update(currencyRates)));
+    }
+
+    @PostMapping("/exchange-rates/reload")
+    public ResponseEntity<ExchangeRatesDTO> reloadExchangeRates() {
+        if (!exchangeRateUpdatesEnabled) {
+            log.warn(RATES_READ_ONLY_LOG);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        log.info(RELOAD_RATES_LOG);
+        return ResponseEntity.ok(toDTO(exchangeRateProvider.reload()));
+    }
+
+    @GetMapping("/fee-quote-cache")
+    public ResponseEntity<FeeQuoteCacheStatsDTO> getFeeQuoteCacheStats() {
+        return ResponseEntity.ok(cancellationFeeQuoteService.getCacheStats());
+    }
+
+    @GetMapping("/payment-cache")
+    public ResponseEntity<PaymentCacheStatsDTO> getPaymentCacheStats() {
+        return ResponseEntity.ok(paymentEntityCache.getStats());
+    }
+
+    /**
+     * Only the remote geo resolver caches lookups; in offline mode there is nothing to report.
+     */
+    @GetMapping("/geo-cache")
+    public ResponseEntity<GeoLookupCacheStatsDTO> getGeoCacheStats() {
+        CountryResolverServiceImpl resolver = countryResolverService.getIfAvailable();
+        return resolver == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(resolver.getStats());
+    }
+
+    private static ExchangeRatesDTO toDTO(ExchangeRateTable rates) {
+        return new ExchangeRatesDTO(rates.getVersion(), rates.getRates());
+    }
+}
@@ -1,15 +1,24 @@
 package com.controller;
 
+import com.dto.PaymentBatchResponseDTO;
 import com.dto.PaymentFeeResponseDTO;
+import com.dto.PaymentIdPageDTO;
 import com.dto.PaymentRequestDTO;
 import com.dto.PaymentResponseDTO;
+import com.dto.PaymentSearchCriteria;
+import com.event.AuditEvent;
+import com.service.AuditLogService;
 import com.service.CountryResolverService;
+import com.service.IdempotentPaymentService;
 import com.service.PaymentService;
 import com.utils.ClientIpResolver;
+import com.utils.RequestTimings;
+import com.utils.RequestTimings.Phase;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -18,8 +27,16 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -30,19 +47,42 @@ public class PaymentController {
 
     private final PaymentService paymentService;
     private final CountryResolverService countryResolverService;
+    private final AuditLogService auditLogService;
+    private final IdempotentPaymentService idempotentPaymentService;
 
-    private static final String CREATE_PAYMENT_LOG = "Creating payment: {}";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private static final String CREATE_PAYMENT_BATCH_LOG = "Creating batch of {} payments";
     private static final String CANCEL_PAYMENT_LOG = "Cancelling payment ID: {}";
     private static final String FETCH_PAYMENT_LOG = "Fetching payment details for ID: {}";
     private static final String CLIENT_COUNTRY_LOG = "Client from country: {}, IP: {}";
 
+    /**
+     * With an {@code Idempotency-Key} header, retries of the request return the response of
+     * the first one instead of creating another payment.
+     */
     @PostMapping
-    public ResponseEntity<PaymentResponseDTO> createPayment(@RequestBody PaymentRequestDTO request) {
-        log.info(CREATE_PAYMENT_LOG, request);
-        PaymentResponseDTO response = paymentService.createPayment(request);
+    public ResponseEntity<PaymentResponseDTO> createPayment(@RequestBody PaymentRequestDTO request,
+                                                            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false)
+                                                            String idempotencyKey) {
+        auditLogService.logSampled(() -> AuditEvent.paymentRequested(request));
+        PaymentResponseDTO response = idempotencyKey == null
+                ? paymentService.createPayment(request)
+                : idempotentPaymentService.createPayment(idempotencyKey, request);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    /**
+     * Responds 201 when every payment was created and 207 when some items failed.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<PaymentBatchResponseDTO> createPayments(@RequestBody List<PaymentRequestDTO> requests) {
+        log.info(CREATE_PAYMENT_BATCH_LOG, requests.size());
+        PaymentBatchResponseDTO response = paymentService.createPayments(requests);
+        HttpStatus status = response.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return new ResponseEntity<>(response, status);
+    }
+
     @PostMapping("/{paymentId}/cancel")
     public ResponseEntity<PaymentResponseDTO> cancelPayment(@PathVariable Long paymentId) {
         log.info(CANCEL_PAYMENT_LOG, paymentId);
@@ -56,7 +96,7 @@ public class PaymentController {
         List<Long> paymentIds;
 
         String clientIp = ClientIpResolver.getClientIpAddress(request);
-        countryResolverService.logClientCountry(clientIp);
+        RequestTimings.time(Phase.GEO, () -> countryResolverService.logClientCountry(clientIp));
         log.info(CLIENT_COUNTRY_LOG, clientIp, clientIp);
 
         if (amount != null) {
@@ -68,6 +108,47 @@ public class PaymentController {
         return ResponseEntity.ok(paymentIds);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<PaymentIdPageDTO> getNonCancelledPaymentPage(@RequestParam(required = false) BigDecimal amount,
+                                                                       @RequestParam(defaultValue = "0") long afterId,
+                                                                       @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(paymentService.getNonCancelledPaymentIdPage(amount, afterId, limit));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<PaymentIdPageDTO> searchPayments(PaymentSearchCriteria criteria,
+                                                           @RequestParam(defaultValue = "0") long afterId,
+                                                           @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(paymentService.searchPayments(criteria, afterId, limit));
+    }
+
+    /**
+     * Writes all non-canceled payment IDs as a JSON array while they are read from the
+     * database, so memory use does not depend on the number of active payments.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamNonCancelledPayments() {
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.US_ASCII));
+            writer.write('[');
+            boolean[] first = {true};
+            paymentService.streamAllNonCancelledPaymentIds(id -> {
+                try {
+                    if (!first[0]) {
+                        writer.write(',');
+                    }
+                    first[0] = false;
+                    writer.write(Long.toString(id));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.write(']');
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     @GetMapping("/{paymentId}")
     public ResponseEntity<PaymentFeeResponseDTO> getPaymentById(@PathVariable Long paymentId) {
         log.info(FETCH_PAYMENT_LOG, paymentId);
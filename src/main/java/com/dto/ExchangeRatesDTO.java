@@ -0,0 +1,17 @@
+package com.dto;
+
+import com.model.Currency;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExchangeRatesDTO {
+    private long version;
+    private Map<Currency, BigDecimal> rates;
+}
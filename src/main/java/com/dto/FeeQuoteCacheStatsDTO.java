@@ -0,0 +1,17 @@
+package com.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeeQuoteCacheStatsDTO {
+    private long size;
+    private long hits;
+    private long misses;
+    private long recalculations;
+    private long evictions;
+    private double hitRate;
+}
@@ -0,0 +1,15 @@
+package com.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentBatchItemResultDTO {
+    private int index;
+    private boolean created;
+    private Long paymentId;
+    private String error;
+}
@@ -0,0 +1,17 @@
+package com.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentBatchResponseDTO {
+    private int total;
+    private int created;
+    private int failed;
+    private List<PaymentBatchItemResultDTO> results;
+}
@@ -0,0 +1,16 @@
+package com.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentCacheStatsDTO {
+    private Long size;
+    private long hits;
+    private long misses;
+    private long puts;
+    private double hitRate;
+}
@@ -0,0 +1,25 @@
+package com.dto;
+
+import com.model.Currency;
+import com.model.PaymentType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a payment that its cancellation fee is calculated from. None of them change
+ * after the payment is created.
+ */
+@Data
+@AllArgsConstructor
+public class PaymentFeeBasisDTO {
+    private Long id;
+    private PaymentType paymentType;
+    private Currency currency;
+    private LocalDateTime creationTime;
+
+    public PaymentFeeBasisDTO(Long id, Class<?> entityClass, Currency currency, LocalDateTime creationTime) {
+        this(id, PaymentType.of(entityClass), currency, creationTime);
+    }
+}
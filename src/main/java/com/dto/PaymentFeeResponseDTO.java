@@ -12,4 +12,5 @@ import java.math.BigDecimal;
 public class PaymentFeeResponseDTO {
     private Long id;
     private BigDecimal cancellationFee;
+    private Long rateVersion;
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentIdPageDTO {
+    private List<Long> ids;
+    private Long nextAfterId;
+}
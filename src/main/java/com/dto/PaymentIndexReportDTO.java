@@ -0,0 +1,19 @@
+package com.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentIndexReportDTO {
+    private boolean ready;
+    private boolean consistent;
+    private long indexedPayments;
+    private long databasePayments;
+    private List<Long> missingIds;
+    private List<Long> unexpectedIds;
+}
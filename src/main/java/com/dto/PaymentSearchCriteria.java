@@ -0,0 +1,30 @@
+package com.dto;
+
+import com.model.Currency;
+import com.model.PaymentType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Optional payment search filters; null fields are not filtered on. Amounts are inclusive,
+ * the creation window includes {@code createdFrom} and excludes {@code createdTo}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentSearchCriteria {
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+    private Currency currency;
+    private PaymentType type;
+    private Boolean cancelled;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+}
@@ -0,0 +1,77 @@
+package com.event;
+
+import com.dto.PaymentRequestDTO;
+import com.model.Payment;
+import com.utils.IbanMasker;
+
+/**
+ * A structured audit record, rendered as {@code <action> key=value ...} with IBANs masked.
+ * The message is built once, by the thread that creates the event, so logging it later only
+ * writes a finished string.
+ * <p>
+ * Payment events are published inside the transaction that changes the payment and logged
+ * once it commits.
+ */
+public final class AuditEvent {
+
+    public static final String PAYMENT_REQUESTED = "payment_requested";
+    public static final String PAYMENT_CREATED = "payment_created";
+    public static final String PAYMENT_CANCELLED = "payment_cancelled";
+
+    private final String message;
+
+    private AuditEvent(String message) {
+        this.message = message;
+    }
+
+    /**
+     * A high-volume event, logged through {@code AuditLogService.logSampled} for a sample of requests.
+     */
+    public static AuditEvent paymentRequested(PaymentRequestDTO request) {
+        StringBuilder message = start(PAYMENT_REQUESTED);
+        append(message, "amount", request.getAmount());
+        append(message, "currency", request.getCurrency());
+        append(message, "debtorIban", IbanMasker.mask(request.getDebtorIban()));
+        append(message, "creditorIban", IbanMasker.mask(request.getCreditorIban()));
+        return new AuditEvent(message.toString());
+    }
+
+    public static AuditEvent paymentCreated(Payment payment) {
+        return new AuditEvent(paymentMessage(PAYMENT_CREATED, payment).toString());
+    }
+
+    public static AuditEvent paymentCancelled(Payment payment) {
+        StringBuilder message = paymentMessage(PAYMENT_CANCELLED, payment);
+        append(message, "cancellationFee", payment.getCancellationFee());
+        append(message, "rateVersion", payment.getCancellationFeeRateVersion());
+        return new AuditEvent(message.toString());
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return message;
+    }
+
+    private static StringBuilder paymentMessage(String action, Payment payment) {
+        StringBuilder message = start(action);
+        append(message, "paymentId", payment.getId());
+        append(message, "type", payment.getPaymentType());
+        append(message, "amount", payment.getAmount());
+        append(message, "currency", payment.getCurrency());
+        append(message, "debtorIban", IbanMasker.mask(payment.getDebtorIban()));
+        append(message, "creditorIban", IbanMasker.mask(payment.getCreditorIban()));
+        return message;
+    }
+
+    private static StringBuilder start(String action) {
+        return new StringBuilder(160).append(action);
+    }
+
+    private static void append(StringBuilder message, String key, Object value) {
+        message.append(' ').append(key).append('=').append(value);
+    }
+}
@@ -0,0 +1,16 @@
+package com.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Published inside the transaction that cancels a payment.
+ */
+@Getter
+@AllArgsConstructor
+public class PaymentCancelledEvent {
+    private final Long paymentId;
+    private final BigDecimal amount;
+}
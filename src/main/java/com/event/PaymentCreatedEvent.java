@@ -0,0 +1,16 @@
+package com.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Published inside the transaction that creates a payment.
+ */
+@Getter
+@AllArgsConstructor
+public class PaymentCreatedEvent {
+    private final Long paymentId;
+    private final BigDecimal amount;
+}
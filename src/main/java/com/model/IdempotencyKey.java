@@ -0,0 +1,61 @@
+package com.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Data;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * The stored response of a payment created with an {@code Idempotency-Key} header.
+ * Keys are assigned by clients, so new entities are inserted directly instead of being merged.
+ */
+@Data
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyKey implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key", updatable = false)
+    private String key;
+
+    @Column(nullable = false, updatable = false)
+    private String requestHash;
+
+    @Column(nullable = false, updatable = false)
+    private Long paymentId;
+
+    @Column(nullable = false, updatable = false)
+    private String responseBody;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdTime;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime expiresTime;
+
+    @Transient
+    private boolean isNew = true;
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+}
@@ -0,0 +1,48 @@
+package com.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "notification_outbox")
+public class NotificationOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_outbox_seq")
+    @SequenceGenerator(name = "notification_outbox_seq", sequenceName = "notification_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, updatable = false)
+    private Long paymentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationOutboxStatus status;
+
+    private int attempts;
+
+    @Column(updatable = false)
+    private LocalDateTime createdTime;
+
+    private LocalDateTime processedTime;
+
+    /** Instance that claimed the entry while it is PROCESSING. */
+    private String claimOwner;
+
+    private LocalDateTime claimedTime;
+
+    /** A PENDING entry is not dispatched before this time. */
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptTime;
+}
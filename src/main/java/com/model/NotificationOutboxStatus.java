@@ -0,0 +1,5 @@
+package com.model;
+
+public enum NotificationOutboxStatus {
+    PENDING, PROCESSING, SENT, FAILED
+}
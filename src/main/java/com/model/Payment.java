@@ -1,5 +1,6 @@
 package com.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.Inheritance;
@@ -16,6 +17,10 @@ import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -27,12 +32,22 @@ import java.time.LocalDateTime;
 @Table(name = "payments")
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "payment_type")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Payment.CACHE_REGION)
 @Getter
 @Setter
 public abstract class Payment {
 
+    /** Second-level cache region shared by all payment types. */
+    public static final String CACHE_REGION = "payments";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_seq")
+    @GenericGenerator(name = "payments_seq", type = PaymentIdGenerator.class, parameters = {
+            @Parameter(name = "sequence_name", value = "payments_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled")
+    })
     private Long id;
 
     @NotNull
@@ -60,6 +75,9 @@ public abstract class Payment {
 
     private BigDecimal cancellationFee;
 
+    /** Version of the exchange rates the cancellation fee was calculated with. */
+    private Long cancellationFeeRateVersion;
+
     private boolean isCancelled;
 
     private boolean notified;
@@ -68,4 +86,6 @@ public abstract class Payment {
     @Version
     private Long version;
 
+    public abstract PaymentType getPaymentType();
+
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.model;
+
+import com.utils.TimeOrderedIdGenerator;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Payment ID generator that uses the pooled {@code payments_seq} sequence, unless a
+ * {@link TimeOrderedIdGenerator} has been registered under {@link #TIME_ORDERED_GENERATOR}
+ * in the Hibernate settings, in which case IDs are generated in memory without any
+ * database round trip.
+ */
+public class PaymentIdGenerator extends SequenceStyleGenerator {
+
+    public static final String TIME_ORDERED_GENERATOR = "payments.id.time-ordered-generator";
+
+    private TimeOrderedIdGenerator timeOrderedIdGenerator;
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        super.configure(type, parameters, serviceRegistry);
+        Object generator = serviceRegistry.getService(ConfigurationService.class)
+                .getSettings()
+                .get(TIME_ORDERED_GENERATOR);
+        if (generator instanceof TimeOrderedIdGenerator) {
+            timeOrderedIdGenerator = (TimeOrderedIdGenerator) generator;
+        }
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        if (timeOrderedIdGenerator != null) {
+            return timeOrderedIdGenerator.nextId();
+        }
+        return super.generate(session, object);
+    }
+}
@@ -0,0 +1,41 @@
+package com.model;
+
+/**
+ * Payment types as stored in the {@code payment_type} discriminator column.
+ */
+public enum PaymentType {
+    TYPE1(Type1Payment.class, 5),
+    TYPE2(Type2Payment.class, 10),
+    TYPE3(Type3Payment.class, 15);
+
+    private final Class<? extends Payment> entityClass;
+    private final long hourlyCancellationFee;
+
+    PaymentType(Class<? extends Payment> entityClass, long hourlyCancellationFee) {
+        this.entityClass = entityClass;
+        this.hourlyCancellationFee = hourlyCancellationFee;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the class is not a concrete payment entity
+     */
+    public static PaymentType of(Class<?> entityClass) {
+        for (PaymentType type : values()) {
+            if (type.entityClass == entityClass) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown payment type: " + entityClass);
+    }
+
+    public Class<? extends Payment> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * @return The cancellation fee per full hour since creation, in minor units of the payment currency.
+     */
+    public long getHourlyCancellationFee() {
+        return hourlyCancellationFee;
+    }
+}
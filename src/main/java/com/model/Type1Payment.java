@@ -6,14 +6,21 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Data
 @EqualsAndHashCode(callSuper = true)
 @Entity
+@DynamicUpdate
 @DiscriminatorValue("TYPE1")
 public class Type1Payment extends Payment {
 
     @NotNull
     @NotBlank(message = "Details are required for TYPE1 payments")
     private String details;
+
+    @Override
+    public PaymentType getPaymentType() {
+        return PaymentType.TYPE1;
+    }
 }
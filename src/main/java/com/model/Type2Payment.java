@@ -4,12 +4,19 @@ import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Data
 @EqualsAndHashCode(callSuper = true)
 @Entity
+@DynamicUpdate
 @DiscriminatorValue("TYPE2")
 public class Type2Payment extends Payment {
 
     private String details;
+
+    @Override
+    public PaymentType getPaymentType() {
+        return PaymentType.TYPE2;
+    }
 }
@@ -6,10 +6,12 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Data
 @EqualsAndHashCode(callSuper = true)
 @Entity
+@DynamicUpdate
 @DiscriminatorValue("TYPE3")
 public class Type3Payment extends Payment {
 
@@ -17,4 +19,9 @@ public class Type3Payment extends Payment {
     @NotBlank(message = "BIC code is required for TYPE3 payments")
     private String creditorBic;
 
+    @Override
+    public PaymentType getPaymentType() {
+        return PaymentType.TYPE3;
+    }
+
 }
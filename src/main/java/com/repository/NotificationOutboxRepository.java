@@ -0,0 +1,59 @@
+package com.repository;
+
+import com.model.NotificationOutbox;
+import com.model.NotificationOutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    @Query("SELECT o.id FROM NotificationOutbox o WHERE o.status = com.model.NotificationOutboxStatus.PENDING "
+            + "AND o.nextAttemptTime <= :now ORDER BY o.id")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationOutbox o SET o.status = com.model.NotificationOutboxStatus.PROCESSING, "
+            + "o.claimOwner = :owner, o.claimedTime = :now "
+            + "WHERE o.id = :id AND o.status = com.model.NotificationOutboxStatus.PENDING")
+    int claim(@Param("id") Long id, @Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationOutbox o SET o.status = com.model.NotificationOutboxStatus.PENDING, "
+            + "o.claimOwner = NULL, o.claimedTime = NULL "
+            + "WHERE o.id = :id AND o.status = com.model.NotificationOutboxStatus.PROCESSING AND o.claimOwner = :owner")
+    int release(@Param("id") Long id, @Param("owner") String owner);
+
+    /**
+     * Stores the outcome of a dispatch, unless the claim expired and was handed to someone else meanwhile.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationOutbox o SET o.status = :status, o.attempts = :attempts, "
+            + "o.processedTime = :processedTime, o.nextAttemptTime = :nextAttemptTime, "
+            + "o.claimOwner = NULL, o.claimedTime = NULL "
+            + "WHERE o.id = :id AND o.status = com.model.NotificationOutboxStatus.PROCESSING AND o.claimOwner = :owner")
+    int complete(@Param("id") Long id,
+                 @Param("owner") String owner,
+                 @Param("status") NotificationOutboxStatus status,
+                 @Param("attempts") int attempts,
+                 @Param("processedTime") LocalDateTime processedTime,
+                 @Param("nextAttemptTime") LocalDateTime nextAttemptTime);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationOutbox o SET o.status = com.model.NotificationOutboxStatus.PENDING, "
+            + "o.claimOwner = NULL, o.claimedTime = NULL "
+            + "WHERE o.status = com.model.NotificationOutboxStatus.PROCESSING AND o.claimedTime < :claimedBefore")
+    int reclaimExpired(@Param("claimedBefore") LocalDateTime claimedBefore);
+}
@@ -1,16 +1,23 @@
 package com.repository;
 
+import com.dto.PaymentFeeBasisDTO;
 import com.model.Payment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface PaymentRepository extends JpaRepository<Payment, Long> {
+public interface PaymentRepository extends JpaRepository<Payment, Long>, PaymentSearchRepository {
 
     @Query("SELECT p.id FROM Payment p WHERE p.isCancelled = false AND p.amount = :amount")
     List<Long> findNonCancelledPaymentIdsByAmount(@Param("amount") BigDecimal amount);
@@ -18,4 +25,43 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     @Query("SELECT p.id FROM Payment p WHERE p.isCancelled = false")
     List<Long> findAllNonCancelledPaymentIds();
 
+    @Query("SELECT p.id FROM Payment p WHERE p.isCancelled = false AND p.id > :afterId ORDER BY p.id")
+    List<Long> findNonCancelledPaymentIdsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT p.id FROM Payment p WHERE p.isCancelled = false AND p.amount = :amount AND p.id > :afterId ORDER BY p.id")
+    List<Long> findNonCancelledPaymentIdsByAmountAfter(@Param("amount") BigDecimal amount,
+                                                       @Param("afterId") long afterId,
+                                                       Pageable pageable);
+
+    /**
+     * Streams IDs from a forward-only cursor. Must be consumed inside a transaction
+     * and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p.id FROM Payment p WHERE p.isCancelled = false ORDER BY p.id")
+    Stream<Long> streamAllNonCancelledPaymentIds();
+
+    /**
+     * Streams {@code [amount, id]} pairs of active payments grouped by amount. Must be
+     * consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p.amount, p.id FROM Payment p WHERE p.isCancelled = false ORDER BY p.amount, p.id")
+    Stream<Object[]> streamNonCancelledAmountsAndIds();
+
+    /**
+     * Reads only the columns the cancellation fee depends on.
+     */
+    @Query("SELECT new com.dto.PaymentFeeBasisDTO(p.id, TYPE(p), p.currency, p.creationTime) FROM Payment p WHERE p.id = :id")
+    Optional<PaymentFeeBasisDTO> findFeeBasisById(@Param("id") Long id);
+
+    @Query("SELECT MAX(p.id) FROM Payment p")
+    Long findMaxId();
+
 }
@@ -0,0 +1,19 @@
+package com.repository;
+
+import com.dto.PaymentSearchCriteria;
+
+import java.util.List;
+
+public interface PaymentSearchRepository {
+
+    /**
+     * Finds IDs of payments matching all non-null criteria, in ascending order, starting after the given ID.
+     *
+     * @param criteria the filters to apply
+     * @param afterId  only IDs greater than this are returned
+     * @param limit    the maximum number of IDs to return
+     * @return the matching IDs
+     */
+    List<Long> searchPaymentIds(PaymentSearchCriteria criteria, long afterId, int limit);
+
+}
@@ -0,0 +1,100 @@
+package com.repository;
+
+import com.dto.PaymentSearchCriteria;
+import com.model.Payment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the search query from only the criteria that are set, so each combination is a
+ * plain conjunction of equality and range predicates that the composite indexes in
+ * {@code V2__payment_search_indexes.sql} and {@code V6__payment_search_range_indexes.sql} can serve.
+ * <p>
+ * A query with an amount or creation time range is ordered by that column and then by ID, the
+ * order of the {@code (amount, id)} and {@code (creation_time, id)} indexes, so the database
+ * stops reading after {@code limit} rows instead of sorting every match by ID. The cursor
+ * stays the last ID of the previous page; its amount or creation time, which never change,
+ * is looked up in a subquery.
+ */
+public class PaymentSearchRepositoryImpl implements PaymentSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> searchPaymentIds(PaymentSearchCriteria criteria, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Payment> payment = query.from(Payment.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getCancelled() != null) {
+            predicates.add(cb.equal(payment.get("isCancelled"), criteria.getCancelled()));
+        }
+        if (criteria.getCurrency() != null) {
+            predicates.add(cb.equal(payment.get("currency"), criteria.getCurrency()));
+        }
+        if (criteria.getType() != null) {
+            predicates.add(cb.equal(payment.type(), criteria.getType().getEntityClass()));
+        }
+        if (criteria.getMinAmount() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(payment.get("amount"), criteria.getMinAmount()));
+        }
+        if (criteria.getMaxAmount() != null) {
+            predicates.add(cb.lessThanOrEqualTo(payment.get("amount"), criteria.getMaxAmount()));
+        }
+        if (criteria.getCreatedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(payment.get("creationTime"), criteria.getCreatedFrom()));
+        }
+        if (criteria.getCreatedTo() != null) {
+            predicates.add(cb.lessThan(payment.get("creationTime"), criteria.getCreatedTo()));
+        }
+
+        Path<Long> id = payment.get("id");
+        if (criteria.getMinAmount() != null || criteria.getMaxAmount() != null) {
+            orderByKey(cb, query, payment, "amount", BigDecimal.class, afterId, predicates);
+        } else if (criteria.getCreatedFrom() != null || criteria.getCreatedTo() != null) {
+            orderByKey(cb, query, payment, "creationTime", LocalDateTime.class, afterId, predicates);
+        } else {
+            predicates.add(cb.greaterThan(id, afterId));
+            query.orderBy(cb.asc(id));
+        }
+
+        query.select(id).where(predicates.toArray(new Predicate[0]));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Orders by the {@code key} attribute and ID, and continues after the payment {@code afterId}.
+     * The cursor condition is written as {@code key >= cursorKey AND (key > cursorKey OR id > afterId)}
+     * so that its first part is a plain index range.
+     */
+    private static <Y extends Comparable<? super Y>> void orderByKey(CriteriaBuilder cb, CriteriaQuery<Long> query,
+                                                                     Root<Payment> payment, String key, Class<Y> keyType,
+                                                                     long afterId, List<Predicate> predicates) {
+        Path<Y> keyPath = payment.get(key);
+        Path<Long> id = payment.get("id");
+        if (afterId > 0) {
+            Subquery<Y> cursor = query.subquery(keyType);
+            Root<Payment> cursorPayment = cursor.from(Payment.class);
+            cursor.select(cursorPayment.get(key)).where(cb.equal(cursorPayment.get("id"), afterId));
+            predicates.add(cb.greaterThanOrEqualTo(keyPath, cursor));
+            predicates.add(cb.or(cb.greaterThan(keyPath, cursor), cb.greaterThan(id, afterId)));
+        }
+        query.orderBy(cb.asc(keyPath), cb.asc(id));
+    }
+}
@@ -0,0 +1,27 @@
+package com.service;
+
+import com.event.AuditEvent;
+
+import java.util.function.Supplier;
+
+/**
+ * Writes payment changes to the {@code AUDIT} logger, whose asynchronous appender never
+ * discards records, and sampled events to {@code AUDIT.sampled}, which shares the
+ * application log's appender and may be discarded when its queue is nearly full.
+ */
+public interface AuditLogService {
+
+    /**
+     * Logs a payment change once the transaction that published it has committed.
+     *
+     * @param event the audit record, written in full regardless of sampling
+     */
+    void onPaymentAudit(AuditEvent event);
+
+    /**
+     * Logs a high-volume event for a configured fraction of calls.
+     *
+     * @param event builds the audit record; only called when the call is sampled
+     */
+    void logSampled(Supplier<AuditEvent> event);
+}
@@ -0,0 +1,47 @@
+package com.service;
+
+import com.event.AuditEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+@Service
+public class AuditLogServiceImpl implements AuditLogService {
+
+    public static final String AUDIT_LOGGER = "AUDIT";
+    public static final String SAMPLED_AUDIT_LOGGER = "AUDIT.sampled";
+
+    private static final Logger AUDIT = LoggerFactory.getLogger(AUDIT_LOGGER);
+    private static final Logger SAMPLED_AUDIT = LoggerFactory.getLogger(SAMPLED_AUDIT_LOGGER);
+
+    private final double sampleRate;
+
+    public AuditLogServiceImpl(@Value("${audit.sampling.rate}") double sampleRate) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("audit.sampling.rate must be between 0 and 1");
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    @TransactionalEventListener
+    public void onPaymentAudit(AuditEvent event) {
+        AUDIT.info(event.getMessage());
+    }
+
+    @Override
+    public void logSampled(Supplier<AuditEvent> event) {
+        if (SAMPLED_AUDIT.isInfoEnabled() && isSampled()) {
+            SAMPLED_AUDIT.info(event.get().getMessage());
+        }
+    }
+
+    private boolean isSampled() {
+        return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+}
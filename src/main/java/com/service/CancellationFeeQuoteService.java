@@ -0,0 +1,23 @@
+package com.service;
+
+import com.dto.FeeQuoteCacheStatsDTO;
+import com.dto.PaymentFeeResponseDTO;
+
+/**
+ * Quotes the cancellation fee a payment would be charged now.
+ */
+public interface CancellationFeeQuoteService {
+
+    /**
+     * @param paymentId the payment to quote
+     * @return the fee and the version of the exchange rates it was calculated with
+     * @throws IllegalArgumentException if the payment does not exist
+     */
+    PaymentFeeResponseDTO getQuote(Long paymentId);
+
+    /**
+     * @return hit and miss counts of the quote cache
+     */
+    FeeQuoteCacheStatsDTO getCacheStats();
+
+}
@@ -0,0 +1,111 @@
+package com.service;
+
+import com.dto.FeeQuoteCacheStatsDTO;
+import com.dto.PaymentFeeBasisDTO;
+import com.dto.PaymentFeeResponseDTO;
+import com.event.PaymentCancelledEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.repository.PaymentRepository;
+import com.utils.CancellationFeeCalculator;
+import com.utils.ExchangeRateTable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches one quote per payment together with the hour count and rate version it was
+ * calculated for, which is equivalent to keying quotes by payment and hour bucket.
+ * <p>
+ * A miss reads only the fee columns of the payment. Those never change, so when the hour
+ * count or the rate version moves on, the quote is recalculated from the cached columns
+ * without touching the database. Quotes are dropped once a cancellation commits. Concurrent
+ * misses for one payment may both query it; the columns are immutable, so either quote is valid.
+ */
+@Service
+public class CancellationFeeQuoteServiceImpl implements CancellationFeeQuoteService {
+
+    private static final String PAYMENT_NOT_FOUND_MSG = "Payment not found with ID: ";
+
+    private final PaymentRepository paymentRepository;
+    private final CancellationFeeCalculator cancellationFeeCalculator;
+    private final ExchangeRateProvider exchangeRateProvider;
+    private final Cache<Long, FeeQuote> quotes;
+    private final LongAdder recalculations = new LongAdder();
+
+    public CancellationFeeQuoteServiceImpl(PaymentRepository paymentRepository,
+                                           CancellationFeeCalculator cancellationFeeCalculator,
+                                           ExchangeRateProvider exchangeRateProvider,
+                                           @Value("${payments.fee-quote-cache.maximum-size}") long maximumSize,
+                                           @Value("${payments.fee-quote-cache.expire-after-access}") Duration expireAfterAccess) {
+        this.paymentRepository = paymentRepository;
+        this.cancellationFeeCalculator = cancellationFeeCalculator;
+        this.exchangeRateProvider = exchangeRateProvider;
+        this.quotes = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public PaymentFeeResponseDTO getQuote(Long paymentId) {
+        ExchangeRateTable rates = exchangeRateProvider.current();
+        FeeQuote quote = quotes.getIfPresent(paymentId);
+        if (quote == null) {
+            // queried outside the cache's compute, which would pin a virtual thread for the round trip
+            FeeQuote loaded = paymentRepository.findFeeBasisById(paymentId)
+                    .map(basis -> calculate(basis, rates))
+                    .orElseThrow(() -> new IllegalArgumentException(PAYMENT_NOT_FOUND_MSG + paymentId));
+            FeeQuote existing = quotes.asMap().putIfAbsent(paymentId, loaded);
+            quote = existing != null ? existing : loaded;
+        }
+
+        long hours = cancellationFeeCalculator.hoursSince(quote.basis.getCreationTime());
+        if (hours != quote.hours || rates.getVersion() != quote.rateVersion) {
+            FeeQuote stale = quote;
+            quote = calculate(stale.basis, rates);
+            recalculations.increment();
+            // replace only the quote read above, so a quote evicted meanwhile stays evicted
+            quotes.asMap().replace(paymentId, stale, quote);
+        }
+        return new PaymentFeeResponseDTO(paymentId, quote.fee, quote.rateVersion);
+    }
+
+    @Override
+    public FeeQuoteCacheStatsDTO getCacheStats() {
+        CacheStats stats = quotes.stats();
+        return new FeeQuoteCacheStatsDTO(quotes.estimatedSize(), stats.hitCount(), stats.missCount(),
+                recalculations.sum(), stats.evictionCount(), stats.hitRate());
+    }
+
+    @TransactionalEventListener
+    public void onPaymentCancelled(PaymentCancelledEvent event) {
+        quotes.invalidate(event.getPaymentId());
+    }
+
+    private FeeQuote calculate(PaymentFeeBasisDTO basis, ExchangeRateTable rates) {
+        long hours = cancellationFeeCalculator.hoursSince(basis.getCreationTime());
+        long fee = cancellationFeeCalculator.feeMinorUnits(basis.getPaymentType(), basis.getCurrency(), hours, rates);
+        return new FeeQuote(basis, hours, rates.getVersion(), BigDecimal.valueOf(fee, CancellationFeeCalculator.SCALE));
+    }
+
+    private static final class FeeQuote {
+        private final PaymentFeeBasisDTO basis;
+        private final long hours;
+        private final long rateVersion;
+        private final BigDecimal fee;
+
+        private FeeQuote(PaymentFeeBasisDTO basis, long hours, long rateVersion, BigDecimal fee) {
+            this.basis = basis;
+            this.hours = hours;
+            this.rateVersion = rateVersion;
+            this.fee = fee;
+        }
+    }
+}
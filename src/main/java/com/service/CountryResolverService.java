@@ -5,6 +5,8 @@ public interface CountryResolverService {
     /**
      * Logs the country information of a client based on their IP address.
      * If the country cannot be resolved, a warning is logged instead.
+     * Implementations may resolve the country asynchronously, so the log line can
+     * appear after this method has returned.
      *
      * @param ipAddress The IP address of the client.
      */
@@ -1,37 +1,280 @@
 package com.service;
 
+import com.dto.GeoLookupCacheStatsDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.utils.IpAddressUtils;
+import com.utils.ThreadFactories;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
+@ConditionalOnProperty(name = "ip-api.mode", havingValue = "remote", matchIfMissing = true)
 public class CountryResolverServiceImpl implements CountryResolverService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CountryResolverServiceImpl.class);
     private final RestTemplate restTemplate;
+    private final Cache<String, GeoLookup> lookupCache;
+    private final boolean collapseToPrefix;
+    private final OutboundCallMetrics outboundCallMetrics;
+    private final LongAdder droppedLookups = new LongAdder();
+    private BlockingQueue<String> pendingLookups;
+    private Thread lookupWorker;
 
     @Value("${ip-api.api.url}")
     String geoApiBaseUrl;
 
+    @Value("${ip-api.batch.url}")
+    String geoApiBatchUrl;
+
+    @Value("${ip-api.async.queue-capacity}")
+    int queueCapacity;
+
+    @Value("${ip-api.async.batch-size}")
+    int batchSize;
+
+    @Value("${ip-api.async.max-wait}")
+    Duration maxBatchWait;
+
+    @Value("${ip-api.async.drop-policy}")
+    DropPolicy dropPolicy;
+
+    @Value("${spring.threads.virtual.enabled}")
+    boolean virtualThreads;
+
     private static final String LOG_CLIENT_COUNTRY = "Client from country: {}, IP: {}";
     private static final String LOG_FAILED_COUNTRY_RESOLUTION = "Failed to resolve country for IP: {}";
     private static final String LOG_REST_CLIENT_EXCEPTION = "REST client exception when resolving country: {}";
+    private static final String LOG_LOOKUP_DROPPED = "Geo lookup queue is full, dropped lookup for IP: {}";
+    private static final String LOG_BATCH_ERROR = "Unexpected error while resolving a batch of {} IPs";
+    private static final String BATCH_FIELDS = "status,country,query";
+    private static final String METRICS_CLIENT = "geo";
+    private static final String METRICS_SINGLE_ENDPOINT = "json";
+    private static final String METRICS_BATCH_ENDPOINT = "batch";
+
+    /**
+     * What to do with a lookup when the queue is full.
+     */
+    public enum DropPolicy {
+        /** Discard the lookup that could not be queued. */
+        DROP_NEWEST,
+        /** Discard the oldest queued lookup to make room for the new one. */
+        DROP_OLDEST
+    }
+
+    public CountryResolverServiceImpl(@Qualifier("geoRestTemplate") RestTemplate restTemplate,
+                                      @Value("${ip-api.cache.maximum-size}") long maximumSize,
+                                      @Value("${ip-api.cache.ttl}") Duration ttl,
+                                      @Value("${ip-api.cache.negative-ttl}") Duration negativeTtl,
+                                      @Value("${ip-api.cache.collapse-to-prefix}") boolean collapseToPrefix,
+                                      OutboundCallMetrics outboundCallMetrics) {
+        this.restTemplate = restTemplate;
+        this.collapseToPrefix = collapseToPrefix;
+        this.outboundCallMetrics = outboundCallMetrics;
+        this.lookupCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new GeoLookupExpiry(ttl, negativeTtl))
+                .recordStats()
+                .build();
+    }
 
-    public CountryResolverServiceImpl() {
-        this.restTemplate = new RestTemplate();
+    @PostConstruct
+    public void startLookupWorker() {
+        pendingLookups = new ArrayBlockingQueue<>(queueCapacity);
+        lookupWorker = ThreadFactories.named("geo-resolver-", virtualThreads).newThread(this::drainPendingLookups);
+        lookupWorker.setDaemon(true);
+        lookupWorker.start();
     }
 
+    @PreDestroy
+    public void stopLookupWorker() {
+        lookupWorker.interrupt();
+    }
+
+    /**
+     * Logs the country straight away when it is cached. Otherwise the IP is queued for the
+     * background worker and the caller returns without waiting for the geo API.
+     */
     public void logClientCountry(String ipAddress) {
+        if (ipAddress == null) {
+            LOGGER.warn(LOG_FAILED_COUNTRY_RESOLUTION, ipAddress);
+            return;
+        }
+
+        GeoLookup cached = lookupCache.getIfPresent(cacheKey(ipAddress));
+        if (cached != null) {
+            logLookup(cached, ipAddress);
+            return;
+        }
+
+        if (pendingLookups.offer(ipAddress)) {
+            return;
+        }
+        if (dropPolicy == DropPolicy.DROP_OLDEST) {
+            String oldest = pendingLookups.poll();
+            if (oldest != null) {
+                dropLookup(oldest);
+            }
+            if (pendingLookups.offer(ipAddress)) {
+                return;
+            }
+        }
+        dropLookup(ipAddress);
+    }
+
+    /**
+     * Returns the lookup cache counters together with the state of the lookup queue.
+     *
+     * @return A snapshot of the cache and queue statistics.
+     */
+    public GeoLookupCacheStatsDTO getStats() {
+        CacheStats stats = lookupCache.stats();
+        return new GeoLookupCacheStatsDTO(lookupCache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.evictionCount(), stats.hitRate(), pendingLookups.size(), droppedLookups.sum());
+    }
+
+    /**
+     * Counts and logs a lookup that left the queue unresolved. Every lost lookup passes
+     * here exactly once.
+     */
+    private void dropLookup(String ipAddress) {
+        droppedLookups.increment();
+        LOGGER.debug(LOG_LOOKUP_DROPPED, ipAddress);
+    }
+
+    /**
+     * Collects queued IPs into micro-batches: the worker waits for the first IP, then keeps
+     * collecting for at most the configured wait or until the batch is full.
+     */
+    private void drainPendingLookups() {
+        List<String> batch = new ArrayList<>(batchSize);
+        long maxWaitNanos = maxBatchWait.toNanos();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(pendingLookups.take());
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < batchSize) {
+                    pendingLookups.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    String next = pendingLookups.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                resolveBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                LOGGER.error(LOG_BATCH_ERROR, batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void resolveBatch(List<String> ipAddresses) {
+        Map<String, List<String>> ipsByKey = new LinkedHashMap<>();
+        for (String ipAddress : ipAddresses) {
+            String key = cacheKey(ipAddress);
+            // The miss was already recorded when the IP was queued, so look it up without stats.
+            GeoLookup cached = lookupCache.asMap().get(key);
+            if (cached != null) {
+                logLookup(cached, ipAddress);
+            } else {
+                ipsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(ipAddress);
+            }
+        }
+        if (ipsByKey.isEmpty()) {
+            return;
+        }
+
+        List<String> representatives = new ArrayList<>(ipsByKey.size());
+        ipsByKey.values().forEach(ips -> representatives.add(ips.get(0)));
+        List<GeoLookup> lookups = representatives.size() == 1
+                ? List.of(lookup(representatives.get(0)))
+                : lookupBatch(representatives);
+
+        int index = 0;
+        for (Map.Entry<String, List<String>> entry : ipsByKey.entrySet()) {
+            GeoLookup lookup = lookups.get(index++);
+            lookupCache.put(entry.getKey(), lookup);
+            entry.getValue().forEach(ipAddress -> logLookup(lookup, ipAddress));
+        }
+    }
+
+    private GeoLookup lookup(String ipAddress) {
         try {
-            String country = resolveCountry(ipAddress);
-            LOGGER.info(LOG_CLIENT_COUNTRY, country, ipAddress);
+            return GeoLookup.resolved(resolveCountry(ipAddress));
         } catch (Exception e) {
+            return GeoLookup.FAILED;
+        }
+    }
+
+    private List<GeoLookup> lookupBatch(List<String> ipAddresses) {
+        List<Map<String, String>> request = new ArrayList<>(ipAddresses.size());
+        ipAddresses.forEach(ipAddress -> request.add(Map.of("query", ipAddress, "fields", BATCH_FIELDS)));
+
+        List<Map<String, String>> response = null;
+        Timer.Sample sample = outboundCallMetrics.start();
+        try {
+            response = restTemplate.exchange(geoApiBatchUrl,
+                    HttpMethod.POST,
+                    new HttpEntity<>(request),
+                    new ParameterizedTypeReference<List<Map<String, String>>>() {}).getBody();
+            outboundCallMetrics.stop(sample, METRICS_CLIENT, METRICS_BATCH_ENDPOINT, OutboundCallMetrics.Outcome.SUCCESS);
+        } catch (RestClientException e) {
+            outboundCallMetrics.stop(sample, METRICS_CLIENT, METRICS_BATCH_ENDPOINT, OutboundCallMetrics.outcomeOf(e));
+            LOGGER.debug(LOG_REST_CLIENT_EXCEPTION, e.getMessage());
+        }
+
+        List<GeoLookup> lookups = new ArrayList<>(ipAddresses.size());
+        for (int i = 0; i < ipAddresses.size(); i++) {
+            if (response == null || i >= response.size()) {
+                lookups.add(GeoLookup.FAILED);
+            } else {
+                String country = response.get(i).get("country");
+                lookups.add(GeoLookup.resolved(country != null ? country : "Unknown"));
+            }
+        }
+        return lookups;
+    }
+
+    private String cacheKey(String ipAddress) {
+        return collapseToPrefix ? IpAddressUtils.toNetworkPrefix(ipAddress) : ipAddress;
+    }
+
+    private void logLookup(GeoLookup lookup, String ipAddress) {
+        if (lookup.isResolved()) {
+            LOGGER.info(LOG_CLIENT_COUNTRY, lookup.getCountry(), ipAddress);
+        } else {
             LOGGER.warn(LOG_FAILED_COUNTRY_RESOLUTION, ipAddress);
         }
     }
@@ -39,13 +282,15 @@ public class CountryResolverServiceImpl implements CountryResolverService {
     private String resolveCountry(String ipAddress) throws RestClientException {
         String url = geoApiBaseUrl + ipAddress;
 
+        Timer.Sample sample = outboundCallMetrics.start();
         try {
             ParameterizedTypeReference<Map<String, String>> responseType = new ParameterizedTypeReference<>() {};
 
             Map<String, String> response = restTemplate.exchange(url,
-                    org.springframework.http.HttpMethod.GET,
+                    HttpMethod.GET,
                     null,
                     responseType).getBody();
+            outboundCallMetrics.stop(sample, METRICS_CLIENT, METRICS_SINGLE_ENDPOINT, OutboundCallMetrics.Outcome.SUCCESS);
 
             if (response != null && response.get("country") != null) {
                 return response.get("country");
@@ -53,8 +298,60 @@ public class CountryResolverServiceImpl implements CountryResolverService {
                 return "Unknown";
             }
         } catch (RestClientException e) {
+            outboundCallMetrics.stop(sample, METRICS_CLIENT, METRICS_SINGLE_ENDPOINT, OutboundCallMetrics.outcomeOf(e));
             LOGGER.debug(LOG_REST_CLIENT_EXCEPTION, e.getMessage());
             throw e;
         }
     }
+
+    private static final class GeoLookup {
+        private static final GeoLookup FAILED = new GeoLookup(null);
+
+        private final String country;
+
+        private GeoLookup(String country) {
+            this.country = country;
+        }
+
+        private static GeoLookup resolved(String country) {
+            return new GeoLookup(country);
+        }
+
+        private String getCountry() {
+            return country;
+        }
+
+        private boolean isResolved() {
+            return country != null;
+        }
+    }
+
+    /**
+     * Keeps resolved countries for the full TTL, but retries failed lookups after the much
+     * shorter negative TTL so a transient outage of the geo API is not remembered for long.
+     */
+    private static final class GeoLookupExpiry implements Expiry<String, GeoLookup> {
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        private GeoLookupExpiry(Duration ttl, Duration negativeTtl) {
+            this.ttlNanos = ttl.toNanos();
+            this.negativeTtlNanos = negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, GeoLookup value, long currentTime) {
+            return value.isResolved() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, GeoLookup value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, GeoLookup value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -0,0 +1,38 @@
+package com.service;
+
+import com.model.Currency;
+import com.utils.ExchangeRateTable;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Holds the EUR exchange rates in effect. Every change publishes a new immutable
+ * {@link ExchangeRateTable} with a higher version, so callers that read the table once use
+ * a consistent set of rates and can record its version.
+ */
+public interface ExchangeRateProvider {
+
+    /**
+     * @return the rates in effect; never blocks
+     */
+    ExchangeRateTable current();
+
+    /**
+     * Reloads the rates from the configured rates file.
+     *
+     * @return the rates now in effect
+     * @throws IllegalArgumentException if the file cannot be read or contains invalid rates
+     */
+    ExchangeRateTable reload();
+
+    /**
+     * Replaces the rates in effect.
+     *
+     * @param rates the EUR value of one unit of each currency
+     * @return the rates now in effect
+     * @throws IllegalArgumentException if a rate is invalid
+     */
+    ExchangeRateTable update(Map<Currency, BigDecimal> rates);
+
+}
@@ -0,0 +1,119 @@
+package com.service;
+
+import com.model.Currency;
+import com.utils.ExchangeRateTable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the rate table in an {@link AtomicReference}: reads are a single volatile load and
+ * updates swap in a new table. Versions are the load time in epoch milliseconds, raised where
+ * needed to stay above the previous version, so they keep increasing across restarts.
+ * The rates file is reloaded on request and whenever its modification time changes. Writers
+ * take a {@link ReentrantLock} rather than a monitor, so reading the file does not pin a
+ * virtual thread.
+ */
+@Service
+@Slf4j
+public class ExchangeRateProviderImpl implements ExchangeRateProvider {
+
+    private static final String RATES_LOADED_MSG = "Loaded exchange rates version {} from {}: {}";
+    private static final String RATES_UPDATED_MSG = "Exchange rates updated to version {}: {}";
+    private static final String RATES_RELOAD_FAILED_MSG = "Failed to reload exchange rates from {}, keeping version {}";
+    private static final String RATES_LOAD_ERROR_MSG = "Cannot load exchange rates from ";
+
+    private final Resource ratesFile;
+    private final Clock clock;
+    private final AtomicReference<ExchangeRateTable> rates = new AtomicReference<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile long ratesFileModified;
+
+    public ExchangeRateProviderImpl(@Value("${payments.fx.rates-file}") Resource ratesFile, Clock clock) {
+        this.ratesFile = ratesFile;
+        this.clock = clock;
+        reload();
+    }
+
+    @Override
+    public ExchangeRateTable current() {
+        return rates.get();
+    }
+
+    @Override
+    public ExchangeRateTable reload() {
+        writeLock.lock();
+        try {
+            long modified = lastModified();
+            ExchangeRateTable table;
+            try (Reader reader = new InputStreamReader(ratesFile.getInputStream(), StandardCharsets.UTF_8)) {
+                table = publish(ExchangeRateTable.load(reader, nextVersion()));
+            } catch (IOException e) {
+                throw new IllegalArgumentException(RATES_LOAD_ERROR_MSG + ratesFile, e);
+            }
+            ratesFileModified = modified;
+            log.info(RATES_LOADED_MSG, table.getVersion(), ratesFile, table.getRates());
+            return table;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public ExchangeRateTable update(Map<Currency, BigDecimal> newRates) {
+        writeLock.lock();
+        try {
+            ExchangeRateTable table = publish(ExchangeRateTable.of(nextVersion(), newRates));
+            log.info(RATES_UPDATED_MSG, table.getVersion(), table.getRates());
+            return table;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payments.fx.reload-interval-ms}")
+    public void reloadIfModified() {
+        long modified = lastModified();
+        if (modified == 0 || modified == ratesFileModified) {
+            return;
+        }
+        try {
+            reload();
+        } catch (IllegalArgumentException e) {
+            // remember the broken file so it is not retried until it changes again
+            ratesFileModified = modified;
+            log.error(RATES_RELOAD_FAILED_MSG, ratesFile, current().getVersion(), e);
+        }
+    }
+
+    private ExchangeRateTable publish(ExchangeRateTable table) {
+        rates.set(table);
+        return table;
+    }
+
+    /** Writers are serialized, so the previous version cannot change meanwhile. */
+    private long nextVersion() {
+        ExchangeRateTable previous = rates.get();
+        return previous == null ? clock.millis() : Math.max(previous.getVersion() + 1, clock.millis());
+    }
+
+    private long lastModified() {
+        try {
+            return ratesFile.lastModified();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.service;
+
+import com.dto.PaymentRequestDTO;
+import com.dto.PaymentResponseDTO;
+
+public interface IdempotentPaymentService {
+
+    /**
+     * Creates a payment once per idempotency key. Repeating a request with the same key
+     * returns the response of the first one without validating, inserting or notifying again;
+     * requests arriving while the first is still running wait for its result.
+     *
+     * @param idempotencyKey the client's {@code Idempotency-Key} header
+     * @param request the payment request data
+     * @return the response of the request that created the payment
+     * @throws com.exeption.IdempotencyKeyReuseException if the key was used for a different request
+     */
+    PaymentResponseDTO createPayment(String idempotencyKey, PaymentRequestDTO request);
+
+    /**
+     * Deletes stored responses whose keys have expired.
+     */
+    void purgeExpiredKeys();
+}
@@ -0,0 +1,201 @@
+package com.service;
+
+import com.dto.PaymentRequestDTO;
+import com.dto.PaymentResponseDTO;
+import com.exeption.IdempotencyKeyReuseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.model.IdempotencyKey;
+import com.repository.IdempotencyKeyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Responses are kept in a bounded in-memory cache in front of the {@code idempotency_keys}
+ * table. The cache holds one future per key, so concurrent requests with the same key wait
+ * for the first one instead of creating their own payment. Failed requests are removed from
+ * the cache and not stored, so a rejected request can be retried with the same key.
+ * <p>
+ * The key row is inserted in the transaction that creates the payment. If another instance
+ * inserted the same key first, that transaction rolls back and the stored response is returned.
+ */
+@Service
+@Slf4j
+public class IdempotentPaymentServiceImpl implements IdempotentPaymentService {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private static final String INVALID_KEY_MSG = "Idempotency-Key must contain 1 to " + MAX_KEY_LENGTH + " characters";
+    private static final String KEY_REUSED_MSG = "Idempotency-Key was already used for a different payment request";
+    private static final String REPLAY_LOG_MSG = "Replaying stored response for payment ID: {}";
+    private static final String PURGED_LOG_MSG = "Purged {} expired idempotency keys";
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private final PaymentService paymentService;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Cache<String, CompletableFuture<StoredResponse>> responses;
+
+    public IdempotentPaymentServiceImpl(PaymentService paymentService,
+                                        IdempotencyKeyRepository idempotencyKeyRepository,
+                                        PlatformTransactionManager transactionManager,
+                                        ObjectMapper objectMapper,
+                                        @Value("${payments.idempotency.cache-maximum-size}") long maximumSize,
+                                        @Value("${payments.idempotency.ttl}") Duration ttl) {
+        this.paymentService = paymentService;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public PaymentResponseDTO createPayment(String idempotencyKey, PaymentRequestDTO request) {
+        if (idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(INVALID_KEY_MSG);
+        }
+        String requestHash = hash(request);
+
+        CompletableFuture<StoredResponse> created = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> existing = responses.asMap().putIfAbsent(idempotencyKey, created);
+        StoredResponse stored;
+        if (existing == null) {
+            try {
+                stored = load(idempotencyKey, requestHash, request);
+            } catch (RuntimeException e) {
+                responses.asMap().remove(idempotencyKey, created);
+                created.completeExceptionally(e);
+                throw e;
+            }
+            created.complete(stored);
+        } else {
+            stored = join(existing);
+        }
+
+        if (!stored.requestHash.equals(requestHash)) {
+            throw new IdempotencyKeyReuseException(KEY_REUSED_MSG);
+        }
+        return stored.response;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${payments.idempotency.purge-interval-ms}")
+    public void purgeExpiredKeys() {
+        int purged = idempotencyKeyRepository.deleteAllExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info(PURGED_LOG_MSG, purged);
+        }
+    }
+
+    private StoredResponse load(String idempotencyKey, String requestHash, PaymentRequestDTO request) {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<IdempotencyKey> record = idempotencyKeyRepository.findById(idempotencyKey);
+        if (record.isPresent() && record.get().getExpiresTime().isAfter(now)) {
+            log.debug(REPLAY_LOG_MSG, record.get().getPaymentId());
+            return fromRecord(record.get());
+        }
+
+        try {
+            return transactionTemplate.execute(status -> {
+                if (record.isPresent()) {
+                    idempotencyKeyRepository.deleteExpired(idempotencyKey, now);
+                }
+                PaymentResponseDTO response = paymentService.createPayment(request);
+                idempotencyKeyRepository.saveAndFlush(toRecord(idempotencyKey, requestHash, response, now));
+                return new StoredResponse(requestHash, response);
+            });
+        } catch (DataIntegrityViolationException e) {
+            return idempotencyKeyRepository.findById(idempotencyKey)
+                    .map(this::fromRecord)
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private IdempotencyKey toRecord(String idempotencyKey, String requestHash, PaymentResponseDTO response,
+                                    LocalDateTime now) {
+        IdempotencyKey record = new IdempotencyKey();
+        record.setKey(idempotencyKey);
+        record.setRequestHash(requestHash);
+        record.setPaymentId(response.getId());
+        record.setCreatedTime(now);
+        record.setExpiresTime(now.plus(ttl));
+        try {
+            record.setResponseBody(objectMapper.writeValueAsString(response));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize payment response", e);
+        }
+        return record;
+    }
+
+    private StoredResponse fromRecord(IdempotencyKey record) {
+        try {
+            return new StoredResponse(record.getRequestHash(),
+                    objectMapper.readValue(record.getResponseBody(), PaymentResponseDTO.class));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read stored response for payment ID: " + record.getPaymentId(), e);
+        }
+    }
+
+    private static StoredResponse join(CompletableFuture<StoredResponse> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * SHA-256 of the request fields; amounts that differ only in trailing zeros hash equally.
+     */
+    static String hash(PaymentRequestDTO request) {
+        StringBuilder fields = new StringBuilder(128)
+                .append(request.getAmount() == null ? null : request.getAmount().stripTrailingZeros().toPlainString())
+                .append(FIELD_SEPARATOR).append(request.getCurrency())
+                .append(FIELD_SEPARATOR).append(request.getDebtorIban())
+                .append(FIELD_SEPARATOR).append(request.getCreditorIban())
+                .append(FIELD_SEPARATOR).append(request.getDetails())
+                .append(FIELD_SEPARATOR).append(request.getCreditorBic());
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(fields.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class StoredResponse {
+        private final String requestHash;
+        private final PaymentResponseDTO response;
+
+        private StoredResponse(String requestHash, PaymentResponseDTO response) {
+            this.requestHash = requestHash;
+            this.response = response;
+        }
+    }
+}
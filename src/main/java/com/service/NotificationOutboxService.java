@@ -0,0 +1,20 @@
+package com.service;
+
+import com.model.Payment;
+
+public interface NotificationOutboxService {
+
+    /**
+     * Records that a payment-created notification must be sent. The entry is written
+     * in the caller's transaction, so it is committed together with the payment itself.
+     *
+     * @param payment the persisted payment to notify about
+     */
+    void enqueuePaymentCreated(Payment payment);
+
+    /**
+     * Claims pending outbox entries and hands them to the dispatcher pool,
+     * which performs the external notification outside of any request transaction.
+     */
+    void dispatchPending();
+}
@@ -0,0 +1,196 @@
+package com.service;
+
+import com.model.NotificationOutbox;
+import com.model.NotificationOutboxStatus;
+import com.model.Payment;
+import com.repository.NotificationOutboxRepository;
+import com.repository.PaymentRepository;
+import com.utils.ThreadFactories;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers outbox entries. Several instances can poll one outbox: an instance claims an entry
+ * by moving it to PROCESSING under its own owner ID, and only claims older than the lease
+ * timeout, left by an instance that died, are handed back to PENDING. A failed attempt is
+ * retried after a delay that doubles with every attempt.
+ */
+@Service
+@Slf4j
+public class NotificationOutboxServiceImpl implements NotificationOutboxService {
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final PaymentRepository paymentRepository;
+    private final NotificationService notificationService;
+    private final ExecutorService dispatcherExecutor;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration leaseTimeout;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final String owner;
+
+    private static final String OUTBOX_ENQUEUED_MSG = "Notification queued in outbox for payment ID: {}";
+    private static final String OUTBOX_RECLAIMED_MSG = "Re-queued {} outbox entries whose claim expired";
+    private static final String CLAIM_LOST_MSG = "Claim on outbox entry ID: {} expired before its result was stored";
+    private static final String DISPATCHER_SATURATED_MSG = "Notification dispatcher is saturated, deferring outbox entry ID: {}";
+    private static final String PAYMENT_MISSING_MSG = "Payment ID: {} for outbox entry ID: {} no longer exists";
+    private static final String DISPATCH_ERROR_MSG = "Failed to dispatch outbox entry ID: {}";
+    private static final String DISPATCH_RESULT_MSG = "Outbox entry ID: {} for payment ID: {} is now {} after {} attempt(s)";
+
+    @Autowired
+    public NotificationOutboxServiceImpl(NotificationOutboxRepository outboxRepository,
+                                         PaymentRepository paymentRepository,
+                                         NotificationService notificationService,
+                                         @Value("${notification.outbox.batch-size}") int batchSize,
+                                         @Value("${notification.outbox.max-attempts}") int maxAttempts,
+                                         @Value("${notification.outbox.lease-timeout}") Duration leaseTimeout,
+                                         @Value("${notification.outbox.retry-backoff}") Duration retryBackoff,
+                                         @Value("${notification.outbox.max-retry-backoff}") Duration maxRetryBackoff,
+                                         @Value("${notification.outbox.dispatcher-threads}") int dispatcherThreads,
+                                         @Value("${notification.outbox.dispatcher-queue-capacity}") int queueCapacity,
+                                         @Value("${spring.threads.virtual.enabled}") boolean virtualThreads) {
+        this(outboxRepository, paymentRepository, notificationService, batchSize, maxAttempts,
+                leaseTimeout, retryBackoff, maxRetryBackoff, UUID.randomUUID().toString(),
+                new ThreadPoolExecutor(dispatcherThreads, dispatcherThreads, 0L, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(queueCapacity),
+                        ThreadFactories.named("notification-dispatcher-", virtualThreads)));
+    }
+
+    NotificationOutboxServiceImpl(NotificationOutboxRepository outboxRepository,
+                                  PaymentRepository paymentRepository,
+                                  NotificationService notificationService,
+                                  int batchSize,
+                                  int maxAttempts,
+                                  Duration leaseTimeout,
+                                  Duration retryBackoff,
+                                  Duration maxRetryBackoff,
+                                  String owner,
+                                  ExecutorService dispatcherExecutor) {
+        this.outboxRepository = outboxRepository;
+        this.paymentRepository = paymentRepository;
+        this.notificationService = notificationService;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.leaseTimeout = leaseTimeout;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.owner = owner;
+        this.dispatcherExecutor = dispatcherExecutor;
+    }
+
+    @Override
+    public void enqueuePaymentCreated(Payment payment) {
+        NotificationOutbox entry = new NotificationOutbox();
+        entry.setPaymentId(payment.getId());
+        entry.setStatus(NotificationOutboxStatus.PENDING);
+        entry.setCreatedTime(LocalDateTime.now());
+        entry.setNextAttemptTime(entry.getCreatedTime());
+        outboxRepository.save(entry);
+        log.debug(OUTBOX_ENQUEUED_MSG, payment.getId());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval-ms}")
+    public void dispatchPending() {
+        List<Long> entryIds = outboxRepository.findDueIds(LocalDateTime.now(), PageRequest.of(0, batchSize));
+
+        for (Long entryId : entryIds) {
+            if (outboxRepository.claim(entryId, owner, LocalDateTime.now()) == 0) {
+                continue;
+            }
+            try {
+                dispatcherExecutor.execute(() -> dispatch(entryId));
+            } catch (RejectedExecutionException e) {
+                outboxRepository.release(entryId, owner);
+                log.warn(DISPATCHER_SATURATED_MSG, entryId);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Entries claimed longer ago than the lease timeout were left behind by an instance that
+     * stopped or crashed, so they are handed back to the dispatchers. Claims held by live
+     * instances are younger and stay untouched.
+     */
+    @Scheduled(fixedDelayString = "${notification.outbox.reclaim-interval-ms}")
+    public void reclaimExpiredClaims() {
+        int reclaimed = outboxRepository.reclaimExpired(LocalDateTime.now().minus(leaseTimeout));
+        if (reclaimed > 0) {
+            log.info(OUTBOX_RECLAIMED_MSG, reclaimed);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        dispatcherExecutor.shutdown();
+        dispatcherExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void dispatch(Long entryId) {
+        Optional<NotificationOutbox> found = outboxRepository.findById(entryId);
+        if (found.isEmpty()) {
+            return;
+        }
+        NotificationOutbox entry = found.get();
+        int attempts = entry.getAttempts() + 1;
+
+        NotificationOutboxStatus result;
+        try {
+            Optional<Payment> payment = paymentRepository.findById(entry.getPaymentId());
+            if (payment.isEmpty()) {
+                log.warn(PAYMENT_MISSING_MSG, entry.getPaymentId(), entryId);
+                result = NotificationOutboxStatus.FAILED;
+            } else if (notificationService.notifyPaymentCreated(payment.get()).isNotified()) {
+                result = NotificationOutboxStatus.SENT;
+            } else {
+                result = retryOrFail(attempts);
+            }
+        } catch (Exception e) {
+            log.error(DISPATCH_ERROR_MSG, entryId, e);
+            result = retryOrFail(attempts);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime nextAttemptTime = result == NotificationOutboxStatus.PENDING
+                ? now.plus(backoff(attempts))
+                : entry.getNextAttemptTime();
+        if (outboxRepository.complete(entryId, owner, result, attempts, now, nextAttemptTime) == 0) {
+            log.warn(CLAIM_LOST_MSG, entryId);
+            return;
+        }
+        log.info(DISPATCH_RESULT_MSG, entryId, entry.getPaymentId(), result, attempts);
+    }
+
+    private NotificationOutboxStatus retryOrFail(int attempts) {
+        return attempts >= maxAttempts ? NotificationOutboxStatus.FAILED : NotificationOutboxStatus.PENDING;
+    }
+
+    /**
+     * The retry backoff doubled for every attempt after the first, up to the maximum.
+     */
+    Duration backoff(int attempts) {
+        Duration delay = retryBackoff;
+        for (int i = 1; i < attempts && delay.compareTo(maxRetryBackoff) < 0; i++) {
+            delay = delay.multipliedBy(2);
+        }
+        return delay.compareTo(maxRetryBackoff) < 0 ? delay : maxRetryBackoff;
+    }
+}
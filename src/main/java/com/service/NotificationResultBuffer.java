@@ -0,0 +1,204 @@
+package com.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for notification outcomes.
+ * <p>
+ * Outcomes are kept per payment, so repeated attempts for one payment coalesce into its
+ * latest result, and are written periodically or once the threshold is reached in JDBC
+ * batches of up to threshold rows of {@code UPDATE payments SET notified, notification_time}. No entity is loaded
+ * and the version is not bumped; {@code Payment} uses dynamic updates so a concurrent
+ * cancellation does not overwrite these columns. The written payments are then invalidated in
+ * the second-level cache, which does not see JDBC updates; a cancellation that loaded a payment
+ * before the flush and commits after it finds the entry locked concurrently and does not cache
+ * its stale copy. Outcomes still buffered when the process dies are lost; the outbox entry keeps
+ * the authoritative delivery status.
+ * <p>
+ * While the database is unavailable, at most {@code max-pending} outcomes are kept and newer
+ * ones for other payments are dropped and counted in {@code notification.results.dropped}.
+ * Flushes then wait a backoff that doubles after every failure, and the outage is logged
+ * once when it starts and once when it ends.
+ */
+@Component
+@Slf4j
+public class NotificationResultBuffer {
+
+    private static final String UPDATE_SQL = "UPDATE payments SET notified = ?, notification_time = ? WHERE id = ?";
+
+    private static final String FLUSHED_MSG = "Flushed {} notification results";
+    private static final String FLUSH_FAILED_MSG = "Failed to flush notification results, keeping up to {} and retrying with backoff";
+    private static final String FLUSH_STILL_FAILING_MSG = "Flush of {} notification results failed again, next attempt in {}";
+    private static final String FLUSH_RECOVERED_MSG = "Notification results flushed again after {} failed attempts; {} results dropped meanwhile";
+    private static final String RESULT_DROPPED_MSG = "Notification result buffer is full, dropped result for payment ID: {}";
+    private static final String PENDING_GAUGE = "notification.results.pending";
+    private static final String DROPPED_COUNTER = "notification.results.dropped";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PaymentEntityCache paymentEntityCache;
+    private final int flushThreshold;
+    private final int maxPending;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final Map<Long, NotificationResult> pending = new ConcurrentHashMap<>();
+    private final LongAdder droppedResults = new LongAdder();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // guarded by flushLock
+    private int failedFlushes;
+    private long droppedAtOutageStart;
+    private long nextFlushNanos;
+
+    public NotificationResultBuffer(JdbcTemplate jdbcTemplate,
+                                    PaymentEntityCache paymentEntityCache,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${notification.results.flush-threshold}") int flushThreshold,
+                                    @Value("${notification.results.max-pending}") int maxPending,
+                                    @Value("${notification.results.retry-backoff}") Duration retryBackoff,
+                                    @Value("${notification.results.max-retry-backoff}") Duration maxRetryBackoff) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.paymentEntityCache = paymentEntityCache;
+        this.flushThreshold = flushThreshold;
+        this.maxPending = maxPending;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+        Gauge.builder(PENDING_GAUGE, pending, Map::size).register(meterRegistry);
+        FunctionCounter.builder(DROPPED_COUNTER, droppedResults, LongAdder::sum).register(meterRegistry);
+    }
+
+    /**
+     * Buffers the outcome of a notification, replacing any earlier outcome for the same payment.
+     * A new payment's outcome is dropped while the buffer is full.
+     */
+    public void record(Long paymentId, boolean notified, LocalDateTime notificationTime) {
+        NotificationResult result = new NotificationResult(notified, notificationTime);
+        if (pending.size() >= maxPending && pending.replace(paymentId, result) == null) {
+            droppedResults.increment();
+            log.debug(RESULT_DROPPED_MSG, paymentId);
+            return;
+        }
+        pending.put(paymentId, result);
+        if (pending.size() >= flushThreshold && flushLock.tryLock()) {
+            try {
+                flushPending();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.results.flush-interval-ms}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public int getPendingResults() {
+        return pending.size();
+    }
+
+    public long getDroppedResults() {
+        return droppedResults.sum();
+    }
+
+    private void flushPending() {
+        if (failedFlushes > 0 && System.nanoTime() - nextFlushNanos < 0) {
+            return;
+        }
+        while (!pending.isEmpty()) {
+            List<Long> paymentIds = new ArrayList<>(flushThreshold);
+            List<NotificationResult> results = new ArrayList<>(flushThreshold);
+            List<Object[]> rows = new ArrayList<>(flushThreshold);
+            for (Iterator<Map.Entry<Long, NotificationResult>> it = pending.entrySet().iterator();
+                 it.hasNext() && rows.size() < flushThreshold; ) {
+                Map.Entry<Long, NotificationResult> entry = it.next();
+                it.remove();
+                paymentIds.add(entry.getKey());
+                results.add(entry.getValue());
+                rows.add(new Object[]{entry.getValue().notified, entry.getValue().notificationTime, entry.getKey()});
+            }
+
+            try {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, rows);
+            } catch (DataAccessException e) {
+                requeue(paymentIds, results);
+                onFlushFailed(rows.size(), e);
+                return;
+            }
+            paymentEntityCache.evict(paymentIds);
+            log.debug(FLUSHED_MSG, rows.size());
+            if (failedFlushes > 0) {
+                log.info(FLUSH_RECOVERED_MSG, failedFlushes, droppedResults.sum() - droppedAtOutageStart);
+                failedFlushes = 0;
+            }
+        }
+    }
+
+    private void requeue(List<Long> paymentIds, List<NotificationResult> results) {
+        for (int i = 0; i < paymentIds.size(); i++) {
+            // a newer outcome recorded during the flush wins
+            if (pending.containsKey(paymentIds.get(i)) || pending.size() < maxPending) {
+                pending.putIfAbsent(paymentIds.get(i), results.get(i));
+            } else {
+                droppedResults.increment();
+            }
+        }
+    }
+
+    private void onFlushFailed(int rows, DataAccessException e) {
+        if (failedFlushes == 0) {
+            droppedAtOutageStart = droppedResults.sum();
+            log.error(FLUSH_FAILED_MSG, maxPending, e);
+        }
+        failedFlushes++;
+        Duration backoff = backoff(failedFlushes);
+        nextFlushNanos = System.nanoTime() + backoff.toNanos();
+        log.debug(FLUSH_STILL_FAILING_MSG, rows, backoff);
+    }
+
+    private Duration backoff(int failures) {
+        Duration delay = retryBackoff;
+        for (int i = 1; i < failures && delay.compareTo(maxRetryBackoff) < 0; i++) {
+            delay = delay.multipliedBy(2);
+        }
+        return delay.compareTo(maxRetryBackoff) < 0 ? delay : maxRetryBackoff;
+    }
+
+    private static final class NotificationResult {
+        private final boolean notified;
+        private final LocalDateTime notificationTime;
+
+        private NotificationResult(boolean notified, LocalDateTime notificationTime) {
+            this.notified = notified;
+            this.notificationTime = notificationTime;
+        }
+    }
+}
@@ -4,9 +4,10 @@ import com.dto.PaymentNotificationDTO;
 import com.model.Payment;
 import com.model.Type1Payment;
 import com.model.Type2Payment;
-import com.repository.PaymentRepository;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.ResourceAccessException;
@@ -18,19 +19,28 @@ import java.time.LocalDateTime;
 @Slf4j
 public class NotificationServiceImpl implements NotificationService {
 
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final PaymentRepository paymentRepository;
+    private final RestTemplate restTemplate;
+    private final NotificationResultBuffer notificationResultBuffer;
+    private final OutboundCallMetrics outboundCallMetrics;
 
-    private static final String TYPE1_NOTIFICATION_URL = "https://api.notification-service.com/payments/type1/";
-    private static final String TYPE2_NOTIFICATION_URL = "https://api.notification-service.com/payments/type2/";
+    @Value("${notification.type1.url}")
+    String type1NotificationUrl;
+
+    @Value("${notification.type2.url}")
+    String type2NotificationUrl;
 
     private static final String SKIPPING_NOTIFICATION_MESSAGE = "Skipping notification for payment ID: {}, type: {}";
     private static final String SENDING_NOTIFICATION_MESSAGE = "Sending notification for payment ID: {} to URL: {}";
     private static final String NOTIFICATION_ERROR_MESSAGE = "Failed to send notification for payment ID: {}";
-    private static final String NOTIFICATION_RESULT_SAVED_MESSAGE = "Notification result saved for payment ID: {}, success: {}";
-
-    public NotificationServiceImpl(PaymentRepository paymentRepository) {
-        this.paymentRepository = paymentRepository;
+    private static final String NOTIFICATION_RESULT_SAVED_MESSAGE = "Notification result buffered for payment ID: {}, success: {}";
+    private static final String METRICS_CLIENT = "notification";
+
+    public NotificationServiceImpl(@Qualifier("notificationRestTemplate") RestTemplate restTemplate,
+                                   NotificationResultBuffer notificationResultBuffer,
+                                   OutboundCallMetrics outboundCallMetrics) {
+        this.restTemplate = restTemplate;
+        this.notificationResultBuffer = notificationResultBuffer;
+        this.outboundCallMetrics = outboundCallMetrics;
     }
 
     @Override
@@ -73,41 +83,50 @@ public class NotificationServiceImpl implements NotificationService {
 
     private String determineNotificationUrl(Payment payment) {
         if (payment instanceof Type1Payment) {
-            return TYPE1_NOTIFICATION_URL;
+            return type1NotificationUrl;
         } else if (payment instanceof Type2Payment) {
-            return TYPE2_NOTIFICATION_URL;
+            return type2NotificationUrl;
         }
         throw new IllegalArgumentException("Unsupported payment type for notification: " +
                 payment.getClass().getSimpleName());
     }
 
+    private String determineMetricsEndpoint(Payment payment) {
+        return payment instanceof Type1Payment ? "type1" : "type2";
+    }
+
     private ResponseEntity<String> sendNotification(Payment payment, String notificationUrl) {
+        String endpoint = determineMetricsEndpoint(payment);
+        Timer.Sample sample = outboundCallMetrics.start();
         try {
             String fullUrl = notificationUrl + payment.getId();
             log.info(SENDING_NOTIFICATION_MESSAGE, payment.getId(), fullUrl);
             ResponseEntity<String> response = restTemplate.getForEntity(fullUrl, String.class);
 
             if (!response.getStatusCode().is2xxSuccessful()) {
+                outboundCallMetrics.stop(sample, METRICS_CLIENT, endpoint, OutboundCallMetrics.Outcome.FAILURE);
                 log.error("Failed to send notification for payment ID: {}", payment.getId());
                 return null;
             }
+            outboundCallMetrics.stop(sample, METRICS_CLIENT, endpoint, OutboundCallMetrics.Outcome.SUCCESS);
             return response;
         } catch (ResourceAccessException e) {
+            outboundCallMetrics.stop(sample, METRICS_CLIENT, endpoint, OutboundCallMetrics.outcomeOf(e));
             log.error("ResourceAccessException: Could not connect to the notification service. " +
                     "This is expected if the service is unavailable (e.g., fake URL for requirements). " +
                     "Payment ID: {}", payment.getId(), e);
             return null;
         } catch (Exception e) {
+            outboundCallMetrics.stop(sample, METRICS_CLIENT, endpoint, OutboundCallMetrics.outcomeOf(e));
             log.error(NOTIFICATION_ERROR_MESSAGE, payment.getId(), e);
             return null;
         }
     }
 
-    @Transactional
     private void saveNotificationResult(Payment payment, boolean success) {
         payment.setNotified(success);
         payment.setNotificationTime(LocalDateTime.now());
-        paymentRepository.save(payment);
+        notificationResultBuffer.record(payment.getId(), success, payment.getNotificationTime());
         log.info(NOTIFICATION_RESULT_SAVED_MESSAGE, payment.getId(), success);
     }
 }
\ No newline at end of file
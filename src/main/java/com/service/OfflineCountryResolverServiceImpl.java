@@ -0,0 +1,50 @@
+package com.service;
+
+import com.utils.IpRangeTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Resolves client countries from a local IP range database loaded at startup,
+ * so lookups need no network access. Enabled with {@code ip-api.mode=offline}.
+ */
+@Service
+@ConditionalOnProperty(name = "ip-api.mode", havingValue = "offline")
+public class OfflineCountryResolverServiceImpl implements CountryResolverService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OfflineCountryResolverServiceImpl.class);
+    private final IpRangeTable ipRangeTable;
+
+    private static final String LOG_CLIENT_COUNTRY = "Client from country: {}, IP: {}";
+    private static final String LOG_FAILED_COUNTRY_RESOLUTION = "Failed to resolve country for IP: {}";
+    private static final String LOG_DATABASE_LOADED = "Loaded {} IP ranges from {}";
+    private static final String DATABASE_LOAD_ERROR_MSG = "Cannot load IP range database: ";
+
+    public OfflineCountryResolverServiceImpl(@Value("${ip-api.offline.database}") Resource database) {
+        try (Reader reader = new InputStreamReader(database.getInputStream(), StandardCharsets.UTF_8)) {
+            this.ipRangeTable = IpRangeTable.load(reader);
+        } catch (IOException e) {
+            throw new IllegalStateException(DATABASE_LOAD_ERROR_MSG + database, e);
+        }
+        LOGGER.info(LOG_DATABASE_LOADED, ipRangeTable.size(), database);
+    }
+
+    @Override
+    public void logClientCountry(String ipAddress) {
+        String country = ipAddress == null ? null : ipRangeTable.lookup(ipAddress);
+        if (country != null) {
+            LOGGER.info(LOG_CLIENT_COUNTRY, country, ipAddress);
+        } else {
+            LOGGER.warn(LOG_FAILED_COUNTRY_RESOLUTION, ipAddress);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+
+/**
+ * Records the latency of calls to external services in the {@code outbound.calls} timer,
+ * tagged with the client, the endpoint and the outcome. The count of each outcome doubles as
+ * the success, failure and timeout counter of an endpoint.
+ */
+@Component
+public class OutboundCallMetrics {
+
+    public static final String TIMER = "outbound.calls";
+
+    /**
+     * How an outbound call ended.
+     */
+    public enum Outcome {
+        /** A 2xx response. */
+        SUCCESS,
+        /** Any other response, or an error other than a timeout. */
+        FAILURE,
+        /** The connection or the response did not arrive within the configured timeout. */
+        TIMEOUT
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    public OutboundCallMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void stop(Timer.Sample sample, String client, String endpoint, Outcome outcome) {
+        sample.stop(Timer.builder(TIMER)
+                .description("Latency of calls to external services")
+                .tag("client", client)
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome.name().toLowerCase())
+                .register(meterRegistry));
+    }
+
+    /**
+     * @return {@link Outcome#TIMEOUT} if a timeout caused the error, {@link Outcome#FAILURE} otherwise
+     */
+    public static Outcome outcomeOf(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpTimeoutException || cause instanceof SocketTimeoutException) {
+                return Outcome.TIMEOUT;
+            }
+        }
+        return Outcome.FAILURE;
+    }
+}
@@ -0,0 +1,46 @@
+package com.service;
+
+import com.dto.PaymentIndexReportDTO;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * In-memory index of active (non-canceled) payment IDs by amount, used to answer amount
+ * queries without reading the payments table.
+ */
+public interface PaymentAmountIndex {
+
+    /**
+     * Retrieves the IDs of all active payments with the given amount.
+     *
+     * @param amount the amount to search for
+     * @return the IDs in ascending order, or empty if the index cannot answer and the database must be used
+     */
+    Optional<List<Long>> findActivePaymentIds(BigDecimal amount);
+
+    /**
+     * Retrieves up to {@code limit} IDs of active payments with the given amount, in ascending order,
+     * starting after the given ID.
+     *
+     * @param amount  the amount to search for
+     * @param afterId only IDs greater than this are returned
+     * @param limit   the maximum number of IDs to return
+     * @return the IDs, or empty if the index cannot answer and the database must be used
+     */
+    Optional<List<Long>> findActivePaymentIdsAfter(BigDecimal amount, long afterId, int limit);
+
+    /**
+     * Replaces the index contents with the active payments currently in the database.
+     */
+    void rebuild();
+
+    /**
+     * Compares the index with the database.
+     *
+     * @return the number of payments on both sides and the IDs that differ
+     */
+    PaymentIndexReportDTO verify();
+
+}
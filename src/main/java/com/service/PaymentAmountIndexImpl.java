@@ -0,0 +1,368 @@
+package com.service;
+
+import com.dto.PaymentIndexReportDTO;
+import com.event.PaymentCancelledEvent;
+import com.event.PaymentCreatedEvent;
+import com.repository.PaymentRepository;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Maps an amount in minor units to a sorted {@code long[]} of active payment IDs.
+ * <p>
+ * Arrays are never modified once published: creating or cancelling a payment replaces the
+ * array of its amount, so lookups need no locking. Updates arrive after the database
+ * transaction commits and are applied at once. While a rebuild or verification reads the
+ * database into a new map, updates are also queued; they are replayed onto the new map
+ * before it is swapped in or compared, so none is lost and none waits for the table scan.
+ * Only the replay and swap hold the write lock that updates share as a read lock.
+ * Until the first rebuild has finished, and for amounts too large for a {@code long} of
+ * minor units, lookups return empty and callers fall back to the database.
+ */
+@Service
+@Slf4j
+public class PaymentAmountIndexImpl implements PaymentAmountIndex {
+
+    private static final int SCALE = 2;
+    private static final long UNREPRESENTABLE = Long.MIN_VALUE;
+    private static final long[] NO_IDS = new long[0];
+    private static final int MAX_REPORTED_IDS = 100;
+
+    private static final String INDEX_REBUILT_MSG = "Payment amount index rebuilt with {} payments and {} distinct amounts in {} ms";
+    private static final String INDEX_DISABLED_MSG = "Payment amount index is disabled, amount queries use the database";
+    private static final String INDEX_INCONSISTENT_MSG = "Payment amount index differs from the database: {} missing, {} unexpected";
+
+    private final PaymentRepository paymentRepository;
+    private final boolean enabled;
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final Lock reloadLock = new ReentrantLock();
+    private volatile Map<Long, long[]> idsByAmount = new ConcurrentHashMap<>();
+    private volatile Queue<PendingUpdate> pendingUpdates;
+    private volatile boolean ready;
+
+    public PaymentAmountIndexImpl(PaymentRepository paymentRepository,
+                                  @Value("${payments.amount-index.enabled}") boolean enabled) {
+        this.paymentRepository = paymentRepository;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Optional<List<Long>> findActivePaymentIds(BigDecimal amount) {
+        long[] ids = idsFor(amount);
+        return ids == null ? Optional.empty() : Optional.of(toList(ids, 0, ids.length));
+    }
+
+    @Override
+    public Optional<List<Long>> findActivePaymentIdsAfter(BigDecimal amount, long afterId, int limit) {
+        long[] ids = idsFor(amount);
+        if (ids == null) {
+            return Optional.empty();
+        }
+        int from = Arrays.binarySearch(ids, afterId);
+        from = from >= 0 ? from + 1 : -from - 1;
+        return Optional.of(toList(ids, from, (int) Math.min(ids.length, (long) from + limit)));
+    }
+
+    @TransactionalEventListener
+    public void onPaymentCreated(PaymentCreatedEvent event) {
+        update(event.getAmount(), event.getPaymentId(), true);
+    }
+
+    @TransactionalEventListener
+    public void onPaymentCancelled(PaymentCancelledEvent event) {
+        update(event.getAmount(), event.getPaymentId(), false);
+    }
+
+    @Override
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            log.info(INDEX_DISABLED_MSG);
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        reloadLock.lock();
+        try {
+            Map<Long, long[]> rebuilt = new ConcurrentHashMap<>();
+            loadCatchingUp(rebuilt);
+            swapLock.writeLock().lock();
+            try {
+                replayPendingUpdates(rebuilt);
+                idsByAmount = rebuilt;
+                ready = true;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            log.info(INDEX_REBUILT_MSG, count(rebuilt), rebuilt.size(), System.currentTimeMillis() - start);
+        } finally {
+            pendingUpdates = null;
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Compares the database, with the updates that arrived while it was read applied on top,
+     * against a snapshot of the index taken at the same moment. It is exact apart from payments
+     * whose transaction has committed but whose update has not reached the index yet.
+     */
+    @Override
+    @Transactional
+    public PaymentIndexReportDTO verify() {
+        Map<Long, long[]> database = new HashMap<>();
+        Map<Long, long[]> snapshot;
+        reloadLock.lock();
+        try {
+            loadCatchingUp(database);
+            swapLock.writeLock().lock();
+            try {
+                replayPendingUpdates(database);
+                snapshot = new HashMap<>(idsByAmount);
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+        } finally {
+            pendingUpdates = null;
+            reloadLock.unlock();
+        }
+
+        Differences differences = new Differences();
+        for (Map.Entry<Long, long[]> entry : database.entrySet()) {
+            differences.compare(entry.getValue(), snapshot.getOrDefault(entry.getKey(), NO_IDS));
+        }
+        for (Map.Entry<Long, long[]> entry : snapshot.entrySet()) {
+            if (!database.containsKey(entry.getKey())) {
+                differences.compare(NO_IDS, entry.getValue());
+            }
+        }
+
+        boolean consistent = differences.missingCount == 0 && differences.unexpectedCount == 0;
+        if (ready && !consistent) {
+            log.warn(INDEX_INCONSISTENT_MSG, differences.missingCount, differences.unexpectedCount);
+        }
+        return new PaymentIndexReportDTO(ready, ready && consistent, count(snapshot), count(database),
+                differences.missing, differences.unexpected);
+    }
+
+    private long[] idsFor(BigDecimal amount) {
+        if (!ready) {
+            return null;
+        }
+        // stored amounts have two decimals, so a finer amount cannot match any payment
+        if (amount.stripTrailingZeros().scale() > SCALE) {
+            return NO_IDS;
+        }
+        long key = toMinorUnits(amount);
+        if (key == UNREPRESENTABLE) {
+            return null;
+        }
+        return idsByAmount.getOrDefault(key, NO_IDS);
+    }
+
+    private void update(BigDecimal amount, Long paymentId, boolean active) {
+        // the amount column rounds to two decimals on insert
+        long key = toMinorUnits(amount.setScale(SCALE, RoundingMode.HALF_UP));
+        if (key == UNREPRESENTABLE || paymentId == null) {
+            return;
+        }
+
+        swapLock.readLock().lock();
+        try {
+            apply(idsByAmount, key, paymentId, active);
+            Queue<PendingUpdate> pending = pendingUpdates;
+            if (pending != null) {
+                pending.add(new PendingUpdate(key, paymentId, active));
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private static void apply(Map<Long, long[]> idsByAmount, long key, long paymentId, boolean active) {
+        if (active) {
+            idsByAmount.compute(key, (k, ids) -> insert(ids, paymentId));
+        } else {
+            idsByAmount.computeIfPresent(key, (k, ids) -> remove(ids, paymentId));
+        }
+    }
+
+    /**
+     * Starts queueing updates, then reads the database into {@code target} without blocking them.
+     * Updates committed before the read began are in the database; later ones are in the queue.
+     */
+    private void loadCatchingUp(Map<Long, long[]> target) {
+        pendingUpdates = new ConcurrentLinkedQueue<>();
+        loadFromDatabase(target::put);
+    }
+
+    /**
+     * Applies the queued updates in arrival order and stops queueing. Must hold the write lock,
+     * so that no update is applied to the current map without reaching the queue.
+     */
+    private void replayPendingUpdates(Map<Long, long[]> target) {
+        for (PendingUpdate update : pendingUpdates) {
+            apply(target, update.amount, update.paymentId, update.active);
+        }
+        pendingUpdates = null;
+    }
+
+    private static long count(Map<Long, long[]> idsByAmount) {
+        long payments = 0;
+        for (long[] ids : idsByAmount.values()) {
+            payments += ids.length;
+        }
+        return payments;
+    }
+
+    /**
+     * Reads active payments ordered by amount and ID and passes each amount with its sorted IDs
+     * to the consumer. Must run inside a transaction.
+     */
+    private void loadFromDatabase(AmountIdsConsumer consumer) {
+        long currentAmount = UNREPRESENTABLE;
+        long[] buffer = new long[64];
+        int size = 0;
+
+        try (Stream<Object[]> rows = paymentRepository.streamNonCancelledAmountsAndIds()) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                long amount = toMinorUnits(((BigDecimal) row[0]).setScale(SCALE, RoundingMode.HALF_UP));
+                if (amount == UNREPRESENTABLE) {
+                    continue;
+                }
+                if (amount != currentAmount && size > 0) {
+                    consumer.accept(currentAmount, Arrays.copyOf(buffer, size));
+                    size = 0;
+                }
+                currentAmount = amount;
+                if (size == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, size * 2);
+                }
+                buffer[size++] = ((Number) row[1]).longValue();
+            }
+        }
+        if (size > 0) {
+            consumer.accept(currentAmount, Arrays.copyOf(buffer, size));
+        }
+    }
+
+    private static long toMinorUnits(BigDecimal amount) {
+        BigDecimal minorUnits = amount.movePointRight(SCALE);
+        if (minorUnits.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) > 0
+                || minorUnits.compareTo(BigDecimal.valueOf(Long.MIN_VALUE + 1)) < 0) {
+            return UNREPRESENTABLE;
+        }
+        return minorUnits.longValue();
+    }
+
+    private static long[] insert(long[] ids, long id) {
+        if (ids == null) {
+            return new long[]{id};
+        }
+        int index = Arrays.binarySearch(ids, id);
+        if (index >= 0) {
+            return ids;
+        }
+        index = -index - 1;
+        long[] updated = new long[ids.length + 1];
+        System.arraycopy(ids, 0, updated, 0, index);
+        updated[index] = id;
+        System.arraycopy(ids, index, updated, index + 1, ids.length - index);
+        return updated;
+    }
+
+    private static long[] remove(long[] ids, long id) {
+        int index = Arrays.binarySearch(ids, id);
+        if (index < 0) {
+            return ids;
+        }
+        if (ids.length == 1) {
+            return null;
+        }
+        long[] updated = new long[ids.length - 1];
+        System.arraycopy(ids, 0, updated, 0, index);
+        System.arraycopy(ids, index + 1, updated, index, ids.length - index - 1);
+        return updated;
+    }
+
+    private static List<Long> toList(long[] ids, int from, int to) {
+        List<Long> list = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            list.add(ids[i]);
+        }
+        return list;
+    }
+
+    private static final class PendingUpdate {
+        private final long amount;
+        private final long paymentId;
+        private final boolean active;
+
+        private PendingUpdate(long amount, long paymentId, boolean active) {
+            this.amount = amount;
+            this.paymentId = paymentId;
+            this.active = active;
+        }
+    }
+
+    @FunctionalInterface
+    private interface AmountIdsConsumer {
+        void accept(long amount, long[] ids);
+    }
+
+    private static final class Differences {
+        private final List<Long> missing = new ArrayList<>();
+        private final List<Long> unexpected = new ArrayList<>();
+        private long missingCount;
+        private long unexpectedCount;
+
+        /**
+         * Walks both sorted arrays once, recording IDs only in the database as missing and
+         * IDs only in the index as unexpected.
+         */
+        private void compare(long[] databaseIds, long[] indexedIds) {
+            int i = 0;
+            int j = 0;
+            while (i < databaseIds.length || j < indexedIds.length) {
+                if (j == indexedIds.length || (i < databaseIds.length && databaseIds[i] < indexedIds[j])) {
+                    missingCount++;
+                    addLimited(missing, databaseIds[i++]);
+                } else if (i == databaseIds.length || indexedIds[j] < databaseIds[i]) {
+                    unexpectedCount++;
+                    addLimited(unexpected, indexedIds[j++]);
+                } else {
+                    i++;
+                    j++;
+                }
+            }
+        }
+
+        private static void addLimited(List<Long> ids, long id) {
+            if (ids.size() < MAX_REPORTED_IDS) {
+                ids.add(id);
+            }
+        }
+    }
+}
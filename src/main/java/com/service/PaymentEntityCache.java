@@ -0,0 +1,27 @@
+package com.service;
+
+import com.dto.PaymentCacheStatsDTO;
+
+import java.util.Collection;
+
+/**
+ * The second-level cache region holding {@code Payment} entities. Changes made through
+ * Hibernate keep it up to date; changes written with plain JDBC must evict the payments
+ * they touched.
+ */
+public interface PaymentEntityCache {
+
+    /**
+     * Invalidates the given payments, so the next read loads them from the database and a
+     * transaction that read them earlier cannot put its copy back.
+     *
+     * @param paymentIds the IDs of the payments changed outside Hibernate
+     */
+    void evict(Collection<Long> paymentIds);
+
+    /**
+     * @return hit, miss and put counts of the region since startup
+     */
+    PaymentCacheStatsDTO getStats();
+
+}
@@ -0,0 +1,74 @@
+package com.service;
+
+import com.dto.PaymentCacheStatsDTO;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.model.Payment;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.springframework.stereotype.Service;
+
+import javax.cache.Cache;
+import javax.cache.Caching;
+import java.util.Collection;
+
+@Service
+public class PaymentEntityCacheImpl implements PaymentEntityCache {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public PaymentEntityCacheImpl(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Locks and unlocks each entry the way Hibernate does around its own updates, instead of
+     * removing it. The unlocked entry rejects puts from transactions that started earlier, so
+     * neither a reader that loaded the old row nor a cancellation that loaded the payment before
+     * the JDBC write can put its stale copy back.
+     */
+    @Override
+    public void evict(Collection<Long> paymentIds) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(Payment.class);
+        EntityDataAccess access = persister.getCacheAccessStrategy();
+        try (Session session = sessionFactory.openSession()) {
+            SharedSessionContractImplementor sessionImplementor = session.unwrap(SharedSessionContractImplementor.class);
+            for (Long paymentId : paymentIds) {
+                Object key = access.generateCacheKey(paymentId, persister, sessionFactory, null);
+                SoftLock lock = access.lockItem(sessionImplementor, key, null);
+                access.unlockItem(sessionImplementor, key, lock);
+            }
+        }
+    }
+
+    @Override
+    public PaymentCacheStatsDTO getStats() {
+        CacheRegionStatistics statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics()
+                .getDomainDataRegionStatistics(Payment.CACHE_REGION);
+        long hits = statistics.getHitCount();
+        long misses = statistics.getMissCount();
+        long lookups = hits + misses;
+        return new PaymentCacheStatsDTO(regionSize(), hits, misses,
+                statistics.getPutCount(), lookups == 0 ? 1.0 : (double) hits / lookups);
+    }
+
+    /**
+     * JCache has no element count, so Hibernate cannot report one; ask the Caffeine cache
+     * behind the region instead.
+     */
+    private Long regionSize() {
+        Cache<Object, Object> region = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager()
+                .getCache(Payment.CACHE_REGION);
+        return region == null ? null
+                : region.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize();
+    }
+}
@@ -1,11 +1,15 @@
 package com.service;
 
+import com.dto.PaymentBatchResponseDTO;
 import com.dto.PaymentFeeResponseDTO;
+import com.dto.PaymentIdPageDTO;
 import com.dto.PaymentRequestDTO;
 import com.dto.PaymentResponseDTO;
+import com.dto.PaymentSearchCriteria;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.LongConsumer;
 
 public interface PaymentService {
 
@@ -17,6 +21,15 @@ public interface PaymentService {
      */
     PaymentResponseDTO createPayment(PaymentRequestDTO request);
 
+    /**
+     * Creates many payments in one transaction. Items that fail validation are reported
+     * and skipped; the others are created.
+     *
+     * @param requests the payment requests, at most {@code payments.batch.max-size}
+     * @return the outcome of every item, in request order
+     */
+    PaymentBatchResponseDTO createPayments(List<PaymentRequestDTO> requests);
+
     /**
      * Cancels an existing payment.
      *
@@ -40,6 +53,34 @@ public interface PaymentService {
      */
     List<Long> getAllNonCancelledPaymentIds();
 
+    /**
+     * Retrieves one page of non-canceled payment IDs in ascending order, starting after the given ID.
+     *
+     * @param amount  optional amount the payments must match, or null for all amounts
+     * @param afterId the last ID of the previous page, or 0 for the first page
+     * @param limit   the maximum number of IDs to return
+     * @return the page of IDs and the cursor for the next page
+     */
+    PaymentIdPageDTO getNonCancelledPaymentIdPage(BigDecimal amount, long afterId, int limit);
+
+    /**
+     * Searches payments by amount range, currency, type, canceled state and creation window.
+     *
+     * @param criteria the filters to apply; null fields are ignored
+     * @param afterId  the last ID of the previous page, or 0 for the first page
+     * @param limit    the maximum number of IDs to return
+     * @return the page of matching IDs in ascending order and the cursor for the next page
+     */
+    PaymentIdPageDTO searchPayments(PaymentSearchCriteria criteria, long afterId, int limit);
+
+    /**
+     * Passes every non-canceled payment ID, in ascending order, to the consumer
+     * while reading them from a database cursor.
+     *
+     * @param consumer receives each payment ID
+     */
+    void streamAllNonCancelledPaymentIds(LongConsumer consumer);
+
     /**
      * Retrieves the payment details and cancellation fee for a specific payment.
      *
@@ -1,94 +1,343 @@
 package com.service;
 
+import com.dto.PaymentBatchItemResultDTO;
+import com.dto.PaymentBatchResponseDTO;
 import com.dto.PaymentFeeResponseDTO;
-import com.dto.PaymentNotificationDTO;
+import com.dto.PaymentIdPageDTO;
 import com.dto.PaymentRequestDTO;
 import com.dto.PaymentResponseDTO;
+import com.dto.PaymentSearchCriteria;
+import com.event.AuditEvent;
+import com.event.PaymentCancelledEvent;
+import com.event.PaymentCreatedEvent;
 import com.model.Payment;
 import com.model.Type1Payment;
 import com.model.Type2Payment;
 import com.repository.PaymentRepository;
+import com.utils.CancellationFeeCalculator;
+import com.utils.ExchangeRateTable;
+import com.utils.PaymentMapper;
 import com.utils.PaymentUtils;
+import com.utils.RequestTimings;
+import com.utils.RequestTimings.Phase;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.OptimisticLockException;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 public class PaymentServiceImpl implements PaymentService {
+    public static final String OPERATION_TIMER = "payments.operations";
+    public static final String OPTIMISTIC_LOCK_CONFLICTS = "payments.optimistic.lock.conflicts";
+
     private final PaymentRepository paymentRepository;
-    private final ModelMapper modelMapper;
-    private final NotificationService notificationService;
+    private final NotificationOutboxService notificationOutboxService;
+    private final PaymentAmountIndex paymentAmountIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final CancellationFeeCalculator cancellationFeeCalculator;
+    private final ExchangeRateProvider exchangeRateProvider;
+    private final CancellationFeeQuoteService cancellationFeeQuoteService;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer createTimer;
+    private final Timer createBatchTimer;
+    private final Timer cancelTimer;
+    private final Timer listTimer;
+    private final Timer pageTimer;
+    private final Timer searchTimer;
+    private final Timer getTimer;
+    private final Counter optimisticLockConflicts;
 
     private static final String PAYMENT_CREATED_LOG_MSG = "Payment created with ID: {}, type: {}";
-    private static final String PAYMENT_NOTIFICATION_LOG_MSG = "Notification for payment ID: {} was {}";
+    private static final String PAYMENT_NOTIFICATION_LOG_MSG = "Notification for payment ID: {} was queued";
     private static final String PAYMENT_NOT_FOUND_MSG = "Payment not found with ID: ";
     private static final String PAYMENT_CANCELLATION_TIME_ERROR_MSG = "Payment cannot be canceled after the day of creation";
     private static final String CONCURRENT_UPDATE_ERROR_MSG = "Concurrent update detected for payment ID: ";
+    private static final String PAGE_LIMIT_ERROR_MSG = "Limit must be between 1 and ";
+    private static final String PAGE_CURSOR_ERROR_MSG = "afterId must not be negative";
+    private static final String AMOUNT_RANGE_ERROR_MSG = "minAmount must not be greater than maxAmount";
+    private static final String CREATION_WINDOW_ERROR_MSG = "createdFrom must be before createdTo";
+    private static final String BATCH_SIZE_ERROR_MSG = "Batch must contain between 1 and %d payments";
+    private static final String NULL_BATCH_ITEM_MSG = "Payment request is missing";
+    private static final String BATCH_CREATED_LOG_MSG = "Created {} of {} payments in batch";
+
+    @Value("${payments.page.max-limit}")
+    int maxPageLimit;
 
-    public PaymentServiceImpl(ModelMapper modelMapper,
-                              PaymentRepository paymentRepository,
-                              NotificationService notificationService) {
-        this.modelMapper = modelMapper;
+    @Value("${payments.batch.max-size}")
+    int maxBatchSize;
+
+    public PaymentServiceImpl(PaymentRepository paymentRepository,
+                              NotificationOutboxService notificationOutboxService,
+                              PaymentAmountIndex paymentAmountIndex,
+                              ApplicationEventPublisher eventPublisher,
+                              Validator validator,
+                              CancellationFeeCalculator cancellationFeeCalculator,
+                              ExchangeRateProvider exchangeRateProvider,
+                              CancellationFeeQuoteService cancellationFeeQuoteService,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
         this.paymentRepository = paymentRepository;
-        this.notificationService = notificationService;
+        this.notificationOutboxService = notificationOutboxService;
+        this.paymentAmountIndex = paymentAmountIndex;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.cancellationFeeCalculator = cancellationFeeCalculator;
+        this.exchangeRateProvider = exchangeRateProvider;
+        this.cancellationFeeQuoteService = cancellationFeeQuoteService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.createTimer = operationTimer(meterRegistry, "create");
+        this.createBatchTimer = operationTimer(meterRegistry, "create_batch");
+        this.cancelTimer = operationTimer(meterRegistry, "cancel");
+        this.listTimer = operationTimer(meterRegistry, "list");
+        this.pageTimer = operationTimer(meterRegistry, "list_page");
+        this.searchTimer = operationTimer(meterRegistry, "search");
+        this.getTimer = operationTimer(meterRegistry, "get");
+        this.optimisticLockConflicts = Counter.builder(OPTIMISTIC_LOCK_CONFLICTS)
+                .description("Payment updates rejected because another transaction changed the payment first")
+                .tag("operation", "cancel")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Service time of an operation. Write operations start their transaction inside the timer,
+     * so the commit is included. Histogram buckets are enabled in the configuration.
+     */
+    private static Timer operationTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder(OPERATION_TIMER)
+                .description("Time spent in payment service operations")
+                .tag("operation", operation)
+                .register(meterRegistry);
     }
 
     @Override
-    @Transactional
     public PaymentResponseDTO createPayment(PaymentRequestDTO request) {
-        PaymentUtils.validatePaymentRequest(request);
-        Payment payment = createNewPaymentEntity(request);
+        return createTimer.record(() -> transactionTemplate.execute(status -> doCreatePayment(request)));
+    }
+
+    private PaymentResponseDTO doCreatePayment(PaymentRequestDTO request) {
+        timeCommit();
+        RequestTimings.time(Phase.VALIDATION, () -> PaymentUtils.validatePaymentRequest(request));
+        Payment newPayment = RequestTimings.time(Phase.ENTITY, () -> createNewPaymentEntity(request));
 
-        payment = paymentRepository.save(payment);
-        log.info(PAYMENT_CREATED_LOG_MSG, payment.getId(), payment.getClass().getSimpleName());
+        Payment saved = RequestTimings.time(Phase.DB, () -> paymentRepository.save(newPayment));
+        log.info(PAYMENT_CREATED_LOG_MSG, saved.getId(), saved.getClass().getSimpleName());
 
-        sendPaymentCreatedNotification(payment);
+        enqueuePaymentCreatedNotification(saved);
+        eventPublisher.publishEvent(new PaymentCreatedEvent(saved.getId(), saved.getAmount()));
+        eventPublisher.publishEvent(AuditEvent.paymentCreated(saved));
 
-        payment = paymentRepository.findById(payment.getId()).orElse(payment);
-        return mapToResponseDTO(payment);
+        Payment payment = RequestTimings.time(Phase.REREAD, () -> paymentRepository.findById(saved.getId()).orElse(saved));
+        return RequestTimings.time(Phase.MAPPING, () -> mapToResponseDTO(payment));
+    }
+
+    /**
+     * Invalid items are reported and skipped. The valid ones are persisted together and
+     * inserted in JDBC batches when the transaction commits, since sequence IDs are assigned
+     * without a round trip per row.
+     */
+    @Override
+    public PaymentBatchResponseDTO createPayments(List<PaymentRequestDTO> requests) {
+        return createBatchTimer.record(() -> transactionTemplate.execute(status -> doCreatePayments(requests)));
+    }
+
+    private PaymentBatchResponseDTO doCreatePayments(List<PaymentRequestDTO> requests) {
+        if (requests == null || requests.isEmpty() || requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException(String.format(BATCH_SIZE_ERROR_MSG, maxBatchSize));
+        }
+        timeCommit();
+
+        List<PaymentBatchItemResultDTO> results = new ArrayList<>(requests.size());
+        List<Payment> payments = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                PaymentRequestDTO request = requests.get(i);
+                if (request == null) {
+                    throw new IllegalArgumentException(NULL_BATCH_ITEM_MSG);
+                }
+                RequestTimings.time(Phase.VALIDATION, () -> PaymentUtils.validatePaymentRequest(request));
+                Payment payment = RequestTimings.time(Phase.ENTITY, () -> createNewPaymentEntity(request));
+                RequestTimings.time(Phase.VALIDATION, () -> validateEntity(payment));
+                payments.add(payment);
+                results.add(new PaymentBatchItemResultDTO(i, true, null, null));
+            } catch (IllegalArgumentException e) {
+                results.add(new PaymentBatchItemResultDTO(i, false, null, e.getMessage()));
+            }
+        }
+
+        RequestTimings.time(Phase.DB, () -> paymentRepository.saveAll(payments));
+
+        int created = 0;
+        for (PaymentBatchItemResultDTO result : results) {
+            if (result.isCreated()) {
+                Payment payment = payments.get(created++);
+                result.setPaymentId(payment.getId());
+                enqueuePaymentCreatedNotification(payment);
+                eventPublisher.publishEvent(new PaymentCreatedEvent(payment.getId(), payment.getAmount()));
+                eventPublisher.publishEvent(AuditEvent.paymentCreated(payment));
+            }
+        }
+
+        log.info(BATCH_CREATED_LOG_MSG, created, requests.size());
+        return new PaymentBatchResponseDTO(requests.size(), created, requests.size() - created, results);
     }
 
     @Override
-    @Transactional
     public PaymentResponseDTO cancelPayment(Long paymentId) {
-        Payment payment = findPaymentById(paymentId);
-        validateCancellationTime(payment);
+        return cancelTimer.record(() -> transactionTemplate.execute(status -> doCancelPayment(paymentId)));
+    }
 
-        BigDecimal cancellationFee = calculateCancellationFee(payment);
-        updatePaymentCancellation(payment, cancellationFee);
+    private PaymentResponseDTO doCancelPayment(Long paymentId) {
+        timeCommit();
+        Payment payment = RequestTimings.time(Phase.DB, () -> findPaymentById(paymentId));
+        RequestTimings.time(Phase.VALIDATION, () -> validateCancellationTime(payment));
 
-        payment = savePaymentWithLock(payment);
-        return mapToResponseDTO(payment);
+        ExchangeRateTable rates = exchangeRateProvider.current();
+        BigDecimal cancellationFee = RequestTimings.time(Phase.FEE, () -> calculateCancellationFee(payment, rates));
+        updatePaymentCancellation(payment, cancellationFee, rates.getVersion());
+
+        Payment saved = RequestTimings.time(Phase.DB, () -> savePaymentWithLock(payment));
+        eventPublisher.publishEvent(new PaymentCancelledEvent(saved.getId(), saved.getAmount()));
+        eventPublisher.publishEvent(AuditEvent.paymentCancelled(saved));
+        return RequestTimings.time(Phase.MAPPING, () -> mapToResponseDTO(saved));
     }
 
     @Override
     public List<Long> getNonCancelledPaymentIdsByAmount(BigDecimal amount) {
-        return paymentRepository.findNonCancelledPaymentIdsByAmount(amount);
+        return listTimer.record(() -> paymentAmountIndex.findActivePaymentIds(amount)
+                .orElseGet(() -> RequestTimings.time(Phase.DB,
+                        () -> paymentRepository.findNonCancelledPaymentIdsByAmount(amount))));
     }
 
     @Override
     public List<Long> getAllNonCancelledPaymentIds() {
-        return paymentRepository.findAllNonCancelledPaymentIds();
+        return listTimer.record(() -> RequestTimings.time(Phase.DB, paymentRepository::findAllNonCancelledPaymentIds));
     }
 
     @Override
-    public PaymentFeeResponseDTO getPaymentById(Long paymentId) {
-        Payment payment = findPaymentById(paymentId);
-        BigDecimal cancellationFee = calculateCancellationFee(payment);
+    public PaymentIdPageDTO getNonCancelledPaymentIdPage(BigDecimal amount, long afterId, int limit) {
+        return pageTimer.record(() -> findNonCancelledPaymentIdPage(amount, afterId, limit));
+    }
+
+    private PaymentIdPageDTO findNonCancelledPaymentIdPage(BigDecimal amount, long afterId, int limit) {
+        validatePage(afterId, limit);
+
+        PageRequest page = PageRequest.of(0, limit);
+        List<Long> ids = amount != null
+                ? paymentAmountIndex.findActivePaymentIdsAfter(amount, afterId, limit)
+                        .orElseGet(() -> RequestTimings.time(Phase.DB,
+                                () -> paymentRepository.findNonCancelledPaymentIdsByAmountAfter(amount, afterId, page)))
+                : RequestTimings.time(Phase.DB, () -> paymentRepository.findNonCancelledPaymentIdsAfter(afterId, page));
+
+        return toPage(ids, limit);
+    }
 
-        PaymentFeeResponseDTO responseDTO = new PaymentFeeResponseDTO(payment.getId(), cancellationFee);
+    @Override
+    public PaymentIdPageDTO searchPayments(PaymentSearchCriteria criteria, long afterId, int limit) {
+        return searchTimer.record(() -> doSearchPayments(criteria, afterId, limit));
+    }
+
+    private PaymentIdPageDTO doSearchPayments(PaymentSearchCriteria criteria, long afterId, int limit) {
+        validatePage(afterId, limit);
+        if (criteria.getMinAmount() != null && criteria.getMaxAmount() != null
+                && criteria.getMinAmount().compareTo(criteria.getMaxAmount()) > 0) {
+            throw new IllegalArgumentException(AMOUNT_RANGE_ERROR_MSG);
+        }
+        if (criteria.getCreatedFrom() != null && criteria.getCreatedTo() != null
+                && !criteria.getCreatedFrom().isBefore(criteria.getCreatedTo())) {
+            throw new IllegalArgumentException(CREATION_WINDOW_ERROR_MSG);
+        }
+
+        return toPage(RequestTimings.time(Phase.DB, () -> paymentRepository.searchPaymentIds(criteria, afterId, limit)), limit);
+    }
+
+    @Override
+    @Transactional
+    public void streamAllNonCancelledPaymentIds(LongConsumer consumer) {
+        listTimer.record(() -> {
+            try (Stream<Long> ids = paymentRepository.streamAllNonCancelledPaymentIds()) {
+                ids.forEach(consumer::accept);
+            }
+        });
+    }
+
+    @Override
+    public PaymentFeeResponseDTO getPaymentById(Long paymentId) {
+        PaymentFeeResponseDTO responseDTO = getTimer.record(
+                () -> RequestTimings.time(Phase.FEE, () -> cancellationFeeQuoteService.getQuote(paymentId)));
         log.info("Retrieved payment ID and cancellation fee for ID: {}", paymentId);
 
         return responseDTO;
     }
 
+    private void validatePage(long afterId, int limit) {
+        if (limit < 1 || limit > maxPageLimit) {
+            throw new IllegalArgumentException(PAGE_LIMIT_ERROR_MSG + maxPageLimit);
+        }
+        if (afterId < 0) {
+            throw new IllegalArgumentException(PAGE_CURSOR_ERROR_MSG);
+        }
+    }
+
+    private PaymentIdPageDTO toPage(List<Long> ids, int limit) {
+        Long nextAfterId = ids.size() < limit ? null : ids.get(ids.size() - 1);
+        return new PaymentIdPageDTO(ids, nextAfterId);
+    }
+
+    /**
+     * Sequence IDs let Hibernate defer INSERTs until the transaction ends, so they run inside
+     * the commit rather than in {@link Phase#DB}. The time from the start of the commit until
+     * it completed is reported as {@link Phase#COMMIT}.
+     */
+    private static void timeCommit() {
+        RequestTimings timings = RequestTimings.current();
+        if (timings == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long startNanos;
+
+            @Override
+            public int getOrder() {
+                // runs before the after-commit event listeners, which are not part of the commit
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void beforeCompletion() {
+                startNanos = System.nanoTime();
+            }
+
+            @Override
+            public void afterCommit() {
+                timings.add(Phase.COMMIT, System.nanoTime() - startNanos);
+            }
+        });
+    }
+
     private Payment createNewPaymentEntity(PaymentRequestDTO request) {
         LocalDateTime creationTime = LocalDateTime.now();
         Payment payment = PaymentUtils.determineAndCreatePaymentEntity(request);
@@ -103,10 +352,17 @@ public class PaymentServiceImpl implements PaymentService {
         return payment;
     }
 
-    private void sendPaymentCreatedNotification(Payment payment) {
+    private void validateEntity(Payment payment) {
+        Set<ConstraintViolation<Payment>> violations = validator.validate(payment);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.iterator().next().getMessage());
+        }
+    }
+
+    private void enqueuePaymentCreatedNotification(Payment payment) {
         if (payment instanceof Type1Payment || payment instanceof Type2Payment) {
-            PaymentNotificationDTO notificationResult = notificationService.notifyPaymentCreated(payment);
-            log.info(PAYMENT_NOTIFICATION_LOG_MSG, payment.getId(), notificationResult.isNotified() ? "successful" : "unsuccessful");
+            RequestTimings.time(Phase.NOTIFICATION, () -> notificationOutboxService.enqueuePaymentCreated(payment));
+            log.info(PAYMENT_NOTIFICATION_LOG_MSG, payment.getId());
         }
     }
 
@@ -124,24 +380,30 @@ public class PaymentServiceImpl implements PaymentService {
         }
     }
 
-    private BigDecimal calculateCancellationFee(Payment payment) {
-        return PaymentUtils.calculateCancellationFee(payment);
+    private BigDecimal calculateCancellationFee(Payment payment, ExchangeRateTable rates) {
+        return cancellationFeeCalculator.calculateFee(payment, rates);
     }
 
-    private void updatePaymentCancellation(Payment payment, BigDecimal cancellationFee) {
+    private void updatePaymentCancellation(Payment payment, BigDecimal cancellationFee, long rateVersion) {
         payment.setCancellationFee(cancellationFee);
+        payment.setCancellationFeeRateVersion(rateVersion);
         payment.setCancelled(true);
     }
 
+    /**
+     * Flushes straight away so a version conflict surfaces here, where it is counted, rather
+     * than at commit.
+     */
     private Payment savePaymentWithLock(Payment payment) {
         try {
-            return paymentRepository.save(payment);
-        } catch (OptimisticLockException e) {
+            return paymentRepository.saveAndFlush(payment);
+        } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+            optimisticLockConflicts.increment();
             throw new IllegalStateException(CONCURRENT_UPDATE_ERROR_MSG + payment.getId(), e);
         }
     }
 
     private PaymentResponseDTO mapToResponseDTO(Payment payment) {
-        return modelMapper.map(payment, PaymentResponseDTO.class);
+        return PaymentMapper.toResponseDTO(payment);
     }
 }
\ No newline at end of file
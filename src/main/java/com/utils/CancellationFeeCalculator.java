@@ -0,0 +1,141 @@
+package com.utils;
+
+import com.model.Currency;
+import com.model.Payment;
+import com.model.PaymentType;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/**
+ * Calculates cancellation fees in {@code long} minor units.
+ * <p>
+ * The fee is the number of full hours since creation times the hourly fee of the
+ * {@link PaymentType}, converted to EUR with the rate of the payment currency from the given
+ * {@link ExchangeRateTable} and rounded half up to cents. Hours are counted like
+ * {@link LocalDateTime#until} in the clock's zone, i.e. in local wall-clock time and truncated
+ * toward zero. The zone offset is cached until the zone's next transition, so once inlined
+ * {@link #feeMinorUnits} does not allocate.
+ */
+public final class CancellationFeeCalculator {
+
+    public static final int SCALE = 2;
+
+    private static final long SECONDS_PER_HOUR = 3600;
+
+    private final Clock clock;
+    private final ZoneRules zoneRules;
+    private volatile OffsetWindow offsetWindow = new OffsetWindow(0, 0, 0);
+
+    /**
+     * @param clock Supplies the current time and the zone creation times are recorded in.
+     */
+    public CancellationFeeCalculator(Clock clock) {
+        this.clock = clock;
+        this.zoneRules = clock.getZone().getRules();
+    }
+
+    /**
+     * @param payment The payment to calculate the cancellation fee for
+     * @param rates   The exchange rates to convert the fee with
+     * @return The fee in euro, with a scale of two
+     */
+    public BigDecimal calculateFee(Payment payment, ExchangeRateTable rates) {
+        return BigDecimal.valueOf(feeMinorUnits(payment, rates), SCALE);
+    }
+
+    /**
+     * @param payment The payment to calculate the cancellation fee for
+     * @param rates   The exchange rates to convert the fee with
+     * @return The fee in euro cents
+     * @throws IllegalStateException if the payment type is unknown
+     */
+    public long feeMinorUnits(Payment payment, ExchangeRateTable rates) {
+        return feeMinorUnits(payment.getPaymentType(), payment.getCurrency(), payment.getCreationTime(), rates);
+    }
+
+    /**
+     * @return The fee in euro cents
+     * @throws IllegalStateException if the payment type is unknown
+     */
+    public long feeMinorUnits(PaymentType type, Currency currency, LocalDateTime creationTime, ExchangeRateTable rates) {
+        return feeMinorUnits(type, currency, hoursSince(creationTime), rates);
+    }
+
+    /**
+     * @param hours Full hours since the payment was created, see {@link #hoursSince}
+     * @return The fee in euro cents
+     * @throws IllegalStateException if the payment type is unknown
+     */
+    public long feeMinorUnits(PaymentType type, Currency currency, long hours, ExchangeRateTable rates) {
+        if (type == null) {
+            throw new IllegalStateException("Unknown payment type");
+        }
+
+        long fee = Math.multiplyExact(hours, type.getHourlyCancellationFee());
+        if (currency == null) {
+            return fee;
+        }
+        return rates.toEurMinorUnits(fee, currency);
+    }
+
+    /**
+     * @return The full hours from the given local time to now; the fee only changes when this does
+     */
+    public long hoursSince(LocalDateTime creationTime) {
+        Instant now = clock.instant();
+        long seconds = localEpochSecond(now.getEpochSecond()) - creationTime.toEpochSecond(ZoneOffset.UTC);
+        long nanos = now.getNano() - creationTime.getNano();
+
+        // move the sub-second part to the sign of the whole seconds, then truncate toward zero
+        if (seconds > 0 && nanos < 0) {
+            seconds--;
+        } else if (seconds < 0 && nanos > 0) {
+            seconds++;
+        }
+        return seconds / SECONDS_PER_HOUR;
+    }
+
+    private long localEpochSecond(long epochSecond) {
+        OffsetWindow window = offsetWindow;
+        if (epochSecond < window.from || epochSecond >= window.until) {
+            window = OffsetWindow.containing(zoneRules, epochSecond);
+            offsetWindow = window;
+        }
+        return epochSecond + window.offsetSeconds;
+    }
+
+    /**
+     * The span of epoch seconds, {@code from} inclusive and {@code until} exclusive, in which the
+     * zone keeps the same offset.
+     */
+    private static final class OffsetWindow {
+        private final long from;
+        private final long until;
+        private final int offsetSeconds;
+
+        private OffsetWindow(long from, long until, int offsetSeconds) {
+            this.from = from;
+            this.until = until;
+            this.offsetSeconds = offsetSeconds;
+        }
+
+        private static OffsetWindow containing(ZoneRules rules, long epochSecond) {
+            Instant instant = Instant.ofEpochSecond(epochSecond);
+            int offsetSeconds = rules.getOffset(instant).getTotalSeconds();
+            if (rules.isFixedOffset()) {
+                return new OffsetWindow(Long.MIN_VALUE, Long.MAX_VALUE, offsetSeconds);
+            }
+            // transitions fall on whole seconds, so this also finds one at epochSecond itself
+            ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));
+            ZoneOffsetTransition next = rules.nextTransition(instant);
+            return new OffsetWindow(previous == null ? Long.MIN_VALUE : previous.toEpochSecond(),
+                    next == null ? Long.MAX_VALUE : next.toEpochSecond(), offsetSeconds);
+        }
+    }
+}
@@ -2,8 +2,15 @@ package com.utils;
 
 import jakarta.servlet.http.HttpServletRequest;
 
+import java.util.function.UnaryOperator;
+
 public class ClientIpResolver {
 
+    private static final String[] HEADERS = {
+            "X-Forwarded-For", "Proxy-Client-IP", "WL-Proxy-Client-IP",
+            "HTTP_CLIENT_IP", "HTTP_X_FORWARDED_FOR"
+    };
+
     /**
      * Retrieves the client's IP address from the given HttpServletRequest.
      * The method first checks a list of common headers for the client's IP
@@ -14,18 +21,24 @@ public class ClientIpResolver {
      * @return The client IP address as a String.
      */
     public static String getClientIpAddress(HttpServletRequest request) {
-        String[] headers = {
-                "X-Forwarded-For", "Proxy-Client-IP", "WL-Proxy-Client-IP",
-                "HTTP_CLIENT_IP", "HTTP_X_FORWARDED_FOR"
-        };
+        return getClientIpAddress(request::getHeader, request.getRemoteAddr());
+    }
 
-        for (String header : headers) {
-            String ip = request.getHeader(header);
+    /**
+     * Same as {@link #getClientIpAddress(HttpServletRequest)} for requests of other web stacks.
+     *
+     * @param headers    Returns the first value of a request header, or null if it is absent.
+     * @param remoteAddr The remote address of the request.
+     * @return The client IP address as a String.
+     */
+    public static String getClientIpAddress(UnaryOperator<String> headers, String remoteAddr) {
+        for (String header : HEADERS) {
+            String ip = headers.apply(header);
             if (ip != null && !ip.isEmpty() && !"unknown".equalsIgnoreCase(ip)) {
                 return ip;
             }
         }
 
-        return request.getRemoteAddr();
+        return remoteAddr;
     }
-}
\ No newline at end of file
+}
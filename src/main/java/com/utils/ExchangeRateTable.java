@@ -0,0 +1,136 @@
+package com.utils;
+
+import com.model.Currency;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Immutable table of EUR exchange rates, identified by a version.
+ * <p>
+ * Rates are held in millionths in a {@code long[]} indexed by {@link Currency#ordinal()}, so
+ * converting minor units needs neither a map lookup nor a {@code BigDecimal}. A table always
+ * has a rate for every {@link Currency} and EUR at exactly 1, so conversion cannot fail on a
+ * table that was accepted.
+ */
+public final class ExchangeRateTable {
+
+    private static final int RATE_SCALE = 6;
+    private static final long RATE_UNIT = 1_000_000L;
+
+    private final long version;
+    private final long[] eurRates;
+    private final Map<Currency, BigDecimal> rates;
+
+    private ExchangeRateTable(long version, long[] eurRates, Map<Currency, BigDecimal> rates) {
+        this.version = version;
+        this.eurRates = eurRates;
+        this.rates = rates;
+    }
+
+    /**
+     * @param version  Identifies this set of rates.
+     * @param eurRates The EUR value of one unit of each currency, positive and with at most six decimals.
+     * @throws IllegalArgumentException if a currency has no rate, EUR is not 1, or a rate is not
+     *                                  positive or has more than six decimals
+     */
+    public static ExchangeRateTable of(long version, Map<Currency, BigDecimal> eurRates) {
+        long[] table = new long[Currency.values().length];
+        Map<Currency, BigDecimal> rates = new EnumMap<>(Currency.class);
+        for (Map.Entry<Currency, BigDecimal> entry : eurRates.entrySet()) {
+            Currency currency = entry.getKey();
+            BigDecimal rate = entry.getValue();
+            if (currency == null || rate == null || rate.signum() <= 0) {
+                throw new IllegalArgumentException("A positive EUR rate is required for " + currency);
+            }
+            try {
+                table[currency.ordinal()] = rate.movePointRight(RATE_SCALE).longValueExact();
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("EUR rate for " + currency + " has more than "
+                        + RATE_SCALE + " decimals: " + rate, e);
+            }
+            rates.put(currency, rate.stripTrailingZeros());
+        }
+        for (Currency currency : Currency.values()) {
+            if (!rates.containsKey(currency)) {
+                throw new IllegalArgumentException("A positive EUR rate is required for " + currency);
+            }
+        }
+        if (rates.get(Currency.EUR).compareTo(BigDecimal.ONE) != 0) {
+            throw new IllegalArgumentException("The EUR rate must be 1, was " + rates.get(Currency.EUR));
+        }
+        return new ExchangeRateTable(version, table, Collections.unmodifiableMap(rates));
+    }
+
+    /**
+     * Reads rates in properties format, one {@code CURRENCY=rate} per line, e.g. {@code USD=0.92}.
+     *
+     * @param reader  The source of the rates
+     * @param version Identifies this set of rates.
+     * @return The rates read
+     * @throws IllegalArgumentException if a currency is unknown or a rate is invalid
+     */
+    public static ExchangeRateTable load(Reader reader, long version) throws IOException {
+        Properties properties = new Properties();
+        properties.load(reader);
+
+        Map<Currency, BigDecimal> rates = new EnumMap<>(Currency.class);
+        for (String name : properties.stringPropertyNames()) {
+            Currency currency = parseCurrency(name);
+            try {
+                rates.put(currency, new BigDecimal(properties.getProperty(name).trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid EUR rate for " + currency + ": " + properties.getProperty(name), e);
+            }
+        }
+        return of(version, rates);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the code is not a supported currency
+     */
+    public static Currency parseCurrency(String code) {
+        try {
+            return Currency.valueOf(code.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown currency: " + code, e);
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return The EUR rate of every currency
+     */
+    public Map<Currency, BigDecimal> getRates() {
+        return rates;
+    }
+
+    /**
+     * Converts an amount in minor units to euro cents, rounding half up.
+     */
+    public long toEurMinorUnits(long minorUnits, Currency currency) {
+        long rate = eurRates[currency.ordinal()];
+        long dividend = Math.multiplyExact(minorUnits, rate);
+        long quotient = dividend / RATE_UNIT;
+        if (Math.abs(dividend % RATE_UNIT) * 2 >= RATE_UNIT) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+
+    /**
+     * Converts an amount to euro with a scale of two, rounding half up.
+     */
+    public BigDecimal toEur(BigDecimal amount, Currency currency) {
+        return amount.multiply(rates.get(currency)).setScale(2, RoundingMode.HALF_UP);
+    }
+}
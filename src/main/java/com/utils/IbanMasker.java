@@ -0,0 +1,40 @@
+package com.utils;
+
+/**
+ * Masks account numbers for logs.
+ */
+public final class IbanMasker {
+
+    private static final int VISIBLE_PREFIX = 2;
+    private static final int VISIBLE_SUFFIX = 4;
+    private static final char MASK = '*';
+
+    private IbanMasker() {
+    }
+
+    /**
+     * Keeps the country code and the last four characters, e.g. {@code LT12 1000 0111 0100 1000}
+     * becomes {@code LT**************1000}. Whitespace is dropped. IBANs too short to keep the
+     * last four characters hidden only show the country code.
+     *
+     * @param iban The IBAN, may be null.
+     * @return The masked IBAN, or null if {@code iban} is null.
+     */
+    public static String mask(String iban) {
+        if (iban == null) {
+            return null;
+        }
+        String compact = iban.replaceAll("\\s", "");
+        int length = compact.length();
+        int suffix = length >= VISIBLE_PREFIX + VISIBLE_SUFFIX + VISIBLE_SUFFIX ? VISIBLE_SUFFIX : 0;
+        int prefix = Math.min(VISIBLE_PREFIX, length);
+
+        StringBuilder masked = new StringBuilder(length);
+        masked.append(compact, 0, prefix);
+        for (int i = prefix; i < length - suffix; i++) {
+            masked.append(MASK);
+        }
+        masked.append(compact, length - suffix, length);
+        return masked.toString();
+    }
+}
@@ -0,0 +1,202 @@
+package com.utils;
+
+public class IpAddressUtils {
+
+    private static final int IPV6_PREFIX_GROUPS = 3;
+    private static final int IPV6_GROUPS = 8;
+
+    /**
+     * Collapses an IP address literal to the network it belongs to: the /24 prefix for IPv4
+     * and the /48 prefix for IPv6. Clients in the same network almost always resolve to the
+     * same country, so the prefix is a better cache key than the full address.
+     * Values that are not IP literals are returned unchanged.
+     *
+     * @param ipAddress The IP address to collapse.
+     * @return The network prefix in CIDR notation, or the input if it is not an IP literal.
+     */
+    public static String toNetworkPrefix(String ipAddress) {
+        if (ipAddress == null) {
+            return null;
+        }
+        if (isIpv4Literal(ipAddress)) {
+            return ipAddress.substring(0, ipAddress.lastIndexOf('.')) + ".0/24";
+        }
+        if (ipAddress.indexOf(':') >= 0) {
+            return toIpv6Prefix(ipAddress);
+        }
+        return ipAddress;
+    }
+
+    /**
+     * Checks whether the value is a dotted-quad IPv4 literal with every octet in range.
+     *
+     * @param value The value to check.
+     * @return true if the value is an IPv4 literal.
+     */
+    public static boolean isIpv4Literal(String value) {
+        return parseIpv4(value) >= 0;
+    }
+
+    /**
+     * Parses a dotted-quad IPv4 literal into its unsigned 32-bit value without allocating.
+     *
+     * @param value The value to parse.
+     * @return The address as a non-negative long, or -1 if the value is not an IPv4 literal.
+     */
+    public static long parseIpv4(String value) {
+        long address = 0;
+        int octets = 0;
+        int octet = -1;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '.') {
+                if (octet < 0 || ++octets > 3) {
+                    return -1;
+                }
+                address = (address << 8) | octet;
+                octet = -1;
+            } else if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return -1;
+                }
+            } else {
+                return -1;
+            }
+        }
+        if (octets != 3 || octet < 0) {
+            return -1;
+        }
+        return (address << 8) | octet;
+    }
+
+    /**
+     * Parses an IPv6 literal into its 16 network-order bytes. IPv4-mapped addresses are
+     * returned as their 4-byte IPv4 form. The literal is parsed here rather than by
+     * {@link java.net.InetAddress}, which would resolve anything that is not a literal
+     * (such as {@code localhost:}) through DNS. Zone IDs and brackets are not accepted.
+     *
+     * @param value The value to parse.
+     * @return The address bytes, or null if the value is not an IPv6 literal.
+     */
+    public static byte[] parseIpv6(String value) {
+        if (value.indexOf(':') < 0) {
+            return null;
+        }
+        int[] groups = new int[IPV6_GROUPS];
+        int doubleColon = value.indexOf("::");
+        if (doubleColon < 0) {
+            if (parseIpv6Groups(value, 0, value.length(), groups, 0, true) != IPV6_GROUPS) {
+                return null;
+            }
+        } else {
+            if (value.indexOf("::", doubleColon + 1) >= 0) {
+                return null;
+            }
+            int head = parseIpv6Groups(value, 0, doubleColon, groups, 0, false);
+            int[] tailGroups = new int[IPV6_GROUPS];
+            int tail = parseIpv6Groups(value, doubleColon + 2, value.length(), tailGroups, 0, true);
+            if (head < 0 || tail < 0 || head + tail >= IPV6_GROUPS) {
+                return null;
+            }
+            System.arraycopy(tailGroups, 0, groups, IPV6_GROUPS - tail, tail);
+        }
+
+        if (isIpv4Mapped(groups)) {
+            return new byte[]{(byte) (groups[6] >>> 8), (byte) groups[6], (byte) (groups[7] >>> 8), (byte) groups[7]};
+        }
+        byte[] bytes = new byte[IPV6_GROUPS * 2];
+        for (int i = 0; i < IPV6_GROUPS; i++) {
+            bytes[i * 2] = (byte) (groups[i] >>> 8);
+            bytes[i * 2 + 1] = (byte) groups[i];
+        }
+        return bytes;
+    }
+
+    /**
+     * Parses the colon-separated hex groups in {@code value[from, to)} into {@code groups}, where
+     * the last group may be a dotted-quad IPv4 address counting as two groups.
+     *
+     * @return The number of 16-bit groups parsed, or -1 if the range is not a valid group list.
+     */
+    private static int parseIpv6Groups(String value, int from, int to, int[] groups, int offset, boolean allowIpv4) {
+        if (from == to) {
+            return 0;
+        }
+        int count = 0;
+        int start = from;
+        while (true) {
+            int end = value.indexOf(':', start);
+            if (end < 0 || end > to) {
+                end = to;
+            }
+            if (end == start) {
+                return -1;
+            }
+            if (end == to && allowIpv4 && value.indexOf('.', start) >= 0 && value.indexOf('.', start) < to) {
+                long ipv4 = parseIpv4(value.substring(start, end));
+                if (ipv4 < 0 || offset + count + 2 > groups.length) {
+                    return -1;
+                }
+                groups[offset + count++] = (int) (ipv4 >>> 16);
+                groups[offset + count++] = (int) (ipv4 & 0xffff);
+                return count;
+            }
+            if (end - start > 4 || offset + count >= groups.length) {
+                return -1;
+            }
+            int group = 0;
+            for (int i = start; i < end; i++) {
+                int digit = hexDigit(value.charAt(i));
+                if (digit < 0) {
+                    return -1;
+                }
+                group = (group << 4) | digit;
+            }
+            groups[offset + count++] = group;
+            if (end == to) {
+                return count;
+            }
+            start = end + 1;
+        }
+    }
+
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    private static boolean isIpv4Mapped(int[] groups) {
+        for (int i = 0; i < 5; i++) {
+            if (groups[i] != 0) {
+                return false;
+            }
+        }
+        return groups[5] == 0xffff;
+    }
+
+    private static String toIpv6Prefix(String ipAddress) {
+        byte[] bytes = parseIpv6(ipAddress);
+        if (bytes == null) {
+            return ipAddress;
+        }
+        if (bytes.length == 4) {
+            return (bytes[0] & 0xff) + "." + (bytes[1] & 0xff) + "." + (bytes[2] & 0xff) + ".0/24";
+        }
+
+        StringBuilder prefix = new StringBuilder();
+        for (int group = 0; group < IPV6_PREFIX_GROUPS; group++) {
+            int value = ((bytes[group * 2] & 0xff) << 8) | (bytes[group * 2 + 1] & 0xff);
+            prefix.append(Integer.toHexString(value)).append(':');
+        }
+        return prefix.append(":/48").toString();
+    }
+}
@@ -0,0 +1,259 @@
+package com.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable IP-range-to-country table searched with binary search.
+ * <p>
+ * Ranges are held in parallel primitive arrays sorted by start address: IPv4 bounds as
+ * sign-flipped ints (so signed comparison matches unsigned address order) and IPv6 bounds
+ * as unsigned high/low longs. Country names are deduplicated and referenced by index.
+ * IPv4 lookups parse the address in place and do not allocate.
+ */
+public final class IpRangeTable {
+
+    private static final int SIGN_FLIP = 0x80000000;
+
+    private final int[] v4Starts;
+    private final int[] v4Ends;
+    private final short[] v4Countries;
+
+    private final long[] v6StartsHigh;
+    private final long[] v6StartsLow;
+    private final long[] v6EndsHigh;
+    private final long[] v6EndsLow;
+    private final short[] v6Countries;
+
+    private final String[] countries;
+
+    private IpRangeTable(List<Range> v4Ranges, List<Range> v6Ranges, String[] countries) {
+        this.countries = countries;
+
+        int v4Size = v4Ranges.size();
+        v4Starts = new int[v4Size];
+        v4Ends = new int[v4Size];
+        v4Countries = new short[v4Size];
+        for (int i = 0; i < v4Size; i++) {
+            Range range = v4Ranges.get(i);
+            v4Starts[i] = (int) range.startLow ^ SIGN_FLIP;
+            v4Ends[i] = (int) range.endLow ^ SIGN_FLIP;
+            v4Countries[i] = range.country;
+        }
+
+        int v6Size = v6Ranges.size();
+        v6StartsHigh = new long[v6Size];
+        v6StartsLow = new long[v6Size];
+        v6EndsHigh = new long[v6Size];
+        v6EndsLow = new long[v6Size];
+        v6Countries = new short[v6Size];
+        for (int i = 0; i < v6Size; i++) {
+            Range range = v6Ranges.get(i);
+            v6StartsHigh[i] = range.startHigh;
+            v6StartsLow[i] = range.startLow;
+            v6EndsHigh[i] = range.endHigh;
+            v6EndsLow[i] = range.endLow;
+            v6Countries[i] = range.country;
+        }
+    }
+
+    /**
+     * Loads a table from CSV lines of the form {@code start,end,country}, where start and end
+     * are IPv4 or IPv6 literals of the same family. Blank lines, lines starting with '#'
+     * and a header line are ignored. Ranges must not overlap.
+     *
+     * @param reader The CSV source.
+     * @return The loaded table.
+     * @throws IOException if the source cannot be read
+     * @throws IllegalArgumentException if a line is malformed or ranges overlap
+     */
+    public static IpRangeTable load(Reader reader) throws IOException {
+        List<Range> v4Ranges = new ArrayList<>();
+        List<Range> v6Ranges = new ArrayList<>();
+        Map<String, Short> countryIndex = new HashMap<>();
+        List<String> countryNames = new ArrayList<>();
+
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] columns = line.split(",", 3);
+            if (columns.length != 3) {
+                throw new IllegalArgumentException("Malformed IP range at line " + lineNumber + ": " + line);
+            }
+            String start = columns[0].trim();
+            String end = columns[1].trim();
+            String country = stripQuotes(columns[2].trim());
+
+            long v4Start = IpAddressUtils.parseIpv4(start);
+            if (v4Start >= 0) {
+                long v4End = IpAddressUtils.parseIpv4(end);
+                if (v4End < v4Start) {
+                    throw new IllegalArgumentException("Invalid IPv4 range at line " + lineNumber + ": " + line);
+                }
+                v4Ranges.add(new Range(0, v4Start, 0, v4End, countryIndex(country, countryIndex, countryNames)));
+                continue;
+            }
+
+            byte[] v6Start = IpAddressUtils.parseIpv6(start);
+            byte[] v6End = IpAddressUtils.parseIpv6(end);
+            if (v6Start == null || v6End == null || v6Start.length != 16 || v6End.length != 16) {
+                if (lineNumber == 1) {
+                    continue; // header
+                }
+                throw new IllegalArgumentException("Invalid IP range at line " + lineNumber + ": " + line);
+            }
+            Range range = new Range(high(v6Start), low(v6Start), high(v6End), low(v6End),
+                    countryIndex(country, countryIndex, countryNames));
+            if (compare(range.endHigh, range.endLow, range.startHigh, range.startLow) < 0) {
+                throw new IllegalArgumentException("Invalid IPv6 range at line " + lineNumber + ": " + line);
+            }
+            v6Ranges.add(range);
+        }
+
+        Comparator<Range> byStart = (a, b) -> compare(a.startHigh, a.startLow, b.startHigh, b.startLow);
+        v4Ranges.sort(byStart);
+        v6Ranges.sort(byStart);
+        checkNoOverlap(v4Ranges);
+        checkNoOverlap(v6Ranges);
+
+        return new IpRangeTable(v4Ranges, v6Ranges, countryNames.toArray(new String[0]));
+    }
+
+    /**
+     * Finds the country of the range containing the given address.
+     *
+     * @param ipAddress An IPv4 or IPv6 literal.
+     * @return The country name, or null if the address is not covered or not a literal.
+     */
+    public String lookup(String ipAddress) {
+        long v4 = IpAddressUtils.parseIpv4(ipAddress);
+        if (v4 >= 0) {
+            return lookupIpv4(v4);
+        }
+
+        byte[] v6 = IpAddressUtils.parseIpv6(ipAddress);
+        if (v6 == null) {
+            return null;
+        }
+        if (v6.length == 4) {
+            return lookupIpv4(((v6[0] & 0xffL) << 24) | ((v6[1] & 0xffL) << 16) | ((v6[2] & 0xffL) << 8) | (v6[3] & 0xffL));
+        }
+        return lookupIpv6(high(v6), low(v6));
+    }
+
+    public int size() {
+        return v4Starts.length + v6StartsHigh.length;
+    }
+
+    private String lookupIpv4(long address) {
+        int key = (int) address ^ SIGN_FLIP;
+        int index = Arrays.binarySearch(v4Starts, key);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        if (index < 0 || key > v4Ends[index]) {
+            return null;
+        }
+        return countries[v4Countries[index]];
+    }
+
+    private String lookupIpv6(long high, long low) {
+        int lowIndex = 0;
+        int highIndex = v6StartsHigh.length - 1;
+        int found = -1;
+        while (lowIndex <= highIndex) {
+            int mid = (lowIndex + highIndex) >>> 1;
+            if (compare(v6StartsHigh[mid], v6StartsLow[mid], high, low) <= 0) {
+                found = mid;
+                lowIndex = mid + 1;
+            } else {
+                highIndex = mid - 1;
+            }
+        }
+        if (found < 0 || compare(high, low, v6EndsHigh[found], v6EndsLow[found]) > 0) {
+            return null;
+        }
+        return countries[v6Countries[found]];
+    }
+
+    private static short countryIndex(String country, Map<String, Short> countryIndex, List<String> countryNames) {
+        Short index = countryIndex.get(country);
+        if (index == null) {
+            if (countryNames.size() > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many distinct countries in IP range table");
+            }
+            index = (short) countryNames.size();
+            countryIndex.put(country, index);
+            countryNames.add(country);
+        }
+        return index;
+    }
+
+    private static void checkNoOverlap(List<Range> ranges) {
+        for (int i = 1; i < ranges.size(); i++) {
+            Range previous = ranges.get(i - 1);
+            Range current = ranges.get(i);
+            if (compare(current.startHigh, current.startLow, previous.endHigh, previous.endLow) <= 0) {
+                throw new IllegalArgumentException("Overlapping IP ranges in table");
+            }
+        }
+    }
+
+    private static int compare(long highA, long lowA, long highB, long lowB) {
+        int result = Long.compareUnsigned(highA, highB);
+        return result != 0 ? result : Long.compareUnsigned(lowA, lowB);
+    }
+
+    private static long high(byte[] bytes) {
+        return toLong(bytes, 0);
+    }
+
+    private static long low(byte[] bytes) {
+        return toLong(bytes, 8);
+    }
+
+    private static long toLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            value = (value << 8) | (bytes[i] & 0xffL);
+        }
+        return value;
+    }
+
+    private static String stripQuotes(String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    private static final class Range {
+        private final long startHigh;
+        private final long startLow;
+        private final long endHigh;
+        private final long endLow;
+        private final short country;
+
+        private Range(long startHigh, long startLow, long endHigh, long endLow, short country) {
+            this.startHigh = startHigh;
+            this.startLow = startLow;
+            this.endHigh = endHigh;
+            this.endLow = endLow;
+            this.country = country;
+        }
+    }
+}
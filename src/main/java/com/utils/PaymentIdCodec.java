@@ -0,0 +1,145 @@
+package com.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Compact binary encoding for sets of payment IDs.
+ * <p>
+ * Wire format: the number of IDs as an unsigned LEB128 varint, then the smallest ID
+ * zigzag-encoded as a varint, then the gap to each following ID (IDs sorted ascending)
+ * as an unsigned varint. Consecutive IDs therefore take a single byte each.
+ * Decoding always yields the IDs in ascending order.
+ */
+public class PaymentIdCodec {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_VARINT_BYTES = 10;
+
+    /**
+     * Encodes the IDs to the output stream. The collection may be in any order.
+     *
+     * @param ids The IDs to encode.
+     * @param out The stream to write to. It is not closed.
+     * @throws IOException if writing fails
+     */
+    public static void encode(Collection<? extends Number> ids, OutputStream out) throws IOException {
+        long[] values = new long[ids.size()];
+        int i = 0;
+        for (Number id : ids) {
+            values[i++] = id.longValue();
+        }
+        encode(values, out);
+    }
+
+    /**
+     * Encodes the IDs to the output stream. The array is sorted in place.
+     *
+     * @param ids The IDs to encode.
+     * @param out The stream to write to. It is not closed.
+     * @throws IOException if writing fails
+     */
+    public static void encode(long[] ids, OutputStream out) throws IOException {
+        Arrays.sort(ids);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int position = writeVarint(ids.length, buffer, 0);
+
+        long previous = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (position > BUFFER_SIZE - MAX_VARINT_BYTES) {
+                out.write(buffer, 0, position);
+                position = 0;
+            }
+            long value = i == 0 ? (ids[0] << 1) ^ (ids[0] >> 63) : ids[i] - previous;
+            position = writeVarint(value, buffer, position);
+            previous = ids[i];
+        }
+        out.write(buffer, 0, position);
+    }
+
+    /**
+     * Encodes the IDs into a new byte array. The array is sorted in place.
+     *
+     * @param ids The IDs to encode.
+     * @return The encoded IDs.
+     */
+    public static byte[] encode(long[] ids) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(ids.length + MAX_VARINT_BYTES);
+        try {
+            encode(ids, out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes IDs written by {@link #encode(long[], OutputStream)}.
+     *
+     * @param in The stream to read from. It is read to the end but not closed.
+     * @return The IDs in ascending order.
+     * @throws IOException if reading fails or the data is truncated or malformed
+     */
+    public static long[] decode(InputStream in) throws IOException {
+        try {
+            return decode(in.readAllBytes());
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Decodes IDs written by {@link #encode(long[])}.
+     *
+     * @param data The encoded IDs.
+     * @return The IDs in ascending order.
+     * @throws IllegalArgumentException if the data is truncated or malformed
+     */
+    public static long[] decode(byte[] data) {
+        int[] position = {0};
+        long count = readVarint(data, position);
+        // every ID takes at least one byte, which bounds the count by the remaining input
+        if (count < 0 || count > data.length - position[0]) {
+            throw new IllegalArgumentException("Invalid payment ID count: " + count);
+        }
+
+        long[] ids = new long[(int) count];
+        long previous = 0;
+        for (int i = 0; i < ids.length; i++) {
+            long value = readVarint(data, position);
+            previous = i == 0 ? (value >>> 1) ^ -(value & 1) : previous + value;
+            ids[i] = previous;
+        }
+        return ids;
+    }
+
+    private static int writeVarint(long value, byte[] buffer, int position) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    private static long readVarint(byte[] data, int[] position) {
+        long value = 0;
+        int index = position[0];
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (index >= data.length) {
+                throw new IllegalArgumentException("Truncated payment ID data");
+            }
+            byte b = data[index++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                position[0] = index;
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint is too long");
+    }
+}
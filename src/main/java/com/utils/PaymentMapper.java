@@ -0,0 +1,29 @@
+package com.utils;
+
+import com.dto.PaymentResponseDTO;
+import com.model.Payment;
+
+public class PaymentMapper {
+
+    /**
+     * Maps a payment entity to its response DTO.
+     * Produces the same DTO as the former ModelMapper-based mapping, without reflection.
+     *
+     * @param payment The payment to map.
+     * @return The response DTO, or null if the payment is null.
+     */
+    public static PaymentResponseDTO toResponseDTO(Payment payment) {
+        if (payment == null) {
+            return null;
+        }
+        return new PaymentResponseDTO(
+                payment.getId(),
+                payment.getAmount(),
+                payment.getCurrency(),
+                payment.getDebtorIban(),
+                payment.getCreditorIban(),
+                payment.getCreationTime(),
+                payment.isCancelled(),
+                payment.getCancellationFee());
+    }
+}
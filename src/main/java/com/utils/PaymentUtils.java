@@ -8,12 +8,21 @@ import com.model.Type3Payment;
 import com.model.Currency;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.time.Clock;
+import java.util.Map;
 
 public class PaymentUtils {
 
+    public static final BigDecimal USD_TO_EUR_RATE = new BigDecimal("0.92");
+
+    /** Built-in EUR rates, used where no {@code ExchangeRateProvider} is available. */
+    public static final ExchangeRateTable DEFAULT_EXCHANGE_RATES = ExchangeRateTable.of(0, Map.of(
+            Currency.EUR, BigDecimal.ONE,
+            Currency.USD, USD_TO_EUR_RATE));
+
+    private static final CancellationFeeCalculator FEE_CALCULATOR =
+            new CancellationFeeCalculator(Clock.systemDefaultZone());
+
     /**
      * Validates payment request data
      * @param request The payment request to validate
@@ -24,10 +33,8 @@ public class PaymentUtils {
             throw new IllegalArgumentException("Amount must be positive");
         }
 
-        Currency currency;
-        try {
-            currency = request.getCurrency();
-        } catch (IllegalArgumentException e) {
+        Currency currency = request.getCurrency();
+        if (currency == null) {
             throw new IllegalArgumentException("Currency must be EUR or USD");
         }
 
@@ -82,31 +89,12 @@ public class PaymentUtils {
     }
 
     /**
-     * Calculates the cancellation fee for a payment
+     * Calculates the cancellation fee for a payment against the system clock and built-in rates
      * @param payment The payment to calculate cancellation fee for
      * @return The calculated cancellation fee
      */
     public static BigDecimal calculateCancellationFee(Payment payment) {
-        long hours = payment.getCreationTime().until(LocalDateTime.now(), ChronoUnit.HOURS);
-
-        double coefficient;
-        if (payment instanceof Type1Payment) {
-            coefficient = 0.05;
-        } else if (payment instanceof Type2Payment) {
-            coefficient = 0.1;
-        } else if (payment instanceof Type3Payment) {
-            coefficient = 0.15;
-        } else {
-            throw new IllegalStateException("Unknown payment type");
-        }
-
-        BigDecimal fee = BigDecimal.valueOf(hours * coefficient);
-
-        if (payment.getCurrency() == Currency.USD) {
-            fee = convertUsdToEur(fee);
-        }
-
-        return fee.setScale(2, RoundingMode.HALF_UP);
+        return FEE_CALCULATOR.calculateFee(payment, DEFAULT_EXCHANGE_RATES);
     }
 
     /**
@@ -115,8 +103,6 @@ public class PaymentUtils {
      * @return Equivalent amount in EUR
      */
     public static BigDecimal convertUsdToEur(BigDecimal usdAmount) {
-        // Fixed rate: 1 USD = 0.92 EUR
-        BigDecimal exchangeRate = BigDecimal.valueOf(0.92);
-        return usdAmount.multiply(exchangeRate).setScale(2, RoundingMode.HALF_UP);
+        return DEFAULT_EXCHANGE_RATES.toEur(usdAmount, Currency.USD);
     }
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+package com.utils;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Time spent in each phase of the request handled by the current thread.
+ * <p>
+ * Timing only happens between {@link #begin()} and {@link #end()}, which the request timing
+ * filter calls around each payment request. Outside of that, {@link #time(Phase, Supplier)}
+ * just runs the action, so instrumented code costs one {@code ThreadLocal} lookup when timing
+ * is disabled. A phase entered several times, such as {@link Phase#DB}, adds up.
+ */
+public final class RequestTimings {
+
+    /**
+     * Phases reported in the {@code Server-Timing} header, under their metric names.
+     */
+    public enum Phase {
+        VALIDATION("validation"),
+        ENTITY("entity"),
+        DB("db"),
+        FEE("fee"),
+        NOTIFICATION("notification"),
+        REREAD("reread"),
+        MAPPING("mapping"),
+        /** Flushing the statements Hibernate deferred to the end of the transaction, and the commit. */
+        COMMIT("commit"),
+        GEO("geo");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final long startNanos;
+    private final long[] phaseNanos = new long[PHASES.length];
+    private final int[] phaseCounts = new int[PHASES.length];
+
+    private RequestTimings(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * Starts timing a request on the current thread.
+     */
+    public static RequestTimings begin() {
+        RequestTimings timings = new RequestTimings(System.nanoTime());
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    /**
+     * Stops timing on the current thread. Timings already returned stay readable.
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return The timings of the current request, or null if it is not being timed
+     */
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T time(Phase phase, Supplier<T> action) {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null) {
+            return action.get();
+        }
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            timings.add(phase, System.nanoTime() - start);
+        }
+    }
+
+    public static void time(Phase phase, Runnable action) {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null) {
+            action.run();
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            timings.add(phase, System.nanoTime() - start);
+        }
+    }
+
+    public void add(Phase phase, long nanos) {
+        phaseNanos[phase.ordinal()] += nanos;
+        phaseCounts[phase.ordinal()]++;
+    }
+
+    public long getPhaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Formats the phases that were entered, followed by the time since {@link #begin()}, as
+     * a {@code Server-Timing} header value, e.g. {@code db;dur=2.410, total;dur=3.082}.
+     * Durations are in milliseconds.
+     */
+    public String toServerTiming() {
+        StringBuilder header = new StringBuilder(160);
+        for (Phase phase : PHASES) {
+            if (phaseCounts[phase.ordinal()] > 0) {
+                appendMetric(header, phase.getMetricName(), phaseNanos[phase.ordinal()]);
+                header.append(", ");
+            }
+        }
+        appendMetric(header, "total", getElapsedNanos());
+        return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long nanos) {
+        header.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos / NANOS_PER_MILLI));
+    }
+}
@@ -0,0 +1,27 @@
+package com.utils;
+
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates the thread factories of the service's own background threads, following
+ * {@code spring.threads.virtual.enabled} like Tomcat and the scheduler do.
+ */
+public final class ThreadFactories {
+
+    private ThreadFactories() {
+    }
+
+    /**
+     * @param prefix  Prefix of the thread names, e.g. {@code "notification-dispatcher-"}
+     * @param virtual Whether to create virtual threads, which requires Java 21
+     * @throws UnsupportedOperationException if virtual threads are requested on an older JVM
+     */
+    public static ThreadFactory named(String prefix, boolean virtual) {
+        return virtual
+                ? new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory()
+                : new CustomizableThreadFactory(prefix);
+    }
+}
@@ -0,0 +1,132 @@
+package com.utils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates unique, time-ordered 64-bit IDs without coordination between nodes.
+ * <p>
+ * Layout, from the most significant bit: 1 unused sign bit, 41 bits of milliseconds since
+ * {@link #EPOCH} (about 69 years), 10 bits of node ID and 12 bits of per-millisecond sequence.
+ * IDs from one node are strictly increasing; IDs from different nodes sort by creation time
+ * to the millisecond.
+ * <p>
+ * The last timestamp and sequence live in a single {@link AtomicLong} that is advanced with
+ * compare-and-set, so callers never block each other. When the 4096 IDs of a millisecond are
+ * used up, or the clock moves backwards, the generator borrows the following milliseconds
+ * rather than repeating an ID. It never runs more than {@code maxDrift} ahead of the clock:
+ * callers then wait for the clock to catch up, and fail if it does not within {@code maxDrift}.
+ */
+public final class TimeOrderedIdGenerator {
+
+    public static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int NODE_BITS = 10;
+    private static final int TIMESTAMP_SHIFT = SEQUENCE_BITS + NODE_BITS;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long MAX_TIMESTAMP = (1L << 41) - 1;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final long WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final long nodeBits;
+    private final long maxDriftMillis;
+    private final LongSupplier clock;
+    private final long epochMillis = EPOCH.toEpochMilli();
+
+    /** Last issued timestamp in the high bits and sequence in the low {@link #SEQUENCE_BITS}. */
+    private final AtomicLong state = new AtomicLong();
+
+    public TimeOrderedIdGenerator(int nodeId, Duration maxDrift) {
+        this(nodeId, maxDrift, System::currentTimeMillis);
+    }
+
+    /**
+     * @param nodeId   This node's ID, unique among all nodes writing to the same store.
+     * @param maxDrift How far the generator may run ahead of the clock.
+     * @param clock    Supplies the current time in epoch milliseconds.
+     */
+    public TimeOrderedIdGenerator(int nodeId, Duration maxDrift, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.maxDriftMillis = maxDrift.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the next ID.
+     *
+     * @return A positive ID, greater than every ID this instance returned before.
+     * @throws IllegalStateException if the clock stays behind the generator for longer than the allowed drift
+     */
+    public long nextId() {
+        long waitDeadline = 0;
+        while (true) {
+            long now = currentTimestamp();
+            long previous = state.get();
+            long next = now > (previous >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : previous + 1;
+            long timestamp = next >>> SEQUENCE_BITS;
+
+            if (timestamp - now > maxDriftMillis) {
+                if (waitDeadline == 0) {
+                    waitDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDriftMillis);
+                } else if (System.nanoTime() - waitDeadline > 0) {
+                    throw new IllegalStateException("Clock is " + (timestamp - now)
+                            + " ms behind the last issued ID, refusing to generate IDs");
+                }
+                LockSupport.parkNanos(WAIT_NANOS);
+                continue;
+            }
+            if (timestamp > MAX_TIMESTAMP) {
+                throw new IllegalStateException("ID timestamp space is exhausted");
+            }
+            if (state.compareAndSet(previous, next)) {
+                return (timestamp << TIMESTAMP_SHIFT) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * Makes sure every later ID is greater than the given one, e.g. the highest ID already
+     * stored, so a restart after the clock moved backwards cannot reissue IDs.
+     *
+     * @param id An ID issued earlier by any node.
+     * @throws IllegalStateException if the ID lies further in the future than the allowed drift
+     */
+    public void advancePast(long id) {
+        long timestamp = timestampOf(id);
+        long aheadMillis = timestamp - currentTimestamp();
+        if (aheadMillis > maxDriftMillis) {
+            throw new IllegalStateException("Existing ID " + id + " is " + aheadMillis
+                    + " ms ahead of the clock; the clock has moved backwards");
+        }
+        long floor = (timestamp << SEQUENCE_BITS) | SEQUENCE_MASK;
+        state.accumulateAndGet(floor, Math::max);
+    }
+
+    /**
+     * @return The creation time encoded in an ID, in milliseconds since {@link #EPOCH}.
+     */
+    public static long timestampOf(long id) {
+        return id >>> TIMESTAMP_SHIFT;
+    }
+
+    public static int nodeIdOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+
+    public static Instant instantOf(long id) {
+        return EPOCH.plusMillis(timestampOf(id));
+    }
+
+    private long currentTimestamp() {
+        return clock.getAsLong() - epochMillis;
+    }
+}
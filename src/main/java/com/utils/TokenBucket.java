@@ -0,0 +1,61 @@
+package com.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket holding up to {@code burst} tokens and refilled at {@code tokensPerSecond},
+ * kept as a single timestamp (the generic cell rate algorithm): the time at which the bucket
+ * will be full again. Taking a token moves that time forward by one token's refill interval,
+ * and a request is refused while the bucket would need to be fuller than {@code burst} allows.
+ * <p>
+ * Acquiring is a compare-and-set on that timestamp, so concurrent requests of one client
+ * never block each other, and a bucket that has been idle for {@link #getRefillNanos()} is
+ * indistinguishable from a new one.
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong fullAt;
+
+    /**
+     * @param tokensPerSecond Refill rate, greater than 0.
+     * @param burst           Capacity, at least 1.
+     * @param nowNanos        Current {@link System#nanoTime()}; the bucket starts full.
+     */
+    public TokenBucket(double tokensPerSecond, int burst, long nowNanos) {
+        if (!(tokensPerSecond > 0) || burst < 1) {
+            throw new IllegalArgumentException("Token bucket needs a positive rate and a burst of at least 1");
+        }
+        this.intervalNanos = Math.max(1L, (long) (1_000_000_000L / tokensPerSecond));
+        this.toleranceNanos = intervalNanos * (burst - 1);
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token if one is available.
+     *
+     * @param nowNanos Current {@link System#nanoTime()}.
+     * @return 0 if a token was taken, otherwise the nanoseconds until one will be available.
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long earliest = current - toleranceNanos;
+            if (nowNanos - earliest < 0) {
+                return earliest - nowNanos;
+            }
+            long next = (nowNanos - current > 0 ? nowNanos : current) + intervalNanos;
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return Time an empty bucket takes to fill up completely.
+     */
+    public long getRefillNanos() {
+        return intervalNanos + toleranceNanos;
+    }
+}
@@ -0,0 +1,29 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update)
+
+CREATE TABLE payments (
+    payment_type      VARCHAR(31)    NOT NULL,
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    amount            NUMERIC(38, 2) NOT NULL,
+    cancellation_fee  NUMERIC(38, 2),
+    creation_time     TIMESTAMP(6),
+    creditor_iban     VARCHAR(255)   NOT NULL,
+    currency          VARCHAR(255)   NOT NULL CHECK (currency IN ('EUR', 'USD')),
+    debtor_iban       VARCHAR(255)   NOT NULL,
+    is_cancelled      BOOLEAN        NOT NULL,
+    notification_time TIMESTAMP(6),
+    notified          BOOLEAN        NOT NULL,
+    version           BIGINT,
+    details           VARCHAR(255),
+    creditor_bic      VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE notification_outbox (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    attempts       INTEGER      NOT NULL,
+    created_time   TIMESTAMP(6),
+    payment_id     BIGINT       NOT NULL,
+    processed_time TIMESTAMP(6),
+    status         VARCHAR(255) NOT NULL CHECK (status IN ('PENDING', 'PROCESSING', 'SENT', 'FAILED')),
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,15 @@
+-- Composite indexes for the payment listing, search and reporting queries.
+-- Each one starts with the equality columns and ends with the range or ordering column,
+-- so the queries become index range scans.
+
+-- Active payments by amount or amount range, in ID order within one amount
+CREATE INDEX idx_payments_cancelled_amount ON payments (is_cancelled, amount, id);
+
+-- Active or cancelled payments created within a time window
+CREATE INDEX idx_payments_cancelled_created ON payments (is_cancelled, creation_time, id);
+
+-- Currency and payment type reports over a time window
+CREATE INDEX idx_payments_currency_type_created ON payments (currency, payment_type, creation_time);
+
+-- Outbox polling: pending entries in ID order
+CREATE INDEX idx_notification_outbox_status ON notification_outbox (status, id);
@@ -0,0 +1,10 @@
+-- IDENTITY columns force Hibernate to insert rows one at a time to learn each ID.
+-- IDs now come from sequences that hand out blocks of 50 (allocationSize on the entities),
+-- so inserts can be sent in JDBC batches. With Hibernate's pooled optimizer the first
+-- block starts at (sequence start - 49), which is right after the highest existing ID.
+
+ALTER TABLE payments ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE payments_seq START WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM payments) INCREMENT BY 50;
+
+ALTER TABLE notification_outbox ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE notification_outbox_seq START WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM notification_outbox) INCREMENT BY 50;
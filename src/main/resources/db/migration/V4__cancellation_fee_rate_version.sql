@@ -0,0 +1,2 @@
+-- Version of the exchange rates a cancellation fee was calculated with
+ALTER TABLE payments ADD COLUMN cancellation_fee_rate_version BIGINT;
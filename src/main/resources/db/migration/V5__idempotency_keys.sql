@@ -0,0 +1,15 @@
+-- Responses of POST /api/payments requests sent with an Idempotency-Key header.
+-- The key is inserted in the transaction that creates the payment, so a retry either
+-- finds both or neither. Rows are purged once expires_time has passed.
+
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(255)  NOT NULL,
+    request_hash    VARCHAR(64)   NOT NULL,
+    payment_id      BIGINT        NOT NULL,
+    response_body   VARCHAR(4000) NOT NULL,
+    created_time    TIMESTAMP(6)  NOT NULL,
+    expires_time    TIMESTAMP(6)  NOT NULL,
+    PRIMARY KEY (idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_keys_expires_time ON idempotency_keys (expires_time);
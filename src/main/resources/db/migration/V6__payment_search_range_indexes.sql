@@ -0,0 +1,8 @@
+-- Searches leave the cancelled filter out unless the client sets it, and the V2 indexes
+-- lead with is_cancelled, so a plain amount range or creation window could not use them.
+-- These indexes start with the range column; the V2 ones still serve the listings that
+-- always filter on is_cancelled.
+
+CREATE INDEX idx_payments_amount ON payments (amount, id);
+
+CREATE INDEX idx_payments_created ON payments (creation_time, id);
@@ -0,0 +1,12 @@
+-- Outbox claims are leases: claim_owner identifies the instance sending the entry and
+-- claimed_time when it took it, so only claims older than the lease timeout are handed back.
+-- next_attempt_time delays retries of a failed notification with exponential backoff.
+ALTER TABLE notification_outbox ADD COLUMN claim_owner VARCHAR(255);
+ALTER TABLE notification_outbox ADD COLUMN claimed_time TIMESTAMP(6);
+ALTER TABLE notification_outbox ADD COLUMN next_attempt_time TIMESTAMP(6);
+
+UPDATE notification_outbox SET next_attempt_time = COALESCE(created_time, CURRENT_TIMESTAMP);
+-- Claims from before this migration have no owner or time; treat them as expired
+UPDATE notification_outbox SET claimed_time = TIMESTAMP '1970-01-01 00:00:00' WHERE status = 'PROCESSING';
+
+ALTER TABLE notification_outbox ALTER COLUMN next_attempt_time SET NOT NULL;
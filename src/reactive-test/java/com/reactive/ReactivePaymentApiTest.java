@@ -0,0 +1,156 @@
+package com.reactive;
+
+import com.dto.PaymentBatchResponseDTO;
+import com.dto.PaymentFeeResponseDTO;
+import com.dto.PaymentIdPageDTO;
+import com.dto.PaymentRequestDTO;
+import com.dto.PaymentResponseDTO;
+import com.model.Currency;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = ReactivePaymentApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.r2dbc.url=r2dbc:h2:mem:///reactivetestdb?options=DB_CLOSE_DELAY=-1",
+                "spring.flyway.url=jdbc:h2:mem:reactivetestdb;DB_CLOSE_DELAY=-1"
+        })
+@ActiveProfiles(ReactivePaymentApplication.PROFILE)
+class ReactivePaymentApiTest {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("37.50");
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void createGetAndCancelPayment() {
+        PaymentResponseDTO created = createPayment(new BigDecimal("10.00"));
+        assertNotNull(created.getId());
+        assertEquals(Currency.EUR, created.getCurrency());
+
+        PaymentFeeResponseDTO fee = webTestClient.get().uri("/api/payments/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PaymentFeeResponseDTO.class)
+                .returnResult().getResponseBody();
+        assertNotNull(fee);
+        assertEquals(created.getId(), fee.getId());
+
+        PaymentResponseDTO cancelled = webTestClient.post().uri("/api/payments/{id}/cancel", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PaymentResponseDTO.class)
+                .returnResult().getResponseBody();
+        assertNotNull(cancelled);
+        assertTrue(cancelled.isCancelled());
+        assertNotNull(cancelled.getCancellationFee());
+    }
+
+    @Test
+    void createPayment_InvalidRequest_ReturnsBadRequest() {
+        PaymentRequestDTO request = request(new BigDecimal("10.00"));
+        request.setDebtorIban(null);
+
+        webTestClient.post().uri("/api/payments")
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void createPayments_ItemWithoutCurrency_IsReportedAndOthersCreated() {
+        PaymentRequestDTO noCurrency = request(new BigDecimal("10.00"));
+        noCurrency.setCurrency(null);
+        noCurrency.setCreditorBic(null);
+
+        PaymentBatchResponseDTO response = webTestClient.post().uri("/api/payments/batch")
+                .bodyValue(List.of(noCurrency, request(new BigDecimal("10.00"))))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.MULTI_STATUS)
+                .expectBody(PaymentBatchResponseDTO.class)
+                .returnResult().getResponseBody();
+        assertNotNull(response);
+        assertEquals(1, response.getCreated());
+        assertEquals("Currency must be EUR or USD", response.getResults().get(0).getError());
+    }
+
+    @Test
+    void getPaymentById_UnknownId_ReturnsBadRequest() {
+        webTestClient.get().uri("/api/payments/{id}", Long.MAX_VALUE)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void listAndPageNonCancelledPaymentsByAmount() {
+        Long first = createPayment(AMOUNT).getId();
+        Long second = createPayment(AMOUNT).getId();
+        Long third = createPayment(AMOUNT).getId();
+
+        List<Long> ids = webTestClient.get().uri("/api/payments?amount={amount}", AMOUNT)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Long.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+        assertThat(ids).containsExactly(first, second, third);
+
+        PaymentIdPageDTO page = webTestClient.get().uri("/api/payments/page?amount={amount}&afterId={afterId}&limit=1",
+                        AMOUNT, first)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PaymentIdPageDTO.class)
+                .returnResult().getResponseBody();
+        assertNotNull(page);
+        assertThat(page.getIds()).containsExactly(second);
+        assertEquals(second, page.getNextAfterId());
+    }
+
+    @Test
+    void streamNonCancelledPayments_ReturnsJsonArray() {
+        Long id = createPayment(new BigDecimal("5.00")).getId();
+
+        webTestClient.get().uri("/api/payments/stream")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Long.class)
+                .value(ids -> assertThat(ids).contains(id));
+    }
+
+    private PaymentResponseDTO createPayment(BigDecimal amount) {
+        PaymentResponseDTO response = webTestClient.post().uri("/api/payments")
+                .bodyValue(request(amount))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(PaymentResponseDTO.class)
+                .returnResult().getResponseBody();
+        assertNotNull(response);
+        return response;
+    }
+
+    private static PaymentRequestDTO request(BigDecimal amount) {
+        PaymentRequestDTO request = new PaymentRequestDTO();
+        request.setAmount(amount);
+        request.setCurrency(Currency.EUR);
+        request.setDebtorIban("LT123");
+        request.setCreditorIban("LT456");
+        request.setCreditorBic("ABCDEF");
+        return request;
+    }
+}
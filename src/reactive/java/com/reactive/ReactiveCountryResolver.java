@@ -0,0 +1,82 @@
+package com.reactive;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.utils.IpAddressUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Logs the client's country like {@link com.service.CountryResolverServiceImpl}, looking it up
+ * with WebClient in the background. Resolved countries are cached per network prefix. A lookup
+ * that would exceed the geo bulkhead's concurrent calls is dropped rather than queued.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Slf4j
+public class ReactiveCountryResolver {
+
+    private static final String GEO_BULKHEAD = "geo";
+    private static final ParameterizedTypeReference<Map<String, String>> GEO_RESPONSE = new ParameterizedTypeReference<>() {};
+
+    private static final String LOG_CLIENT_COUNTRY = "Client from country: {}, IP: {}";
+    private static final String LOG_FAILED_COUNTRY_RESOLUTION = "Failed to resolve country for IP: {}";
+    private static final String LOG_LOOKUP_DROPPED = "Too many geo lookups in flight, dropped lookup for IP: {}";
+
+    private final WebClient webClient;
+    private final Cache<String, String> countries;
+    private final Semaphore lookups;
+
+    @Value("${ip-api.api.url}")
+    String geoApiBaseUrl;
+
+    public ReactiveCountryResolver(@Qualifier("geoWebClient") WebClient webClient,
+                                   @Value("${ip-api.cache.maximum-size}") long maximumSize,
+                                   @Value("${ip-api.cache.ttl}") Duration ttl,
+                                   @Value("${outbound.http.geo.bulkheads." + GEO_BULKHEAD + ".max-concurrent-calls}") int maxConcurrentLookups) {
+        this.webClient = webClient;
+        this.countries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.lookups = new Semaphore(maxConcurrentLookups);
+    }
+
+    public void logClientCountry(String ipAddress) {
+        if (ipAddress == null) {
+            log.warn(LOG_FAILED_COUNTRY_RESOLUTION, ipAddress);
+            return;
+        }
+
+        String key = IpAddressUtils.toNetworkPrefix(ipAddress);
+        String cached = countries.getIfPresent(key);
+        if (cached != null) {
+            log.info(LOG_CLIENT_COUNTRY, cached, ipAddress);
+            return;
+        }
+        if (!lookups.tryAcquire()) {
+            log.debug(LOG_LOOKUP_DROPPED, ipAddress);
+            return;
+        }
+
+        webClient.get()
+                .uri(geoApiBaseUrl + ipAddress)
+                .retrieve()
+                .bodyToMono(GEO_RESPONSE)
+                .map(response -> response.get("country") != null ? response.get("country") : "Unknown")
+                .doFinally(signal -> lookups.release())
+                .subscribe(country -> {
+                    countries.put(key, country);
+                    log.info(LOG_CLIENT_COUNTRY, country, ipAddress);
+                }, e -> log.warn(LOG_FAILED_COUNTRY_RESOLUTION, ipAddress));
+    }
+}
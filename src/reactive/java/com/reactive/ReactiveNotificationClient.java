@@ -0,0 +1,91 @@
+package com.reactive;
+
+import com.model.Payment;
+import com.model.Type1Payment;
+import com.model.Type2Payment;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Notifies the external services about TYPE1 and TYPE2 payments once they are stored, without
+ * holding up the response. Unlike the servlet application there is no outbox: a call is
+ * retried with backoff up to {@code notification.outbox.max-attempts} times and its outcome
+ * written to the payment, but a notification in flight when the process stops is lost.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Slf4j
+public class ReactiveNotificationClient {
+
+    private static final Duration FIRST_RETRY_DELAY = Duration.ofSeconds(1);
+
+    private static final String SENDING_NOTIFICATION_MSG = "Sending notification for payment ID: {} to URL: {}";
+    private static final String NOTIFICATION_FAILED_MSG = "Failed to send notification for payment ID: {}";
+    private static final String NOTIFICATION_RESULT_MSG = "Notification result saved for payment ID: {}, success: {}";
+
+    private final WebClient webClient;
+    private final ReactivePaymentRepository paymentRepository;
+    private final Clock clock;
+    private final int maxAttempts;
+
+    @Value("${notification.type1.url}")
+    String type1NotificationUrl;
+
+    @Value("${notification.type2.url}")
+    String type2NotificationUrl;
+
+    public ReactiveNotificationClient(@Qualifier("notificationWebClient") WebClient webClient,
+                                      ReactivePaymentRepository paymentRepository,
+                                      Clock clock,
+                                      @Value("${notification.outbox.max-attempts}") int maxAttempts) {
+        this.webClient = webClient;
+        this.paymentRepository = paymentRepository;
+        this.clock = clock;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Starts the notification in the background if the payment type has one.
+     */
+    public void notifyPaymentCreated(Payment payment) {
+        String url = notificationUrl(payment);
+        if (url == null) {
+            return;
+        }
+        log.info(SENDING_NOTIFICATION_MSG, payment.getId(), url);
+        webClient.get()
+                .uri(url)
+                .retrieve()
+                .toBodilessEntity()
+                .retryWhen(Retry.backoff(maxAttempts - 1, FIRST_RETRY_DELAY))
+                .map(response -> true)
+                .onErrorResume(e -> {
+                    log.error(NOTIFICATION_FAILED_MSG, payment.getId(), e);
+                    return Mono.just(false);
+                })
+                .flatMap(success -> paymentRepository
+                        .recordNotification(payment.getId(), success, LocalDateTime.now(clock))
+                        .doOnSuccess(ignored -> log.info(NOTIFICATION_RESULT_MSG, payment.getId(), success)))
+                .subscribe();
+    }
+
+    private String notificationUrl(Payment payment) {
+        if (payment instanceof Type1Payment) {
+            return type1NotificationUrl + payment.getId();
+        }
+        if (payment instanceof Type2Payment) {
+            return type2NotificationUrl + payment.getId();
+        }
+        return null;
+    }
+}
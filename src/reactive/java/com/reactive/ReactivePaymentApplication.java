@@ -0,0 +1,27 @@
+package com.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+
+/**
+ * Reactive variant of the payment service: the {@code /api/payments} contract of
+ * {@link com.controller.PaymentController} on WebFlux, R2DBC and WebClient, served by a fixed
+ * number of event-loop threads. It is only built with the {@code reactive} Maven profile and
+ * reads {@code application-reactive.properties} on top of the shared configuration.
+ * <p>
+ * The servlet application scans this package as well, so everything in it is conditional on
+ * a reactive web application.
+ */
+@SpringBootApplication
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePaymentApplication {
+
+    public static final String PROFILE = "reactive";
+
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(ReactivePaymentApplication.class);
+        application.setAdditionalProfiles(PROFILE);
+        application.run(args);
+    }
+}
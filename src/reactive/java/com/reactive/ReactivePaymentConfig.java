@@ -0,0 +1,112 @@
+package com.reactive;
+
+import com.config.OutboundHttpProperties;
+import com.exeption.GlobalExceptionHandler;
+import com.service.ExchangeRateProvider;
+import com.service.ExchangeRateProviderImpl;
+import com.utils.CancellationFeeCalculator;
+import io.netty.channel.ChannelOption;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.http.client.ReactorResourceFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Clock;
+
+/**
+ * Infrastructure of the reactive variant. The fee calculation, exchange rates and error
+ * responses are the servlet application's own classes.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableScheduling
+@EnableConfigurationProperties(OutboundHttpProperties.class)
+public class ReactivePaymentConfig {
+
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+
+    @Bean
+    public CancellationFeeCalculator cancellationFeeCalculator(Clock clock) {
+        return new CancellationFeeCalculator(clock);
+    }
+
+    @Bean
+    public ExchangeRateProvider exchangeRateProvider(@Value("${payments.fx.rates-file}") Resource ratesFile, Clock clock) {
+        return new ExchangeRateProviderImpl(ratesFile, clock);
+    }
+
+    @Bean
+    public GlobalExceptionHandler globalExceptionHandler() {
+        return new GlobalExceptionHandler();
+    }
+
+    /**
+     * Replaces the default resources, which start one event loop per CPU core, so the server
+     * and the WebClients share a fixed number of threads.
+     */
+    @Bean
+    public ReactorResourceFactory reactorResourceFactory(@Value("${payments.reactive.event-loop-threads}") int threads) {
+        ReactorResourceFactory factory = new ReactorResourceFactory();
+        factory.setUseGlobalResources(false);
+        factory.setLoopResourcesSupplier(() -> LoopResources.create("payments-loop", threads, true));
+        return factory;
+    }
+
+    /**
+     * Tomcat is on the classpath for the servlet application and would otherwise be chosen.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(ReactorResourceFactory resources) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        factory.setResourceFactory(resources);
+        return factory;
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    @Bean
+    public TransactionalOperator transactionalOperator(ReactiveTransactionManager transactionManager) {
+        return TransactionalOperator.create(transactionManager);
+    }
+
+    @Bean
+    public WebClient notificationWebClient(WebClient.Builder builder, ReactorResourceFactory resources,
+                                           OutboundHttpProperties properties) {
+        return buildWebClient(builder, resources, properties.getNotification());
+    }
+
+    @Bean
+    public WebClient geoWebClient(WebClient.Builder builder, ReactorResourceFactory resources,
+                                  OutboundHttpProperties properties) {
+        return buildWebClient(builder, resources, properties.getGeo());
+    }
+
+    /**
+     * Applies the connect and read timeouts of the servlet application's RestTemplates.
+     */
+    private WebClient buildWebClient(WebClient.Builder builder, ReactorResourceFactory resources,
+                                     OutboundHttpProperties.Destination destination) {
+        ReactorClientHttpConnector connector = new ReactorClientHttpConnector(resources, client -> client
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) destination.getConnectTimeout().toMillis())
+                .responseTimeout(destination.getReadTimeout()));
+        return builder.clone().clientConnector(connector).build();
+    }
+}
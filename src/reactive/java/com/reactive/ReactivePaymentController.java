@@ -0,0 +1,103 @@
+package com.reactive;
+
+import com.dto.PaymentBatchResponseDTO;
+import com.dto.PaymentFeeResponseDTO;
+import com.dto.PaymentIdPageDTO;
+import com.dto.PaymentRequestDTO;
+import com.dto.PaymentResponseDTO;
+import com.event.AuditEvent;
+import com.utils.ClientIpResolver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.util.List;
+
+/**
+ * The endpoints of {@link com.controller.PaymentController} apart from {@code /search} and the
+ * delta-varint ID set. ID lists are written as a JSON array (or as NDJSON when requested)
+ * while the rows are read, at the pace the client consumes them.
+ */
+@RestController
+@RequestMapping("/api/payments")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@Slf4j
+public class ReactivePaymentController {
+
+    private final ReactivePaymentService paymentService;
+    private final ReactiveCountryResolver countryResolver;
+
+    private static final String CREATE_PAYMENT_LOG = "Creating payment: {}";
+    private static final String CREATE_PAYMENT_BATCH_LOG = "Creating batch of {} payments";
+    private static final String CANCEL_PAYMENT_LOG = "Cancelling payment ID: {}";
+    private static final String FETCH_PAYMENT_LOG = "Fetching payment details for ID: {}";
+
+    @PostMapping
+    public Mono<ResponseEntity<PaymentResponseDTO>> createPayment(@RequestBody PaymentRequestDTO request) {
+        log.info(CREATE_PAYMENT_LOG, AuditEvent.paymentRequested(request));
+        return paymentService.createPayment(request)
+                .map(response -> new ResponseEntity<>(response, HttpStatus.CREATED));
+    }
+
+    /**
+     * Responds 201 when every payment was created and 207 when some items failed.
+     */
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<PaymentBatchResponseDTO>> createPayments(@RequestBody List<PaymentRequestDTO> requests) {
+        log.info(CREATE_PAYMENT_BATCH_LOG, requests.size());
+        return paymentService.createPayments(requests)
+                .map(response -> new ResponseEntity<>(response,
+                        response.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS));
+    }
+
+    @PostMapping("/{paymentId}/cancel")
+    public Mono<ResponseEntity<PaymentResponseDTO>> cancelPayment(@PathVariable Long paymentId) {
+        log.info(CANCEL_PAYMENT_LOG, paymentId);
+        return paymentService.cancelPayment(paymentId).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Long> getNonCancelledPayments(@RequestParam(required = false) BigDecimal amount,
+                                              ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        String clientIp = ClientIpResolver.getClientIpAddress(request.getHeaders()::getFirst,
+                remoteAddress != null ? remoteAddress.getAddress().getHostAddress() : null);
+        countryResolver.logClientCountry(clientIp);
+
+        return paymentService.getNonCancelledPaymentIds(amount);
+    }
+
+    @GetMapping("/page")
+    public Mono<ResponseEntity<PaymentIdPageDTO>> getNonCancelledPaymentPage(@RequestParam(required = false) BigDecimal amount,
+                                                                             @RequestParam(defaultValue = "0") long afterId,
+                                                                             @RequestParam(defaultValue = "100") int limit) {
+        return paymentService.getNonCancelledPaymentIdPage(amount, afterId, limit).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/stream", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Long> streamNonCancelledPayments() {
+        return paymentService.getNonCancelledPaymentIds(null);
+    }
+
+    @GetMapping("/{paymentId}")
+    public Mono<ResponseEntity<PaymentFeeResponseDTO>> getPaymentById(@PathVariable Long paymentId) {
+        log.info(FETCH_PAYMENT_LOG, paymentId);
+        return paymentService.getPaymentById(paymentId).map(ResponseEntity::ok);
+    }
+}
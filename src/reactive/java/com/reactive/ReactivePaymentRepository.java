@@ -0,0 +1,251 @@
+package com.reactive;
+
+import com.dto.PaymentFeeBasisDTO;
+import com.model.Currency;
+import com.model.Payment;
+import com.model.PaymentType;
+import com.model.Type1Payment;
+import com.model.Type2Payment;
+import com.model.Type3Payment;
+import io.r2dbc.spi.Parameters;
+import io.r2dbc.spi.R2dbcType;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Payment queries of {@link com.repository.PaymentRepository} in SQL over R2DBC. Rows map to
+ * the same entity classes, which keeps the mapping and fee code shared.
+ * <p>
+ * IDs are taken from {@code payments_seq} in blocks of 50 like Hibernate's pooled optimizer
+ * does, so both applications can write to the same database.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePaymentRepository {
+
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private static final String NEXT_ID_BLOCK_SQL = "SELECT NEXT VALUE FOR payments_seq";
+    private static final String INSERT_SQL = "INSERT INTO payments (payment_type, id, amount, creation_time, "
+            + "creditor_iban, currency, debtor_iban, is_cancelled, notified, version, details, creditor_bic) "
+            + "VALUES (:type, :id, :amount, :creationTime, :creditorIban, :currency, :debtorIban, FALSE, FALSE, 0, "
+            + ":details, :creditorBic)";
+    private static final String FIND_BY_ID_SQL = "SELECT * FROM payments WHERE id = :id";
+    private static final String CANCEL_SQL = "UPDATE payments SET is_cancelled = TRUE, cancellation_fee = :fee, "
+            + "cancellation_fee_rate_version = :rateVersion, version = version + 1 WHERE id = :id AND version = :version";
+    private static final String RECORD_NOTIFICATION_SQL =
+            "UPDATE payments SET notified = :notified, notification_time = :notificationTime WHERE id = :id";
+    private static final String FEE_BASIS_SQL =
+            "SELECT id, payment_type, currency, creation_time FROM payments WHERE id = :id";
+    private static final String NON_CANCELLED_IDS_SQL =
+            "SELECT id FROM payments WHERE is_cancelled = FALSE ORDER BY id";
+    private static final String NON_CANCELLED_IDS_BY_AMOUNT_SQL =
+            "SELECT id FROM payments WHERE is_cancelled = FALSE AND amount = :amount ORDER BY id";
+    private static final String NON_CANCELLED_IDS_AFTER_SQL =
+            "SELECT id FROM payments WHERE is_cancelled = FALSE AND id > :afterId ORDER BY id LIMIT :limit";
+    private static final String NON_CANCELLED_IDS_BY_AMOUNT_AFTER_SQL = "SELECT id FROM payments "
+            + "WHERE is_cancelled = FALSE AND amount = :amount AND id > :afterId ORDER BY id LIMIT :limit";
+
+    private final DatabaseClient databaseClient;
+    private final AtomicReference<IdBlock> idBlock = new AtomicReference<>(IdBlock.EXHAUSTED);
+
+    public ReactivePaymentRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Assigns an ID and inserts a new, active payment.
+     *
+     * @return The payment with its ID and initial version
+     */
+    public Mono<Payment> insert(Payment payment) {
+        return nextId().flatMap(id -> databaseClient.sql(INSERT_SQL)
+                .bind("type", payment.getPaymentType().name())
+                .bind("id", id)
+                .bind("amount", payment.getAmount())
+                .bind("creationTime", payment.getCreationTime())
+                .bind("creditorIban", payment.getCreditorIban())
+                .bind("currency", payment.getCurrency().name())
+                .bind("debtorIban", payment.getDebtorIban())
+                .bind("details", Parameters.in(R2dbcType.VARCHAR, detailsOf(payment)))
+                .bind("creditorBic", Parameters.in(R2dbcType.VARCHAR, creditorBicOf(payment)))
+                .then()
+                .thenReturn(id))
+                .map(id -> {
+                    payment.setId(id);
+                    payment.setVersion(0L);
+                    return payment;
+                });
+    }
+
+    public Mono<Payment> findById(Long id) {
+        return databaseClient.sql(FIND_BY_ID_SQL)
+                .bind("id", id)
+                .map(ReactivePaymentRepository::toPayment)
+                .one();
+    }
+
+    /**
+     * Stores the cancellation unless the payment was changed since it was read.
+     *
+     * @return Whether the payment still had the version it was read with
+     */
+    public Mono<Boolean> updateCancellation(Payment payment) {
+        return databaseClient.sql(CANCEL_SQL)
+                .bind("fee", payment.getCancellationFee())
+                .bind("rateVersion", payment.getCancellationFeeRateVersion())
+                .bind("id", payment.getId())
+                .bind("version", payment.getVersion())
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> rows == 1);
+    }
+
+    public Mono<Void> recordNotification(Long id, boolean notified, LocalDateTime notificationTime) {
+        return databaseClient.sql(RECORD_NOTIFICATION_SQL)
+                .bind("notified", notified)
+                .bind("notificationTime", notificationTime)
+                .bind("id", id)
+                .then();
+    }
+
+    public Mono<PaymentFeeBasisDTO> findFeeBasisById(Long id) {
+        return databaseClient.sql(FEE_BASIS_SQL)
+                .bind("id", id)
+                .map(row -> new PaymentFeeBasisDTO(row.get("id", Long.class),
+                        PaymentType.valueOf(row.get("payment_type", String.class)),
+                        Currency.valueOf(row.get("currency", String.class)),
+                        row.get("creation_time", LocalDateTime.class)))
+                .one();
+    }
+
+    /**
+     * Emits IDs as rows arrive, at the pace the subscriber requests them.
+     */
+    public Flux<Long> findNonCancelledPaymentIds() {
+        return databaseClient.sql(NON_CANCELLED_IDS_SQL)
+                .map(row -> row.get(0, Long.class))
+                .all();
+    }
+
+    public Flux<Long> findNonCancelledPaymentIdsByAmount(BigDecimal amount) {
+        return databaseClient.sql(NON_CANCELLED_IDS_BY_AMOUNT_SQL)
+                .bind("amount", amount)
+                .map(row -> row.get(0, Long.class))
+                .all();
+    }
+
+    public Flux<Long> findNonCancelledPaymentIdsAfter(long afterId, int limit) {
+        return databaseClient.sql(NON_CANCELLED_IDS_AFTER_SQL)
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(row -> row.get(0, Long.class))
+                .all();
+    }
+
+    public Flux<Long> findNonCancelledPaymentIdsByAmountAfter(BigDecimal amount, long afterId, int limit) {
+        return databaseClient.sql(NON_CANCELLED_IDS_BY_AMOUNT_AFTER_SQL)
+                .bind("amount", amount)
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(row -> row.get(0, Long.class))
+                .all();
+    }
+
+    /**
+     * Takes the next ID of the current block, or fetches a new block once it is used up.
+     * Concurrent fetches each get a block of their own; the IDs left in a block that is
+     * replaced meanwhile are skipped, never handed out twice.
+     */
+    private Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            long id = idBlock.get().next();
+            if (id != IdBlock.NO_ID) {
+                return Mono.just(id);
+            }
+            return databaseClient.sql(NEXT_ID_BLOCK_SQL)
+                    .map(row -> row.get(0, Long.class))
+                    .one()
+                    .map(hi -> {
+                        IdBlock block = new IdBlock(hi - ID_BLOCK_SIZE + 1, hi);
+                        long first = block.next();
+                        idBlock.set(block);
+                        return first;
+                    });
+        });
+    }
+
+    private static Payment toPayment(Readable row) {
+        Payment payment = switch (PaymentType.valueOf(row.get("payment_type", String.class))) {
+            case TYPE1 -> {
+                Type1Payment type1Payment = new Type1Payment();
+                type1Payment.setDetails(row.get("details", String.class));
+                yield type1Payment;
+            }
+            case TYPE2 -> {
+                Type2Payment type2Payment = new Type2Payment();
+                type2Payment.setDetails(row.get("details", String.class));
+                yield type2Payment;
+            }
+            case TYPE3 -> {
+                Type3Payment type3Payment = new Type3Payment();
+                type3Payment.setCreditorBic(row.get("creditor_bic", String.class));
+                yield type3Payment;
+            }
+        };
+        payment.setId(row.get("id", Long.class));
+        payment.setAmount(row.get("amount", BigDecimal.class));
+        payment.setCurrency(Currency.valueOf(row.get("currency", String.class)));
+        payment.setDebtorIban(row.get("debtor_iban", String.class));
+        payment.setCreditorIban(row.get("creditor_iban", String.class));
+        payment.setCreationTime(row.get("creation_time", LocalDateTime.class));
+        payment.setCancellationFee(row.get("cancellation_fee", BigDecimal.class));
+        payment.setCancellationFeeRateVersion(row.get("cancellation_fee_rate_version", Long.class));
+        payment.setCancelled(Boolean.TRUE.equals(row.get("is_cancelled", Boolean.class)));
+        payment.setNotified(Boolean.TRUE.equals(row.get("notified", Boolean.class)));
+        payment.setNotificationTime(row.get("notification_time", LocalDateTime.class));
+        payment.setVersion(row.get("version", Long.class));
+        return payment;
+    }
+
+    private static String detailsOf(Payment payment) {
+        if (payment instanceof Type1Payment type1Payment) {
+            return type1Payment.getDetails();
+        }
+        if (payment instanceof Type2Payment type2Payment) {
+            return type2Payment.getDetails();
+        }
+        return null;
+    }
+
+    private static String creditorBicOf(Payment payment) {
+        return payment instanceof Type3Payment type3Payment ? type3Payment.getCreditorBic() : null;
+    }
+
+    private static final class IdBlock {
+        private static final long NO_ID = 0;
+        private static final IdBlock EXHAUSTED = new IdBlock(1, 0);
+
+        private final AtomicLong next;
+        private final long hi;
+
+        private IdBlock(long lo, long hi) {
+            this.next = new AtomicLong(lo);
+            this.hi = hi;
+        }
+
+        private long next() {
+            long id = next.getAndIncrement();
+            return id <= hi ? id : NO_ID;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.reactive;
+
+import com.dto.PaymentBatchResponseDTO;
+import com.dto.PaymentFeeResponseDTO;
+import com.dto.PaymentIdPageDTO;
+import com.dto.PaymentRequestDTO;
+import com.dto.PaymentResponseDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link com.service.PaymentService}. Errors are signalled with the
+ * same exception types, so they map to the same responses.
+ */
+public interface ReactivePaymentService {
+
+    Mono<PaymentResponseDTO> createPayment(PaymentRequestDTO request);
+
+    Mono<PaymentBatchResponseDTO> createPayments(List<PaymentRequestDTO> requests);
+
+    Mono<PaymentResponseDTO> cancelPayment(Long paymentId);
+
+    /**
+     * @param amount Only IDs of payments with this amount, or all when null
+     */
+    Flux<Long> getNonCancelledPaymentIds(BigDecimal amount);
+
+    Mono<PaymentIdPageDTO> getNonCancelledPaymentIdPage(BigDecimal amount, long afterId, int limit);
+
+    Mono<PaymentFeeResponseDTO> getPaymentById(Long paymentId);
+}
@@ -0,0 +1,222 @@
+package com.reactive;
+
+import com.dto.PaymentBatchItemResultDTO;
+import com.dto.PaymentBatchResponseDTO;
+import com.dto.PaymentFeeResponseDTO;
+import com.dto.PaymentIdPageDTO;
+import com.dto.PaymentRequestDTO;
+import com.dto.PaymentResponseDTO;
+import com.model.Payment;
+import com.service.ExchangeRateProvider;
+import com.utils.CancellationFeeCalculator;
+import com.utils.ExchangeRateTable;
+import com.utils.PaymentMapper;
+import com.utils.PaymentUtils;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Validation, type selection, mapping and fees come from {@link PaymentUtils},
+ * {@link PaymentMapper} and {@link CancellationFeeCalculator}, as in
+ * {@link com.service.PaymentServiceImpl}. Amount queries go to the database; the in-memory
+ * amount index and the fee quote cache of the servlet application are not used.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Slf4j
+public class ReactivePaymentServiceImpl implements ReactivePaymentService {
+
+    private final ReactivePaymentRepository paymentRepository;
+    private final ReactiveNotificationClient notificationClient;
+    private final TransactionalOperator transactionalOperator;
+    private final Validator validator;
+    private final CancellationFeeCalculator cancellationFeeCalculator;
+    private final ExchangeRateProvider exchangeRateProvider;
+    private final Clock clock;
+
+    private static final String PAYMENT_CREATED_LOG_MSG = "Payment created with ID: {}, type: {}";
+    private static final String BATCH_CREATED_LOG_MSG = "Created {} of {} payments in batch";
+    private static final String PAYMENT_NOT_FOUND_MSG = "Payment not found with ID: ";
+    private static final String PAYMENT_CANCELLATION_TIME_ERROR_MSG = "Payment cannot be canceled after the day of creation";
+    private static final String CONCURRENT_UPDATE_ERROR_MSG = "Concurrent update detected for payment ID: ";
+    private static final String PAGE_LIMIT_ERROR_MSG = "Limit must be between 1 and ";
+    private static final String PAGE_CURSOR_ERROR_MSG = "afterId must not be negative";
+    private static final String BATCH_SIZE_ERROR_MSG = "Batch must contain between 1 and %d payments";
+    private static final String NULL_BATCH_ITEM_MSG = "Payment request is missing";
+
+    @Value("${payments.page.max-limit}")
+    int maxPageLimit;
+
+    @Value("${payments.batch.max-size}")
+    int maxBatchSize;
+
+    public ReactivePaymentServiceImpl(ReactivePaymentRepository paymentRepository,
+                                      ReactiveNotificationClient notificationClient,
+                                      TransactionalOperator transactionalOperator,
+                                      Validator validator,
+                                      CancellationFeeCalculator cancellationFeeCalculator,
+                                      ExchangeRateProvider exchangeRateProvider,
+                                      Clock clock) {
+        this.paymentRepository = paymentRepository;
+        this.notificationClient = notificationClient;
+        this.transactionalOperator = transactionalOperator;
+        this.validator = validator;
+        this.cancellationFeeCalculator = cancellationFeeCalculator;
+        this.exchangeRateProvider = exchangeRateProvider;
+        this.clock = clock;
+    }
+
+    @Override
+    public Mono<PaymentResponseDTO> createPayment(PaymentRequestDTO request) {
+        return Mono.fromCallable(() -> createNewPaymentEntity(request))
+                .flatMap(paymentRepository::insert)
+                .doOnNext(this::onPaymentCreated)
+                .map(PaymentMapper::toResponseDTO);
+    }
+
+    /**
+     * Invalid items are reported and skipped; the valid ones are inserted in one transaction.
+     */
+    @Override
+    public Mono<PaymentBatchResponseDTO> createPayments(List<PaymentRequestDTO> requests) {
+        if (requests == null || requests.isEmpty() || requests.size() > maxBatchSize) {
+            return Mono.error(new IllegalArgumentException(String.format(BATCH_SIZE_ERROR_MSG, maxBatchSize)));
+        }
+
+        List<PaymentBatchItemResultDTO> results = new ArrayList<>(requests.size());
+        List<Payment> payments = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                if (requests.get(i) == null) {
+                    throw new IllegalArgumentException(NULL_BATCH_ITEM_MSG);
+                }
+                payments.add(createNewPaymentEntity(requests.get(i)));
+                results.add(new PaymentBatchItemResultDTO(i, true, null, null));
+            } catch (IllegalArgumentException e) {
+                results.add(new PaymentBatchItemResultDTO(i, false, null, e.getMessage()));
+            }
+        }
+
+        return Flux.fromIterable(payments)
+                .concatMap(paymentRepository::insert)
+                .collectList()
+                .as(transactionalOperator::transactional)
+                .map(created -> {
+                    int index = 0;
+                    for (PaymentBatchItemResultDTO result : results) {
+                        if (result.isCreated()) {
+                            Payment payment = created.get(index++);
+                            result.setPaymentId(payment.getId());
+                            notificationClient.notifyPaymentCreated(payment);
+                        }
+                    }
+                    log.info(BATCH_CREATED_LOG_MSG, created.size(), requests.size());
+                    return new PaymentBatchResponseDTO(requests.size(), created.size(),
+                            requests.size() - created.size(), results);
+                });
+    }
+
+    @Override
+    public Mono<PaymentResponseDTO> cancelPayment(Long paymentId) {
+        return paymentRepository.findById(paymentId)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException(PAYMENT_NOT_FOUND_MSG + paymentId)))
+                .flatMap(payment -> {
+                    validateCancellationTime(payment);
+
+                    ExchangeRateTable rates = exchangeRateProvider.current();
+                    payment.setCancellationFee(cancellationFeeCalculator.calculateFee(payment, rates));
+                    payment.setCancellationFeeRateVersion(rates.getVersion());
+                    payment.setCancelled(true);
+
+                    return paymentRepository.updateCancellation(payment)
+                            .flatMap(updated -> updated
+                                    ? Mono.just(PaymentMapper.toResponseDTO(payment))
+                                    : Mono.error(new IllegalStateException(CONCURRENT_UPDATE_ERROR_MSG + paymentId)));
+                });
+    }
+
+    @Override
+    public Flux<Long> getNonCancelledPaymentIds(BigDecimal amount) {
+        return amount != null
+                ? paymentRepository.findNonCancelledPaymentIdsByAmount(amount)
+                : paymentRepository.findNonCancelledPaymentIds();
+    }
+
+    @Override
+    public Mono<PaymentIdPageDTO> getNonCancelledPaymentIdPage(BigDecimal amount, long afterId, int limit) {
+        if (limit < 1 || limit > maxPageLimit) {
+            return Mono.error(new IllegalArgumentException(PAGE_LIMIT_ERROR_MSG + maxPageLimit));
+        }
+        if (afterId < 0) {
+            return Mono.error(new IllegalArgumentException(PAGE_CURSOR_ERROR_MSG));
+        }
+
+        Flux<Long> ids = amount != null
+                ? paymentRepository.findNonCancelledPaymentIdsByAmountAfter(amount, afterId, limit)
+                : paymentRepository.findNonCancelledPaymentIdsAfter(afterId, limit);
+        return ids.collectList().map(page -> {
+            Long nextAfterId = page.size() < limit ? null : page.get(page.size() - 1);
+            return new PaymentIdPageDTO(page, nextAfterId);
+        });
+    }
+
+    @Override
+    public Mono<PaymentFeeResponseDTO> getPaymentById(Long paymentId) {
+        return paymentRepository.findFeeBasisById(paymentId)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException(PAYMENT_NOT_FOUND_MSG + paymentId)))
+                .map(basis -> {
+                    ExchangeRateTable rates = exchangeRateProvider.current();
+                    long fee = cancellationFeeCalculator.feeMinorUnits(basis.getPaymentType(), basis.getCurrency(),
+                            basis.getCreationTime(), rates);
+                    return new PaymentFeeResponseDTO(paymentId,
+                            BigDecimal.valueOf(fee, CancellationFeeCalculator.SCALE), rates.getVersion());
+                });
+    }
+
+    /**
+     * @throws IllegalArgumentException if the request or the resulting payment is invalid
+     */
+    private Payment createNewPaymentEntity(PaymentRequestDTO request) {
+        PaymentUtils.validatePaymentRequest(request);
+        Payment payment = PaymentUtils.determineAndCreatePaymentEntity(request);
+
+        payment.setAmount(request.getAmount());
+        payment.setCurrency(request.getCurrency());
+        payment.setDebtorIban(request.getDebtorIban());
+        payment.setCreditorIban(request.getCreditorIban());
+        payment.setCreationTime(LocalDateTime.now(clock));
+        payment.setCancelled(false);
+
+        Set<ConstraintViolation<Payment>> violations = validator.validate(payment);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.iterator().next().getMessage());
+        }
+        return payment;
+    }
+
+    private void onPaymentCreated(Payment payment) {
+        log.info(PAYMENT_CREATED_LOG_MSG, payment.getId(), payment.getClass().getSimpleName());
+        notificationClient.notifyPaymentCreated(payment);
+    }
+
+    private void validateCancellationTime(Payment payment) {
+        LocalDateTime endOfCreationDay = payment.getCreationTime().toLocalDate().atTime(23, 59, 59);
+        if (LocalDateTime.now(clock).isAfter(endOfCreationDay)) {
+            throw new IllegalStateException(PAYMENT_CANCELLATION_TIME_ERROR_MSG);
+        }
+    }
+}
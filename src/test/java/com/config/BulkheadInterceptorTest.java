@@ -0,0 +1,86 @@
+package com.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BulkheadInterceptorTest {
+
+    private static final String TYPE1_URL = "https://notifications.test/type1/";
+    private static final String TYPE2_URL = "https://notifications.test/type2/";
+
+    private BulkheadInterceptor interceptor;
+    private ClientHttpRequestExecution execution;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Map<String, OutboundHttpProperties.Bulkhead> bulkheads = new LinkedHashMap<>();
+        bulkheads.put("type1", bulkhead(TYPE1_URL, 1));
+        bulkheads.put("type2", bulkhead(TYPE2_URL, 1));
+        interceptor = new BulkheadInterceptor(bulkheads, Duration.ofMillis(10));
+
+        execution = mock(ClientHttpRequestExecution.class);
+        when(execution.execute(any(), any())).thenAnswer(invocation -> new MockClientHttpResponse());
+    }
+
+    @Test
+    void shouldRejectCallWhenBulkheadIsFull() throws IOException {
+        interceptor.intercept(request(TYPE1_URL + "1"), new byte[0], execution);
+
+        assertThrows(ResourceAccessException.class,
+                () -> interceptor.intercept(request(TYPE1_URL + "2"), new byte[0], execution));
+    }
+
+    @Test
+    void shouldReleasePermitWhenResponseIsClosed() throws IOException {
+        ClientHttpResponse response = interceptor.intercept(request(TYPE1_URL + "1"), new byte[0], execution);
+        response.close();
+        response.close();
+
+        interceptor.intercept(request(TYPE1_URL + "2"), new byte[0], execution);
+        assertThrows(ResourceAccessException.class,
+                () -> interceptor.intercept(request(TYPE1_URL + "3"), new byte[0], execution));
+    }
+
+    @Test
+    void shouldIsolateEndpointsFromEachOther() throws IOException {
+        interceptor.intercept(request(TYPE1_URL + "1"), new byte[0], execution);
+
+        assertDoesNotThrow(() -> interceptor.intercept(request(TYPE2_URL + "1"), new byte[0], execution));
+    }
+
+    @Test
+    void shouldPassThroughUnmatchedUrls() throws IOException {
+        interceptor.intercept(request(TYPE1_URL + "1"), new byte[0], execution);
+
+        assertDoesNotThrow(() -> interceptor.intercept(request("https://other.test/"), new byte[0], execution));
+    }
+
+    private static OutboundHttpProperties.Bulkhead bulkhead(String urlPrefix, int maxConcurrentCalls) {
+        OutboundHttpProperties.Bulkhead bulkhead = new OutboundHttpProperties.Bulkhead();
+        bulkhead.setUrlPrefix(urlPrefix);
+        bulkhead.setMaxConcurrentCalls(maxConcurrentCalls);
+        return bulkhead;
+    }
+
+    private static MockClientHttpRequest request(String url) {
+        return new MockClientHttpRequest(HttpMethod.GET, URI.create(url));
+    }
+}
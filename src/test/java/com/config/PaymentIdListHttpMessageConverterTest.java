@@ -0,0 +1,76 @@
+package com.config;
+
+import com.utils.PaymentIdCodec;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaymentIdListHttpMessageConverterTest {
+
+    private static final Type LONG_LIST = new ParameterizedTypeReference<List<Long>>() {}.getType();
+    private static final Type STRING_LIST = new ParameterizedTypeReference<List<String>>() {}.getType();
+
+    private final PaymentIdListHttpMessageConverter converter = new PaymentIdListHttpMessageConverter();
+
+    @Test
+    void canWrite_OnlyLongListsInItsOwnMediaType() {
+        assertTrue(converter.canWrite(LONG_LIST, List.class, PaymentIdListHttpMessageConverter.MEDIA_TYPE));
+        assertTrue(converter.canWrite(LONG_LIST, List.class, null));
+
+        assertFalse(converter.canWrite(STRING_LIST, List.class, PaymentIdListHttpMessageConverter.MEDIA_TYPE));
+        assertFalse(converter.canWrite(LONG_LIST, List.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(List.class, List.class, PaymentIdListHttpMessageConverter.MEDIA_TYPE));
+        assertFalse(converter.canWrite(List.class, PaymentIdListHttpMessageConverter.MEDIA_TYPE));
+    }
+
+    @Test
+    void getSupportedMediaTypes_ListsItsMediaTypeForLists() {
+        // content negotiation collects producible types through this method
+        assertEquals(List.of(PaymentIdListHttpMessageConverter.MEDIA_TYPE), converter.getSupportedMediaTypes(List.class));
+        assertEquals(List.of(), converter.getSupportedMediaTypes(String.class));
+    }
+
+    @Test
+    void canRead_OnlyLongListsInItsOwnMediaType() {
+        assertTrue(converter.canRead(LONG_LIST, null, PaymentIdListHttpMessageConverter.MEDIA_TYPE));
+
+        assertFalse(converter.canRead(STRING_LIST, null, PaymentIdListHttpMessageConverter.MEDIA_TYPE));
+        assertFalse(converter.canRead(LONG_LIST, null, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(List.class, PaymentIdListHttpMessageConverter.MEDIA_TYPE));
+    }
+
+    @Test
+    void read_DecodesWhatWriteEncoded() throws Exception {
+        MockHttpInputMessage inputMessage = new MockHttpInputMessage(PaymentIdCodec.encode(new long[]{300L, 3L, 7L}));
+
+        assertEquals(List.of(3L, 7L, 300L), converter.read(LONG_LIST, null, inputMessage));
+    }
+
+    @Test
+    void read_RejectsMalformedBody() {
+        MockHttpInputMessage inputMessage = new MockHttpInputMessage(new byte[]{5, 1});
+
+        assertThrows(HttpMessageNotReadableException.class, () -> converter.read(LONG_LIST, null, inputMessage));
+    }
+
+    @Test
+    void write_EncodesIdsAsDeltaVarint() throws Exception {
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        converter.write(List.of(3L, 7L, 300L), LONG_LIST, PaymentIdListHttpMessageConverter.MEDIA_TYPE, outputMessage);
+
+        assertArrayEquals(new long[]{3L, 7L, 300L}, PaymentIdCodec.decode(outputMessage.getBodyAsBytes()));
+    }
+}
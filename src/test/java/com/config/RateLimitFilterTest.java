@@ -0,0 +1,139 @@
+package com.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitFilterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getLimits().put("list-all", limit("GET", List.of("/api/payments"), 1, 2));
+        properties.getLimits().put("read", limit("GET", List.of("/api/payments/**"), 100, 100));
+        filter = new RateLimitFilter(properties, new ObjectMapper(), meterRegistry, clock::get);
+    }
+
+    @Test
+    void shouldRejectClientOverLimitWithRetryAfter() throws Exception {
+        assertEquals(200, perform("GET", "/api/payments", "10.0.0.1").getStatus());
+        assertEquals(200, perform("GET", "/api/payments", "10.0.0.1").getStatus());
+
+        MockHttpServletResponse rejected = perform("GET", "/api/payments", "10.0.0.1");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(rejected.getContentAsString().contains("\"status\":429"));
+        assertEquals(1.0, meterRegistry.get(RateLimitFilter.RATE_LIMITED_COUNTER).tag("limit", "list-all")
+                .counter().count());
+    }
+
+    @Test
+    void shouldAllowRequestsAgainOnceRefilled() throws Exception {
+        perform("GET", "/api/payments", "10.0.0.1");
+        perform("GET", "/api/payments", "10.0.0.1");
+        assertEquals(429, perform("GET", "/api/payments", "10.0.0.1").getStatus());
+
+        clock.addAndGet(SECOND);
+
+        assertEquals(200, perform("GET", "/api/payments", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void shouldKeepSeparateBucketsPerClientAndLimit() throws Exception {
+        perform("GET", "/api/payments", "10.0.0.1");
+        perform("GET", "/api/payments", "10.0.0.1");
+
+        assertEquals(429, perform("GET", "/api/payments", "10.0.0.1").getStatus());
+        assertEquals(200, perform("GET", "/api/payments", "10.0.0.2").getStatus());
+        assertEquals(200, perform("GET", "/api/payments/7", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void shouldNotResetBucketForSpoofedForwardedAddress() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = request("GET", "/api/payments", "10.0.0.1");
+            request.addHeader("X-Forwarded-For", "198.51.100." + i);
+            request.addHeader("Proxy-Client-IP", "203.0.113." + i);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+
+            assertEquals(i < 2 ? 200 : 429, response.getStatus());
+        }
+    }
+
+    @Test
+    void shouldPassRequestsWithoutMatchingLimit() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(request("POST", "/api/payments", "10.0.0.1"), new MockHttpServletResponse(), chain);
+            assertNotNull(chain.getRequest());
+        }
+    }
+
+    @Test
+    void shouldNotCallControllerWhenRejected() throws Exception {
+        perform("GET", "/api/payments", "10.0.0.1");
+        perform("GET", "/api/payments", "10.0.0.1");
+
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request("GET", "/api/payments", "10.0.0.1"), new MockHttpServletResponse(), chain);
+
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void shouldRejectIdleTimeoutShorterThanRefill() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setIdleTimeout(Duration.ofSeconds(1));
+        properties.getLimits().put("slow", limit("GET", List.of("/api/payments"), 1, 10));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new RateLimitFilter(properties, new ObjectMapper(), meterRegistry));
+    }
+
+    private MockHttpServletResponse perform(String method, String path, String remoteAddr) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = new MockFilterChain();
+        filter.doFilter(request(method, path, remoteAddr), response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+
+    private static RateLimitProperties.Limit limit(String method, List<String> paths, double rate, int burst) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setMethod(method);
+        limit.setPaths(paths);
+        limit.setRequestsPerSecond(rate);
+        limit.setBurst(burst);
+        return limit;
+    }
+}
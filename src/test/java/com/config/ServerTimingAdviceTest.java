@@ -0,0 +1,42 @@
+package com.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ServerTimingAdviceTest {
+
+    private static final String PAYMENT_JSON =
+            "{\"amount\":10,\"currency\":\"EUR\",\"debtorIban\":\"LT123\",\"creditorIban\":\"LT456\",\"creditorBic\":\"ABCDEF\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void createPayment_ReportsPhasesInServerTimingHeader() throws Exception {
+        mockMvc.perform(post("/api/payments").contentType(MediaType.APPLICATION_JSON).content(PAYMENT_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(ServerTimingAdvice.SERVER_TIMING_HEADER, matchesPattern(
+                        "validation;dur=[0-9.]+, entity;dur=[0-9.]+, db;dur=[0-9.]+, reread;dur=[0-9.]+, "
+                                + "mapping;dur=[0-9.]+, commit;dur=[0-9.]+, total;dur=[0-9.]+")));
+    }
+
+    @Test
+    void errorResponse_ReportsPhasesInServerTimingHeader() throws Exception {
+        mockMvc.perform(get("/api/payments/{id}", Long.MAX_VALUE))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string(ServerTimingAdvice.SERVER_TIMING_HEADER, containsString("fee;dur=")));
+    }
+}
@@ -0,0 +1,61 @@
+package com.controller;
+
+import com.dto.ExchangeRatesDTO;
+import com.model.Currency;
+import com.service.ExchangeRateProvider;
+import com.utils.ExchangeRateTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdminControllerTest {
+
+    private static final Map<String, BigDecimal> RATES = Map.of("EUR", BigDecimal.ONE, "USD", new BigDecimal("0.93"));
+
+    @InjectMocks
+    private AdminController adminController;
+
+    @Mock
+    private ExchangeRateProvider exchangeRateProvider;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void updateExchangeRates_IsForbiddenUnlessEnabled() {
+        assertEquals(HttpStatus.FORBIDDEN, adminController.updateExchangeRates(RATES).getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, adminController.reloadExchangeRates().getStatusCode());
+
+        verify(exchangeRateProvider, never()).update(any());
+        verify(exchangeRateProvider, never()).reload();
+    }
+
+    @Test
+    void updateExchangeRates_ReplacesRatesWhenEnabled() {
+        adminController.exchangeRateUpdatesEnabled = true;
+        ExchangeRateTable table = ExchangeRateTable.of(2, Map.of(Currency.EUR, BigDecimal.ONE,
+                Currency.USD, new BigDecimal("0.93")));
+        when(exchangeRateProvider.update(Map.of(Currency.EUR, BigDecimal.ONE, Currency.USD, new BigDecimal("0.93"))))
+                .thenReturn(table);
+
+        ResponseEntity<ExchangeRatesDTO> response = adminController.updateExchangeRates(RATES);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().getVersion());
+    }
+}
@@ -1,9 +1,14 @@
 package com.controller;
 
 import com.dto.PaymentFeeResponseDTO;
+import com.dto.PaymentIdPageDTO;
 import com.dto.PaymentRequestDTO;
 import com.dto.PaymentResponseDTO;
+import com.dto.PaymentSearchCriteria;
+import com.service.AuditLogService;
 import com.service.CountryResolverService;
+import com.service.IdempotentPaymentService;
+import com.model.Currency;
 import com.service.PaymentService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,13 +18,21 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.LongConsumer;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -34,6 +47,12 @@ class PaymentControllerTest {
     @Mock
     private CountryResolverService countryResolverService;
 
+    @Mock
+    private AuditLogService auditLogService;
+
+    @Mock
+    private IdempotentPaymentService idempotentPaymentService;
+
     @Mock
     private HttpServletRequest request;
 
@@ -54,12 +73,21 @@ class PaymentControllerTest {
     @Test
     void testCreatePayment() {
         when(paymentService.createPayment(paymentRequest)).thenReturn(paymentResponse);
-        ResponseEntity<PaymentResponseDTO> response = paymentController.createPayment(paymentRequest);
+        ResponseEntity<PaymentResponseDTO> response = paymentController.createPayment(paymentRequest, null);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
         assertNotNull(response.getBody());
         verify(paymentService).createPayment(paymentRequest);
     }
 
+    @Test
+    void testCreatePaymentWithIdempotencyKey() {
+        when(idempotentPaymentService.createPayment("key-1", paymentRequest)).thenReturn(paymentResponse);
+        ResponseEntity<PaymentResponseDTO> response = paymentController.createPayment(paymentRequest, "key-1");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(response.getBody()).isEqualTo(paymentResponse);
+        verify(paymentService, never()).createPayment(any(PaymentRequestDTO.class));
+    }
+
     @Test
     void testCancelPayment() {
         Long paymentId = 1L;
@@ -110,4 +138,41 @@ class PaymentControllerTest {
         paymentController.getNonCancelledPayments(null, request);
         verify(countryResolverService).logClientCountry(clientIp);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetNonCancelledPaymentPage() {
+        PaymentIdPageDTO page = new PaymentIdPageDTO(Arrays.asList(4L, 5L), 5L);
+        when(paymentService.getNonCancelledPaymentIdPage(null, 3L, 2)).thenReturn(page);
+        ResponseEntity<PaymentIdPageDTO> response = paymentController.getNonCancelledPaymentPage(null, 3L, 2);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(page);
+    }
+
+    @Test
+    void testSearchPayments() {
+        PaymentSearchCriteria criteria = new PaymentSearchCriteria();
+        criteria.setCurrency(Currency.USD);
+        PaymentIdPageDTO page = new PaymentIdPageDTO(Arrays.asList(7L), null);
+        when(paymentService.searchPayments(criteria, 0L, 10)).thenReturn(page);
+        ResponseEntity<PaymentIdPageDTO> response = paymentController.searchPayments(criteria, 0L, 10);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(page);
+    }
+
+    @Test
+    void testStreamNonCancelledPayments() throws IOException {
+        doAnswer(invocation -> {
+            LongConsumer consumer = invocation.getArgument(0);
+            consumer.accept(1L);
+            consumer.accept(2L);
+            consumer.accept(30L);
+            return null;
+        }).when(paymentService).streamAllNonCancelledPaymentIds(any(LongConsumer.class));
+
+        ResponseEntity<StreamingResponseBody> response = paymentController.streamNonCancelledPayments();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+
+        assertThat(outputStream.toString(StandardCharsets.US_ASCII)).isEqualTo("[1,2,30]");
+    }
+}
@@ -0,0 +1,76 @@
+package com.repository;
+
+import com.model.NotificationOutbox;
+import com.model.NotificationOutboxStatus;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest
+class NotificationOutboxLeaseTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void findDueIds_SkipsEntriesWaitingForBackoff() {
+        Long due = save(NOW.minusSeconds(1)).getId();
+        save(NOW.plusSeconds(30));
+
+        assertEquals(List.of(due), outboxRepository.findDueIds(NOW, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void reclaimExpired_LeavesClaimsOfLiveInstancesAlone() {
+        Long abandoned = save(NOW).getId();
+        Long live = save(NOW).getId();
+        outboxRepository.claim(abandoned, "crashed", NOW.minusMinutes(10));
+        outboxRepository.claim(live, "running", NOW.minusSeconds(5));
+
+        assertEquals(1, outboxRepository.reclaimExpired(NOW.minusMinutes(5)));
+
+        entityManager.clear();
+        NotificationOutbox reclaimed = outboxRepository.findById(abandoned).orElseThrow();
+        assertEquals(NotificationOutboxStatus.PENDING, reclaimed.getStatus());
+        assertNull(reclaimed.getClaimOwner());
+        assertEquals(NotificationOutboxStatus.PROCESSING, outboxRepository.findById(live).orElseThrow().getStatus());
+    }
+
+    @Test
+    void complete_IsRefusedOnceTheClaimPassedToAnotherInstance() {
+        Long id = save(NOW).getId();
+        outboxRepository.claim(id, "slow", NOW.minusMinutes(10));
+        outboxRepository.reclaimExpired(NOW.minusMinutes(5));
+        outboxRepository.claim(id, "other", NOW);
+
+        assertEquals(0, outboxRepository.complete(id, "slow", NotificationOutboxStatus.SENT, 1, NOW, NOW));
+        assertEquals(1, outboxRepository.complete(id, "other", NotificationOutboxStatus.SENT, 1, NOW, NOW));
+
+        entityManager.clear();
+        NotificationOutbox entry = outboxRepository.findById(id).orElseThrow();
+        assertEquals(NotificationOutboxStatus.SENT, entry.getStatus());
+        assertNull(entry.getClaimedTime());
+    }
+
+    private NotificationOutbox save(LocalDateTime nextAttemptTime) {
+        NotificationOutbox entry = new NotificationOutbox();
+        entry.setPaymentId(1L);
+        entry.setStatus(NotificationOutboxStatus.PENDING);
+        entry.setCreatedTime(NOW);
+        entry.setNextAttemptTime(nextAttemptTime);
+        return outboxRepository.saveAndFlush(entry);
+    }
+}
@@ -0,0 +1,60 @@
+package com.repository;
+
+import com.model.Currency;
+import com.model.Payment;
+import com.model.Type1Payment;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class PaymentBatchInsertTest {
+
+    private static final int PAYMENTS = 120;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void saveAll_InsertsInJdbcBatches() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Payment> payments = new ArrayList<>(PAYMENTS);
+        for (int i = 0; i < PAYMENTS; i++) {
+            payments.add(payment(i));
+        }
+        paymentRepository.saveAll(payments);
+        paymentRepository.flush();
+
+        assertEquals(PAYMENTS, statistics.getEntityInsertCount());
+        // 3 insert batches of up to 50 rows plus a few sequence calls, instead of 120 round trips
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(10);
+        assertThat(payments).extracting(Payment::getId).doesNotHaveDuplicates().doesNotContainNull();
+    }
+
+    private static Payment payment(int i) {
+        Type1Payment payment = new Type1Payment();
+        payment.setAmount(BigDecimal.valueOf(10 + i));
+        payment.setCurrency(Currency.EUR);
+        payment.setDebtorIban("LT121000011101001000");
+        payment.setCreditorIban("LT601010012345678901");
+        payment.setCreationTime(LocalDateTime.now());
+        payment.setDetails("Invoice " + i);
+        return payment;
+    }
+}
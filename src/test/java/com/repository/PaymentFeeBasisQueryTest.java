@@ -0,0 +1,68 @@
+package com.repository;
+
+import com.dto.PaymentFeeBasisDTO;
+import com.model.Currency;
+import com.model.Payment;
+import com.model.PaymentType;
+import com.model.Type1Payment;
+import com.model.Type2Payment;
+import com.model.Type3Payment;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class PaymentFeeBasisQueryTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 1, 9, 15, 30);
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void findFeeBasisById_ReadsTypeCurrencyAndCreationTime() {
+        Type1Payment eur = new Type1Payment();
+        eur.setDetails("Invoice");
+        Type3Payment bic = new Type3Payment();
+        bic.setCreditorBic("CBVILT2X");
+        Long eurId = save(eur, Currency.EUR).getId();
+        Long usdId = save(new Type2Payment(), Currency.USD).getId();
+        Long bicId = save(bic, Currency.USD).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(new PaymentFeeBasisDTO(eurId, PaymentType.TYPE1, Currency.EUR, CREATED),
+                paymentRepository.findFeeBasisById(eurId).orElseThrow());
+        assertEquals(new PaymentFeeBasisDTO(usdId, PaymentType.TYPE2, Currency.USD, CREATED),
+                paymentRepository.findFeeBasisById(usdId).orElseThrow());
+        assertEquals(new PaymentFeeBasisDTO(bicId, PaymentType.TYPE3, Currency.USD, CREATED),
+                paymentRepository.findFeeBasisById(bicId).orElseThrow());
+    }
+
+    @Test
+    void findFeeBasisById_ReturnsEmptyForUnknownId() {
+        Optional<PaymentFeeBasisDTO> basis = paymentRepository.findFeeBasisById(Long.MAX_VALUE);
+
+        assertTrue(basis.isEmpty());
+    }
+
+    private Payment save(Payment payment, Currency currency) {
+        payment.setAmount(new BigDecimal("10.00"));
+        payment.setCurrency(currency);
+        payment.setDebtorIban("LT121000011101001000");
+        payment.setCreditorIban("LT601010012345678901");
+        payment.setCreationTime(CREATED);
+        return paymentRepository.save(payment);
+    }
+}
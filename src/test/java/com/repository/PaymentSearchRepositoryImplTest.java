@@ -0,0 +1,197 @@
+package com.repository;
+
+import com.dto.PaymentSearchCriteria;
+import com.model.Currency;
+import com.model.Payment;
+import com.model.PaymentType;
+import com.model.Type1Payment;
+import com.model.Type2Payment;
+import com.model.Type3Payment;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.repository.PaymentSearchRepositoryImplTest$SearchSqlCapture")
+class PaymentSearchRepositoryImplTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Payment eurSmall;
+    private Payment eurLarge;
+    private Payment usdCancelled;
+    private Payment bicPayment;
+
+    @BeforeEach
+    void setUp() {
+        eurSmall = save(new Type1Payment(), "10.00", Currency.EUR, DAY.plusHours(1), false);
+        eurLarge = save(new Type1Payment(), "250.00", Currency.EUR, DAY.plusHours(5), false);
+        usdCancelled = save(new Type2Payment(), "15.00", Currency.USD, DAY.plusHours(2), true);
+        bicPayment = save(new Type3Payment(), "12.50", Currency.EUR, DAY.plusDays(1), false);
+    }
+
+    @Test
+    void searchPaymentIds_FiltersOnAllCriteria() {
+        PaymentSearchCriteria criteria = new PaymentSearchCriteria();
+        criteria.setMinAmount(new BigDecimal("10.00"));
+        criteria.setMaxAmount(new BigDecimal("20.00"));
+        criteria.setCancelled(false);
+
+        assertEquals(List.of(eurSmall.getId(), bicPayment.getId()), search(criteria));
+
+        criteria.setType(PaymentType.TYPE3);
+        assertEquals(List.of(bicPayment.getId()), search(criteria));
+
+        criteria.setType(null);
+        criteria.setCreatedFrom(DAY);
+        criteria.setCreatedTo(DAY.plusDays(1));
+        assertEquals(List.of(eurSmall.getId()), search(criteria));
+    }
+
+    @Test
+    void searchPaymentIds_FiltersOnCurrencyAndCancelledState() {
+        PaymentSearchCriteria criteria = new PaymentSearchCriteria();
+        criteria.setCurrency(Currency.USD);
+
+        assertEquals(List.of(usdCancelled.getId()), search(criteria));
+
+        criteria.setCancelled(false);
+        assertEquals(List.of(), search(criteria));
+    }
+
+    @Test
+    void searchPaymentIds_PagesByIdCursor() {
+        PaymentSearchCriteria criteria = new PaymentSearchCriteria();
+        criteria.setCurrency(Currency.EUR);
+
+        List<Long> firstPage = paymentRepository.searchPaymentIds(criteria, 0L, 2);
+        List<Long> secondPage = paymentRepository.searchPaymentIds(criteria, firstPage.get(1), 2);
+
+        assertEquals(List.of(eurSmall.getId(), eurLarge.getId()), firstPage);
+        assertEquals(List.of(bicPayment.getId()), secondPage);
+    }
+
+    @Test
+    void searchPaymentIds_PagesRangeQueriesInKeyOrder() {
+        Payment eurSmallTwin = save(new Type2Payment(), "10.00", Currency.EUR, DAY.plusHours(3), false);
+        PaymentSearchCriteria criteria = new PaymentSearchCriteria();
+        criteria.setMinAmount(new BigDecimal("10.00"));
+
+        List<Long> firstPage = paymentRepository.searchPaymentIds(criteria, 0L, 2);
+        List<Long> secondPage = paymentRepository.searchPaymentIds(criteria, firstPage.get(1), 2);
+        List<Long> thirdPage = paymentRepository.searchPaymentIds(criteria, secondPage.get(1), 2);
+
+        assertEquals(List.of(eurSmall.getId(), eurSmallTwin.getId()), firstPage);
+        assertEquals(List.of(bicPayment.getId(), usdCancelled.getId()), secondPage);
+        assertEquals(List.of(eurLarge.getId()), thirdPage);
+
+        criteria = new PaymentSearchCriteria();
+        criteria.setCreatedFrom(DAY);
+        assertEquals(List.of(eurSmallTwin.getId(), eurLarge.getId()),
+                paymentRepository.searchPaymentIds(criteria, usdCancelled.getId(), 2));
+    }
+
+    @Test
+    void searchPaymentIds_ReadsRangeQueriesInIndexOrder() {
+        PaymentSearchCriteria amounts = new PaymentSearchCriteria();
+        amounts.setMinAmount(new BigDecimal("10.00"));
+        amounts.setMaxAmount(new BigDecimal("20.00"));
+
+        String plan = explainSearch(amounts, eurSmall.getId(), new BigDecimal("10.00"), new BigDecimal("20.00"),
+                eurSmall.getId(), eurSmall.getId(), eurSmall.getId(), 100);
+        assertThat(plan).containsIgnoringCase("IDX_PAYMENTS_AMOUNT").containsIgnoringCase("index sorted");
+    }
+
+    @Test
+    void searchPaymentIds_UsesIndexesForAmountAndCreationWindowQueries() {
+        PaymentSearchCriteria amounts = new PaymentSearchCriteria();
+        amounts.setMinAmount(new BigDecimal("10.00"));
+        amounts.setMaxAmount(new BigDecimal("20.00"));
+        PaymentSearchCriteria window = new PaymentSearchCriteria();
+        window.setCreatedFrom(DAY);
+        window.setCreatedTo(DAY.plusDays(1));
+        PaymentSearchCriteria activeAmounts = new PaymentSearchCriteria();
+        activeAmounts.setMinAmount(new BigDecimal("10.00"));
+        activeAmounts.setCancelled(false);
+
+        assertThat(explainSearch(amounts, 0L, new BigDecimal("10.00"), new BigDecimal("20.00"), 100))
+                .containsIgnoringCase("IDX_PAYMENTS_AMOUNT");
+        assertThat(explainSearch(window, 0L, DAY, DAY.plusDays(1), 100))
+                .containsIgnoringCase("IDX_PAYMENTS_CREATED");
+        assertThat(explainSearch(activeAmounts, 0L, false, new BigDecimal("10.00"), 100))
+                .containsIgnoringCase("IDX_PAYMENTS_")
+                .doesNotContainIgnoringCase("PRIMARY_KEY");
+    }
+
+    @Test
+    void migrations_CreateIndexForReportQueries() {
+        String reportPlan = explain("SELECT COUNT(*) FROM payments WHERE currency = 'EUR' AND payment_type = 'TYPE1' "
+                + "AND creation_time >= TIMESTAMP '2024-03-01 00:00:00'");
+
+        assertThat(reportPlan).containsIgnoringCase("IDX_PAYMENTS_CURRENCY_TYPE_CREATED");
+    }
+
+    private List<Long> search(PaymentSearchCriteria criteria) {
+        return paymentRepository.searchPaymentIds(criteria, 0L, 100);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+
+    /**
+     * Runs the search and explains the SQL Hibernate generated for it, bound to the given
+     * parameters in the order they appear in that SQL.
+     */
+    private String explainSearch(PaymentSearchCriteria criteria, long afterId, Object... parameters) {
+        SearchSqlCapture.STATEMENTS.clear();
+        paymentRepository.searchPaymentIds(criteria, afterId, 100);
+        String sql = SearchSqlCapture.STATEMENTS.get(SearchSqlCapture.STATEMENTS.size() - 1);
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters);
+    }
+
+    private Payment save(Payment payment, String amount, Currency currency, LocalDateTime creationTime, boolean cancelled) {
+        payment.setAmount(new BigDecimal(amount));
+        payment.setCurrency(currency);
+        payment.setDebtorIban("LT121000011101001000");
+        payment.setCreditorIban("LT601010012345678901");
+        payment.setCreationTime(creationTime);
+        payment.setCancelled(cancelled);
+        if (payment instanceof Type1Payment type1Payment) {
+            type1Payment.setDetails("Invoice");
+        }
+        if (payment instanceof Type3Payment type3Payment) {
+            type3Payment.setCreditorBic("CBVILT2X");
+        }
+        return paymentRepository.save(payment);
+    }
+
+    public static class SearchSqlCapture implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.startsWith("select") && sql.contains("payments")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
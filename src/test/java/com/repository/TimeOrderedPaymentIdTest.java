@@ -0,0 +1,49 @@
+package com.repository;
+
+import com.config.PaymentIdConfig;
+import com.model.Currency;
+import com.model.Payment;
+import com.model.Type1Payment;
+import com.utils.TimeOrderedIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {"payments.id.strategy=time-ordered", "payments.id.node-id=17"})
+@Import(PaymentIdConfig.class)
+class TimeOrderedPaymentIdTest {
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Test
+    void save_AssignsTimeOrderedIds() {
+        Payment first = paymentRepository.save(payment());
+        Payment second = paymentRepository.save(payment());
+
+        assertEquals(17, TimeOrderedIdGenerator.nodeIdOf(first.getId()));
+        assertThat(second.getId()).isGreaterThan(first.getId());
+        assertThat(Duration.between(TimeOrderedIdGenerator.instantOf(first.getId()), Instant.now()))
+                .isLessThan(Duration.ofMinutes(1));
+    }
+
+    private static Payment payment() {
+        Type1Payment payment = new Type1Payment();
+        payment.setAmount(new BigDecimal("10.00"));
+        payment.setCurrency(Currency.EUR);
+        payment.setDebtorIban("LT121000011101001000");
+        payment.setCreditorIban("LT601010012345678901");
+        payment.setCreationTime(LocalDateTime.now());
+        payment.setDetails("Invoice");
+        return payment;
+    }
+}
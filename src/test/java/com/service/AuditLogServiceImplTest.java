@@ -0,0 +1,112 @@
+package com.service;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.dto.PaymentRequestDTO;
+import com.event.AuditEvent;
+import com.model.Currency;
+import com.model.Type1Payment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditLogServiceImplTest {
+
+    private final ListAppender<ILoggingEvent> auditAppender = new ListAppender<>();
+    private final ListAppender<ILoggingEvent> sampledAppender = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        attach(AuditLogServiceImpl.AUDIT_LOGGER, auditAppender);
+        attach(AuditLogServiceImpl.SAMPLED_AUDIT_LOGGER, sampledAppender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger(AuditLogServiceImpl.AUDIT_LOGGER).detachAppender(auditAppender);
+        logger(AuditLogServiceImpl.SAMPLED_AUDIT_LOGGER).detachAppender(sampledAppender);
+    }
+
+    @Test
+    void shouldLogPaymentChangesWithMaskedIbans() {
+        AuditLogServiceImpl auditLogService = new AuditLogServiceImpl(0);
+        Type1Payment payment = new Type1Payment();
+        payment.setId(42L);
+        payment.setAmount(new BigDecimal("10.00"));
+        payment.setCurrency(Currency.EUR);
+        payment.setDebtorIban("LT121000011101001000");
+        payment.setCreditorIban("LT601010012345678901");
+
+        auditLogService.onPaymentAudit(AuditEvent.paymentCreated(payment));
+
+        assertEquals(1, auditAppender.list.size());
+        String message = auditAppender.list.get(0).getFormattedMessage();
+        assertTrue(message.startsWith(AuditEvent.PAYMENT_CREATED + " paymentId=42 "));
+        assertTrue(message.contains("debtorIban=LT**************1000"));
+        assertTrue(message.contains("creditorIban=LT**************8901"));
+        assertFalse(message.contains("LT121000011101001000"));
+    }
+
+    @Test
+    void shouldNeverBuildUnsampledEvents() {
+        AuditLogServiceImpl auditLogService = new AuditLogServiceImpl(0);
+        AtomicInteger built = new AtomicInteger();
+
+        for (int i = 0; i < 100; i++) {
+            auditLogService.logSampled(() -> {
+                built.incrementAndGet();
+                return AuditEvent.paymentRequested(request());
+            });
+        }
+
+        assertEquals(0, built.get());
+        assertTrue(sampledAppender.list.isEmpty());
+    }
+
+    @Test
+    void shouldLogEverySampledEventAtFullRate() {
+        AuditLogServiceImpl auditLogService = new AuditLogServiceImpl(1);
+
+        for (int i = 0; i < 10; i++) {
+            auditLogService.logSampled(() -> AuditEvent.paymentRequested(request()));
+        }
+
+        assertEquals(10, sampledAppender.list.size());
+        assertTrue(sampledAppender.list.get(0).getFormattedMessage().contains("debtorIban=LT***"));
+        assertTrue(auditAppender.list.isEmpty());
+    }
+
+    @Test
+    void shouldRejectRateOutsideZeroToOne() {
+        assertThrows(IllegalArgumentException.class, () -> new AuditLogServiceImpl(-0.1));
+        assertThrows(IllegalArgumentException.class, () -> new AuditLogServiceImpl(1.5));
+    }
+
+    private static PaymentRequestDTO request() {
+        PaymentRequestDTO request = new PaymentRequestDTO();
+        request.setAmount(BigDecimal.TEN);
+        request.setCurrency(Currency.EUR);
+        request.setDebtorIban("LT123");
+        request.setCreditorIban("LT456");
+        return request;
+    }
+
+    private static void attach(String name, ListAppender<ILoggingEvent> appender) {
+        appender.start();
+        logger(name).addAppender(appender);
+    }
+
+    private static Logger logger(String name) {
+        return (Logger) LoggerFactory.getLogger(name);
+    }
+}
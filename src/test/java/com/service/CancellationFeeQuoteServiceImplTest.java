@@ -0,0 +1,117 @@
+package com.service;
+
+import com.dto.FeeQuoteCacheStatsDTO;
+import com.dto.PaymentFeeBasisDTO;
+import com.dto.PaymentFeeResponseDTO;
+import com.event.PaymentCancelledEvent;
+import com.model.Currency;
+import com.model.PaymentType;
+import com.repository.PaymentRepository;
+import com.utils.CancellationFeeCalculator;
+import com.utils.ExchangeRateTable;
+import com.utils.PaymentUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CancellationFeeQuoteServiceImplTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-15T10:00:00Z");
+    private static final PaymentFeeBasisDTO BASIS = new PaymentFeeBasisDTO(1L, PaymentType.TYPE2, Currency.USD,
+            LocalDateTime.ofInstant(NOW, ZoneOffset.UTC).minusHours(3).minusMinutes(30));
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private ExchangeRateProvider exchangeRateProvider;
+
+    private Instant now;
+    private CancellationFeeQuoteServiceImpl quoteService;
+
+    @BeforeEach
+    void setUp() {
+        now = NOW;
+        Clock clock = mock(Clock.class);
+        when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+        lenient().when(clock.instant()).thenAnswer(invocation -> now);
+        when(exchangeRateProvider.current()).thenReturn(PaymentUtils.DEFAULT_EXCHANGE_RATES);
+
+        quoteService = new CancellationFeeQuoteServiceImpl(paymentRepository, new CancellationFeeCalculator(clock),
+                exchangeRateProvider, 100, Duration.ofHours(2));
+    }
+
+    @Test
+    void getQuote_ReadsDatabaseOnceAndServesRepeatsFromCache() {
+        when(paymentRepository.findFeeBasisById(1L)).thenReturn(Optional.of(BASIS));
+
+        PaymentFeeResponseDTO first = quoteService.getQuote(1L);
+        PaymentFeeResponseDTO second = quoteService.getQuote(1L);
+
+        // 3 hours at 10 cents converted at 0.92
+        assertEquals(new PaymentFeeResponseDTO(1L, new BigDecimal("0.28"), 0L), first);
+        assertEquals(first, second);
+        verify(paymentRepository, times(1)).findFeeBasisById(1L);
+        FeeQuoteCacheStatsDTO stats = quoteService.getCacheStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(0.5, stats.getHitRate());
+    }
+
+    @Test
+    void getQuote_RecalculatesInMemoryWhenHourOrRatesChange() {
+        when(paymentRepository.findFeeBasisById(1L)).thenReturn(Optional.of(BASIS));
+        quoteService.getQuote(1L);
+
+        now = NOW.plus(Duration.ofMinutes(30));
+        assertEquals(new BigDecimal("0.37"), quoteService.getQuote(1L).getCancellationFee());
+
+        ExchangeRateTable rates = ExchangeRateTable.of(5, Map.of(Currency.EUR, BigDecimal.ONE, Currency.USD, BigDecimal.ONE));
+        when(exchangeRateProvider.current()).thenReturn(rates);
+        assertEquals(new PaymentFeeResponseDTO(1L, new BigDecimal("0.40"), 5L), quoteService.getQuote(1L));
+
+        verify(paymentRepository, times(1)).findFeeBasisById(1L);
+        assertEquals(2, quoteService.getCacheStats().getRecalculations());
+    }
+
+    @Test
+    void onPaymentCancelled_EvictsQuote() {
+        when(paymentRepository.findFeeBasisById(1L)).thenReturn(Optional.of(BASIS));
+        quoteService.getQuote(1L);
+
+        quoteService.onPaymentCancelled(new PaymentCancelledEvent(1L, new BigDecimal("10.00")));
+        quoteService.getQuote(1L);
+
+        verify(paymentRepository, times(2)).findFeeBasisById(1L);
+    }
+
+    @Test
+    void getQuote_ThrowsAndCachesNothingForUnknownPayment() {
+        when(paymentRepository.findFeeBasisById(2L)).thenReturn(Optional.empty());
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> quoteService.getQuote(2L));
+
+        assertEquals("Payment not found with ID: 2", exception.getMessage());
+        assertEquals(0, quoteService.getCacheStats().getSize());
+    }
+}
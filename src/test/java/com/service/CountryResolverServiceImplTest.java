@@ -2,6 +2,7 @@ package com.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -10,20 +11,39 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @AutoConfigureMockMvc
 class CountryResolverServiceImplTest {
 
-    @MockBean
+    @MockBean(name = "geoRestTemplate")
     private RestTemplate restTemplate;
 
     @Mock
@@ -32,6 +52,9 @@ class CountryResolverServiceImplTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private CountryResolverServiceImpl countryResolverServiceImpl;
+
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -48,4 +71,101 @@ class CountryResolverServiceImplTest {
         ).thenThrow(new RestClientException("API call failed"));
         countryResolverService.logClientCountry(ipAddress);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testLogClientCountry_CachesLookupPerNetworkPrefix() {
+        when(restTemplate.exchange(eq("http://ip-api.com/json/203.0.113.10"), eq(HttpMethod.GET), isNull(),
+                any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(Map.of("country", "Lithuania")));
+
+        countryResolverServiceImpl.logClientCountry("203.0.113.10");
+        countryResolverServiceImpl.logClientCountry("203.0.113.99");
+
+        verify(restTemplate, after(300).times(1)).exchange(any(String.class), eq(HttpMethod.GET), isNull(),
+                any(ParameterizedTypeReference.class));
+        long hitsBefore = countryResolverServiceImpl.getStats().getHits();
+        countryResolverServiceImpl.logClientCountry("203.0.113.50");
+        assertEquals(hitsBefore + 1, countryResolverServiceImpl.getStats().getHits());
+    }
+
+    @Test
+    public void testLogClientCountry_RecordsOneMissPerQueuedLookup() {
+        when(restTemplate.exchange(eq("http://ip-api.com/json/100.64.0.1"), eq(HttpMethod.GET), isNull(),
+                any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(Map.of("country", "Poland")));
+
+        long missesBefore = countryResolverServiceImpl.getStats().getMisses();
+        countryResolverServiceImpl.logClientCountry("100.64.0.1");
+        verify(restTemplate, timeout(1000)).exchange(eq("http://ip-api.com/json/100.64.0.1"), eq(HttpMethod.GET),
+                isNull(), any(ParameterizedTypeReference.class));
+
+        assertEquals(missesBefore + 1, countryResolverServiceImpl.getStats().getMisses());
+    }
+
+    @Test
+    public void testLogClientCountry_CachesFailedLookup() {
+        when(restTemplate.exchange(eq("http://ip-api.com/json/198.51.100.7"), eq(HttpMethod.GET), isNull(),
+                any(ParameterizedTypeReference.class)))
+                .thenThrow(new RestClientException("API call failed"));
+
+        countryResolverServiceImpl.logClientCountry("198.51.100.7");
+        verify(restTemplate, timeout(1000)).exchange(eq("http://ip-api.com/json/198.51.100.7"), eq(HttpMethod.GET),
+                isNull(), any(ParameterizedTypeReference.class));
+        countryResolverServiceImpl.logClientCountry("198.51.100.7");
+
+        verify(restTemplate, after(300).times(1)).exchange(eq("http://ip-api.com/json/198.51.100.7"),
+                eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    public void testLogClientCountry_ResolvesDistinctNetworksInOneBatch() {
+        when(restTemplate.exchange(eq("http://ip-api.com/batch"), eq(HttpMethod.POST), any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(List.of(Map.of("country", "Latvia"), Map.of("country", "Estonia"))));
+
+        countryResolverServiceImpl.logClientCountry("192.0.2.1");
+        countryResolverServiceImpl.logClientCountry("192.0.3.1");
+        countryResolverServiceImpl.logClientCountry("192.0.2.2");
+
+        ArgumentCaptor<HttpEntity<List<Map<String, String>>>> request = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate, after(300).times(1)).exchange(eq("http://ip-api.com/batch"), eq(HttpMethod.POST),
+                request.capture(), any(ParameterizedTypeReference.class));
+        assertEquals(2, request.getValue().getBody().size());
+        verify(restTemplate, never()).exchange(any(String.class), eq(HttpMethod.GET), isNull(),
+                any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    public void testLogClientCountry_DropOldestCountsEachLostLookupOnce() {
+        CountryResolverServiceImpl resolver = new CountryResolverServiceImpl(restTemplate, 100, Duration.ofHours(1),
+                Duration.ofMinutes(1), true, null);
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(1);
+        ReflectionTestUtils.setField(resolver, "pendingLookups", queue);
+        resolver.dropPolicy = CountryResolverServiceImpl.DropPolicy.DROP_OLDEST;
+
+        resolver.logClientCountry("192.0.2.1");
+        resolver.logClientCountry("192.0.2.2");
+        resolver.logClientCountry("192.0.2.3");
+
+        assertEquals(List.of("192.0.2.3"), List.copyOf(queue));
+        assertEquals(2, resolver.getStats().getDroppedLookups());
+    }
+
+    @Test
+    public void testGeoCacheStatsEndpoint() throws Exception {
+        when(restTemplate.exchange(eq("http://ip-api.com/json/100.64.1.1"), eq(HttpMethod.GET), isNull(),
+                any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(Map.of("country", "Finland")));
+        countryResolverServiceImpl.logClientCountry("100.64.1.1");
+        verify(restTemplate, timeout(1000)).exchange(eq("http://ip-api.com/json/100.64.1.1"), eq(HttpMethod.GET),
+                isNull(), any(ParameterizedTypeReference.class));
+        countryResolverServiceImpl.logClientCountry("100.64.1.2");
+
+        mockMvc.perform(get("/api/admin/geo-cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(countryResolverServiceImpl.getStats().getSize()))
+                .andExpect(jsonPath("$.hits").value(countryResolverServiceImpl.getStats().getHits()))
+                .andExpect(jsonPath("$.misses").value(countryResolverServiceImpl.getStats().getMisses()))
+                .andExpect(jsonPath("$.droppedLookups").value(0));
+    }
+}
@@ -0,0 +1,97 @@
+package com.service;
+
+import com.model.Currency;
+import com.utils.ExchangeRateTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExchangeRateProviderImplTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-06-15T10:00:00Z"), ZoneOffset.UTC);
+
+    @TempDir
+    Path directory;
+
+    private Path ratesFile;
+    private ExchangeRateProviderImpl provider;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ratesFile = directory.resolve("fx-rates.properties");
+        writeRates("EUR=1\nUSD=0.92\n", 1_000);
+        provider = new ExchangeRateProviderImpl(new FileSystemResource(ratesFile), CLOCK);
+    }
+
+    @Test
+    void shouldLoadRatesOnStartup() {
+        ExchangeRateTable rates = provider.current();
+
+        assertEquals(CLOCK.millis(), rates.getVersion());
+        assertEquals(new BigDecimal("0.92"), rates.getRates().get(Currency.USD));
+    }
+
+    @Test
+    void shouldReloadChangedFileWithHigherVersion() throws IOException {
+        ExchangeRateTable before = provider.current();
+
+        provider.reloadIfModified();
+        assertSame(before, provider.current());
+
+        writeRates("EUR=1\nUSD=0.95\n", 2_000);
+        provider.reloadIfModified();
+
+        ExchangeRateTable after = provider.current();
+        assertEquals(before.getVersion() + 1, after.getVersion());
+        assertEquals(new BigDecimal("0.95"), after.getRates().get(Currency.USD));
+    }
+
+    @Test
+    void shouldKeepRatesWhenFileIsInvalid() throws IOException {
+        ExchangeRateTable before = provider.current();
+        writeRates("EUR=1\nUSD=-1\n", 2_000);
+
+        provider.reloadIfModified();
+        assertSame(before, provider.current());
+        assertThrows(IllegalArgumentException.class, () -> provider.reload());
+        assertSame(before, provider.current());
+
+        writeRates("USD=0.93\n", 3_000);
+        provider.reloadIfModified();
+        assertSame(before, provider.current());
+    }
+
+    @Test
+    void shouldUpdateRates() {
+        ExchangeRateTable before = provider.current();
+
+        ExchangeRateTable updated = provider.update(Map.of(Currency.EUR, BigDecimal.ONE, Currency.USD, new BigDecimal("0.9")));
+
+        assertSame(updated, provider.current());
+        assertTrue(updated.getVersion() > before.getVersion());
+        assertThrows(IllegalArgumentException.class, () -> provider.update(Map.of(Currency.USD, BigDecimal.ZERO)));
+        assertThrows(IllegalArgumentException.class, () -> provider.update(Map.of(Currency.USD, new BigDecimal("0.93"))));
+        assertSame(updated, provider.current());
+    }
+
+    private void writeRates(String rates, long modifiedMillis) throws IOException {
+        Files.writeString(ratesFile, rates);
+        Files.setLastModifiedTime(ratesFile, FileTime.fromMillis(modifiedMillis));
+    }
+}
@@ -0,0 +1,180 @@
+package com.service;
+
+import com.dto.PaymentRequestDTO;
+import com.dto.PaymentResponseDTO;
+import com.exeption.IdempotencyKeyReuseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.model.Currency;
+import com.model.IdempotencyKey;
+import com.repository.IdempotencyKeyRepository;
+import com.repository.NotificationOutboxRepository;
+import com.repository.PaymentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class IdempotentPaymentServiceImplTest {
+
+    private static final int CONCURRENT_REQUESTS = 8;
+
+    @Autowired
+    private IdempotentPaymentService idempotentPaymentService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void createPayment_ReplaysFirstResponseWithoutCreatingAnotherPayment() {
+        String key = UUID.randomUUID().toString();
+        PaymentResponseDTO first = idempotentPaymentService.createPayment(key, request("10"));
+        long payments = paymentRepository.count();
+        long notifications = outboxRepository.count();
+
+        PaymentResponseDTO replay = idempotentPaymentService.createPayment(key, request("10.00"));
+
+        assertEquals(first, replay);
+        assertEquals(payments, paymentRepository.count());
+        assertEquals(notifications, outboxRepository.count());
+        assertEquals(first.getId(), idempotencyKeyRepository.findById(key).orElseThrow().getPaymentId());
+    }
+
+    @Test
+    void createPayment_ReplaysFromTableWhenNotInMemory() {
+        String key = UUID.randomUUID().toString();
+        PaymentResponseDTO first = idempotentPaymentService.createPayment(key, request("10"));
+        long payments = paymentRepository.count();
+
+        PaymentResponseDTO replay = newInstance(Duration.ofHours(1)).createPayment(key, request("10"));
+
+        assertEquals(first, replay);
+        assertEquals(payments, paymentRepository.count());
+    }
+
+    @Test
+    void createPayment_CoalescesConcurrentRequestsWithSameKey() throws Exception {
+        String key = UUID.randomUUID().toString();
+        long payments = paymentRepository.count();
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<PaymentResponseDTO>> responses = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                responses.add(clients.submit(() -> {
+                    start.await();
+                    return idempotentPaymentService.createPayment(key, request("25"));
+                }));
+            }
+            start.countDown();
+
+            Long paymentId = responses.get(0).get().getId();
+            for (Future<PaymentResponseDTO> response : responses) {
+                assertEquals(paymentId, response.get().getId());
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        assertEquals(payments + 1, paymentRepository.count());
+    }
+
+    @Test
+    void createPayment_RejectsKeyReusedForDifferentRequest() {
+        String key = UUID.randomUUID().toString();
+        idempotentPaymentService.createPayment(key, request("10"));
+
+        assertThrows(IdempotencyKeyReuseException.class,
+                () -> idempotentPaymentService.createPayment(key, request("11")));
+    }
+
+    @Test
+    void createPayment_DoesNotStoreFailedRequests() {
+        String key = UUID.randomUUID().toString();
+        PaymentRequestDTO invalid = request("10");
+        invalid.setCreditorBic(null);
+
+        assertThrows(IllegalArgumentException.class, () -> idempotentPaymentService.createPayment(key, invalid));
+
+        assertTrue(idempotencyKeyRepository.findById(key).isEmpty());
+        assertEquals(idempotentPaymentService.createPayment(key, request("10")).getId(),
+                idempotencyKeyRepository.findById(key).orElseThrow().getPaymentId());
+    }
+
+    @Test
+    void createPayment_CreatesNewPaymentOnceKeyHasExpired() {
+        String key = UUID.randomUUID().toString();
+        IdempotentPaymentService expiring = newInstance(Duration.ZERO.plusNanos(1));
+        PaymentResponseDTO first = expiring.createPayment(key, request("10"));
+
+        PaymentResponseDTO second = newInstance(Duration.ofHours(1)).createPayment(key, request("10"));
+
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals(second.getId(), idempotencyKeyRepository.findById(key).orElseThrow().getPaymentId());
+    }
+
+    @Test
+    void purgeExpiredKeys_DeletesOnlyExpiredKeys() {
+        String expired = UUID.randomUUID().toString();
+        String live = UUID.randomUUID().toString();
+        newInstance(Duration.ZERO.plusNanos(1)).createPayment(expired, request("10"));
+        idempotentPaymentService.createPayment(live, request("10"));
+
+        idempotentPaymentService.purgeExpiredKeys();
+
+        assertTrue(idempotencyKeyRepository.findById(expired).isEmpty());
+        assertTrue(idempotencyKeyRepository.findById(live).isPresent());
+    }
+
+    @Test
+    void createPayment_RejectsMissingOrOversizedKey() {
+        assertThrows(IllegalArgumentException.class, () -> idempotentPaymentService.createPayment(" ", request("10")));
+        assertThrows(IllegalArgumentException.class, () -> idempotentPaymentService.createPayment(
+                "k".repeat(IdempotentPaymentServiceImpl.MAX_KEY_LENGTH + 1), request("10")));
+    }
+
+    private IdempotentPaymentService newInstance(Duration ttl) {
+        return new IdempotentPaymentServiceImpl(paymentService, idempotencyKeyRepository, transactionManager,
+                objectMapper, 100, ttl);
+    }
+
+    private static PaymentRequestDTO request(String amount) {
+        PaymentRequestDTO request = new PaymentRequestDTO();
+        request.setAmount(new BigDecimal(amount));
+        request.setCurrency(Currency.EUR);
+        request.setDebtorIban("LT123");
+        request.setCreditorIban("LT456");
+        request.setCreditorBic("ABCDEF");
+        return request;
+    }
+}
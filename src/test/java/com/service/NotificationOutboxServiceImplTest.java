@@ -0,0 +1,170 @@
+package com.service;
+
+import com.dto.PaymentNotificationDTO;
+import com.model.NotificationOutbox;
+import com.model.NotificationOutboxStatus;
+import com.model.Payment;
+import com.model.Type1Payment;
+import com.repository.NotificationOutboxRepository;
+import com.repository.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationOutboxServiceImplTest {
+
+    private static final String OWNER = "instance-a";
+    private static final Duration LEASE_TIMEOUT = Duration.ofMinutes(5);
+    private static final Duration RETRY_BACKOFF = Duration.ofSeconds(10);
+    private static final Duration MAX_RETRY_BACKOFF = Duration.ofSeconds(30);
+
+    @Mock
+    private NotificationOutboxRepository outboxRepository;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    private NotificationOutboxServiceImpl outboxService;
+
+    private Payment payment;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        outboxService = new NotificationOutboxServiceImpl(outboxRepository, paymentRepository, notificationService,
+                10, 2, LEASE_TIMEOUT, RETRY_BACKOFF, MAX_RETRY_BACKOFF, OWNER,
+                new ExecutorServiceAdapter(new SyncTaskExecutor()));
+        payment = new Type1Payment();
+        payment.setId(7L);
+    }
+
+    @Test
+    void enqueuePaymentCreated_SavesPendingEntry() {
+        outboxService.enqueuePaymentCreated(payment);
+
+        ArgumentCaptor<NotificationOutbox> captor = ArgumentCaptor.forClass(NotificationOutbox.class);
+        verify(outboxRepository).save(captor.capture());
+        assertEquals(7L, captor.getValue().getPaymentId());
+        assertEquals(NotificationOutboxStatus.PENDING, captor.getValue().getStatus());
+        assertEquals(captor.getValue().getCreatedTime(), captor.getValue().getNextAttemptTime());
+        verify(notificationService, never()).notifyPaymentCreated(any(Payment.class));
+    }
+
+    @Test
+    void dispatchPending_MarksEntrySentOnSuccess() {
+        NotificationOutbox entry = pendingEntry(0);
+        stubClaim(entry);
+        when(notificationService.notifyPaymentCreated(payment)).thenReturn(notification(true));
+
+        outboxService.dispatchPending();
+
+        verify(outboxRepository).complete(eq(1L), eq(OWNER), eq(NotificationOutboxStatus.SENT), eq(1),
+                any(LocalDateTime.class), any());
+    }
+
+    @Test
+    void dispatchPending_RequeuesEntryOnFailure() {
+        NotificationOutbox entry = pendingEntry(0);
+        stubClaim(entry);
+        when(notificationService.notifyPaymentCreated(payment)).thenReturn(notification(false));
+
+        LocalDateTime before = LocalDateTime.now();
+        outboxService.dispatchPending();
+
+        ArgumentCaptor<LocalDateTime> nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository).complete(eq(1L), eq(OWNER), eq(NotificationOutboxStatus.PENDING), eq(1),
+                any(LocalDateTime.class), nextAttempt.capture());
+        assertThat(nextAttempt.getValue()).isAfterOrEqualTo(before.plus(RETRY_BACKOFF));
+    }
+
+    @Test
+    void dispatchPending_FailsEntryAfterMaxAttempts() {
+        NotificationOutbox entry = pendingEntry(1);
+        stubClaim(entry);
+        when(notificationService.notifyPaymentCreated(payment)).thenThrow(new IllegalStateException("boom"));
+
+        outboxService.dispatchPending();
+
+        verify(outboxRepository).complete(eq(1L), eq(OWNER), eq(NotificationOutboxStatus.FAILED), eq(2),
+                any(LocalDateTime.class), any());
+    }
+
+    @Test
+    void backoff_DoublesPerAttemptUpToMaximum() {
+        assertEquals(Duration.ofSeconds(10), outboxService.backoff(1));
+        assertEquals(Duration.ofSeconds(20), outboxService.backoff(2));
+        assertEquals(MAX_RETRY_BACKOFF, outboxService.backoff(3));
+        assertEquals(MAX_RETRY_BACKOFF, outboxService.backoff(40));
+    }
+
+    @Test
+    void reclaimExpiredClaims_OnlyReclaimsClaimsOlderThanLease() {
+        LocalDateTime before = LocalDateTime.now();
+
+        outboxService.reclaimExpiredClaims();
+
+        ArgumentCaptor<LocalDateTime> claimedBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository).reclaimExpired(claimedBefore.capture());
+        assertThat(claimedBefore.getValue()).isAfterOrEqualTo(before.minus(LEASE_TIMEOUT))
+                .isBefore(LocalDateTime.now().minus(LEASE_TIMEOUT).plusSeconds(1));
+    }
+
+    @Test
+    void dispatchPending_SkipsEntriesClaimedElsewhere() {
+        when(outboxRepository.findDueIds(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(1L));
+        when(outboxRepository.claim(eq(1L), eq(OWNER), any(LocalDateTime.class))).thenReturn(0);
+
+        outboxService.dispatchPending();
+
+        verify(outboxRepository, never()).findById(1L);
+        verify(notificationService, never()).notifyPaymentCreated(any(Payment.class));
+    }
+
+    private NotificationOutbox pendingEntry(int attempts) {
+        NotificationOutbox entry = new NotificationOutbox();
+        entry.setId(1L);
+        entry.setPaymentId(payment.getId());
+        entry.setStatus(NotificationOutboxStatus.PENDING);
+        entry.setAttempts(attempts);
+        return entry;
+    }
+
+    private void stubClaim(NotificationOutbox entry) {
+        when(outboxRepository.findDueIds(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(entry.getId()));
+        when(outboxRepository.claim(eq(entry.getId()), eq(OWNER), any(LocalDateTime.class))).thenReturn(1);
+        when(outboxRepository.complete(eq(entry.getId()), eq(OWNER), any(NotificationOutboxStatus.class), anyInt(),
+                any(LocalDateTime.class), any())).thenReturn(1);
+        when(outboxRepository.findById(entry.getId())).thenReturn(Optional.of(entry));
+        when(paymentRepository.findById(payment.getId())).thenReturn(Optional.of(payment));
+    }
+
+    private PaymentNotificationDTO notification(boolean notified) {
+        PaymentNotificationDTO dto = new PaymentNotificationDTO();
+        dto.setPaymentId(payment.getId());
+        dto.setNotified(notified);
+        return dto;
+    }
+}
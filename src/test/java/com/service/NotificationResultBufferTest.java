@@ -0,0 +1,152 @@
+package com.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationResultBufferTest {
+
+    private static final LocalDateTime FIRST_ATTEMPT = LocalDateTime.of(2024, 3, 1, 10, 0);
+    private static final LocalDateTime SECOND_ATTEMPT = FIRST_ATTEMPT.plusSeconds(5);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PaymentEntityCache paymentEntityCache;
+
+    private NotificationResultBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        buffer = buffer(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void flush_WritesLatestResultPerPaymentInOneBatch() {
+        buffer.record(1L, false, FIRST_ATTEMPT);
+        buffer.record(2L, true, FIRST_ATTEMPT);
+        buffer.record(1L, true, SECOND_ATTEMPT);
+
+        buffer.flush();
+
+        List<Object[]> rows = captureBatch();
+        assertEquals(2, rows.size());
+        assertArrayEquals(new Object[]{true, SECOND_ATTEMPT, 1L}, rows.get(0));
+        assertArrayEquals(new Object[]{true, FIRST_ATTEMPT, 2L}, rows.get(1));
+        assertEquals(0, buffer.getPendingResults());
+        verify(paymentEntityCache).evict(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(1L, 2L))));
+    }
+
+    @Test
+    void record_FlushesWhenThresholdIsReached() {
+        buffer.record(1L, true, FIRST_ATTEMPT);
+        buffer.record(2L, true, FIRST_ATTEMPT);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+
+        buffer.record(3L, true, FIRST_ATTEMPT);
+
+        assertEquals(3, captureBatch().size());
+    }
+
+    @Test
+    void flush_KeepsResultsWhenUpdateFails() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+        buffer.record(1L, true, FIRST_ATTEMPT);
+
+        buffer.flush();
+
+        assertEquals(1, buffer.getPendingResults());
+        verify(paymentEntityCache, never()).evict(anyCollection());
+    }
+
+    @Test
+    void flush_WaitsForBackoffAfterFailure() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+        buffer.record(1L, true, FIRST_ATTEMPT);
+
+        buffer.flush();
+        buffer.flush();
+        buffer.record(2L, true, FIRST_ATTEMPT);
+        buffer.record(3L, true, FIRST_ATTEMPT);
+
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+        assertEquals(3, buffer.getPendingResults());
+    }
+
+    @Test
+    void record_DropsNewPaymentsOnceBufferIsFull() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+        for (long id = 1; id <= 6; id++) {
+            buffer.record(id, true, FIRST_ATTEMPT);
+        }
+        buffer.record(1L, false, SECOND_ATTEMPT);
+
+        assertEquals(4, buffer.getPendingResults());
+        assertEquals(2, buffer.getDroppedResults());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_WritesBacklogInBatchesOfThresholdOnceDatabaseIsBack() {
+        buffer = buffer(Duration.ZERO);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+        buffer.record(1L, true, FIRST_ATTEMPT);
+        buffer.record(2L, true, FIRST_ATTEMPT);
+        buffer.flush();
+        buffer.record(3L, true, FIRST_ATTEMPT);
+        buffer.record(4L, true, FIRST_ATTEMPT);
+        reset(jdbcTemplate);
+
+        buffer.flush();
+
+        ArgumentCaptor<List<Object[]>> batches = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batches.capture());
+        assertEquals(3, batches.getAllValues().get(0).size());
+        assertEquals(1, batches.getAllValues().get(1).size());
+        assertEquals(0, buffer.getPendingResults());
+    }
+
+    @Test
+    void flush_DoesNothingWhenEmpty() {
+        buffer.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    private NotificationResultBuffer buffer(Duration retryBackoff) {
+        return new NotificationResultBuffer(jdbcTemplate, paymentEntityCache, new SimpleMeterRegistry(),
+                3, 4, retryBackoff, Duration.ofMinutes(5));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> captureBatch() {
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture());
+        List<Object[]> rows = captor.getValue();
+        rows.sort((a, b) -> Long.compare((Long) a[2], (Long) b[2]));
+        return rows;
+    }
+}
@@ -3,18 +3,24 @@ package com.service;
 import com.dto.PaymentNotificationDTO;
 import com.model.Payment;
 import com.model.Type1Payment;
-import com.repository.PaymentRepository;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpTimeoutException;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -30,7 +36,12 @@ class NotificationServiceImplTest {
     private RestTemplate restTemplate;
 
     @Mock
-    private PaymentRepository paymentRepository;
+    private NotificationResultBuffer notificationResultBuffer;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private OutboundCallMetrics outboundCallMetrics = new OutboundCallMetrics(meterRegistry);
 
     @InjectMocks
     private NotificationServiceImpl notificationService;
@@ -51,7 +62,7 @@ class NotificationServiceImplTest {
         assertFalse(notificationDTO.isNotified(), "Notification should be skipped for this payment type");
         assertNull(notificationDTO.getStatusCode(), "Status code should be null for skipped notifications");
 
-        verify(paymentRepository, never()).save(any(Payment.class));  // Ensure save is NOT called
+        verify(notificationResultBuffer, never()).record(any(), anyBoolean(), any());  // Ensure no result is recorded
     }
 
     @Test
@@ -67,6 +78,28 @@ class NotificationServiceImplTest {
         assertEquals(1L, notificationDTO.getPaymentId());
         assertFalse(notificationDTO.isNotified(), "Notification should be marked as false due to failure");
 
-        verify(paymentRepository, times(1)).save(payment);  // Ensure save is called
+        verify(notificationResultBuffer, times(1)).record(eq(1L), eq(false), any());  // Ensure the result is buffered
+        assertEquals(1, outboundCalls("type1", "failure"));
+    }
+
+    @Test
+    void testNotifyPaymentCreated_Timeout_IsCountedSeparately() {
+        Type1Payment payment = mock(Type1Payment.class);
+        when(payment.getId()).thenReturn(2L);
+        when(restTemplate.getForEntity(anyString(), eq(String.class)))
+                .thenThrow(new ResourceAccessException("I/O error", new HttpTimeoutException("request timed out")));
+
+        PaymentNotificationDTO notificationDTO = notificationService.notifyPaymentCreated(payment);
+
+        assertFalse(notificationDTO.isNotified());
+        assertEquals(1, outboundCalls("type1", "timeout"));
+        assertEquals(0, outboundCalls("type1", "failure"));
+    }
+
+    private long outboundCalls(String endpoint, String outcome) {
+        Timer timer = meterRegistry.find(OutboundCallMetrics.TIMER)
+                .tags("client", "notification", "endpoint", endpoint, "outcome", outcome)
+                .timer();
+        return timer == null ? 0 : timer.count();
     }
 }
\ No newline at end of file
@@ -0,0 +1,174 @@
+package com.service;
+
+import com.dto.PaymentIndexReportDTO;
+import com.event.PaymentCancelledEvent;
+import com.event.PaymentCreatedEvent;
+import com.repository.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentAmountIndexImplTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    private PaymentAmountIndexImpl index;
+
+    private final List<Object[]> activePayments = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(paymentRepository.streamNonCancelledAmountsAndIds()).thenAnswer(invocation -> activePayments.stream()
+                .sorted(Comparator.comparing((Object[] row) -> (BigDecimal) row[0]).thenComparing(row -> (Long) row[1])));
+        index = new PaymentAmountIndexImpl(paymentRepository, true);
+
+        activePayment("10.00", 1L);
+        activePayment("10.00", 4L);
+        activePayment("25.50", 2L);
+    }
+
+    @Test
+    void findActivePaymentIds_IsEmptyBeforeRebuild() {
+        assertTrue(index.findActivePaymentIds(new BigDecimal("10.00")).isEmpty());
+    }
+
+    @Test
+    void findActivePaymentIds_ServesAmountsFromIndex() {
+        index.rebuild();
+
+        assertEquals(Optional.of(List.of(1L, 4L)), index.findActivePaymentIds(new BigDecimal("10")));
+        assertEquals(Optional.of(List.of(2L)), index.findActivePaymentIds(new BigDecimal("25.5")));
+        assertEquals(Optional.of(List.of()), index.findActivePaymentIds(new BigDecimal("99.00")));
+        assertEquals(Optional.of(List.of()), index.findActivePaymentIds(new BigDecimal("10.001")));
+    }
+
+    @Test
+    void events_KeepIndexInSync() {
+        index.rebuild();
+
+        index.onPaymentCreated(new PaymentCreatedEvent(3L, new BigDecimal("10.00")));
+        index.onPaymentCancelled(new PaymentCancelledEvent(1L, new BigDecimal("10.00")));
+        index.onPaymentCancelled(new PaymentCancelledEvent(2L, new BigDecimal("25.50")));
+
+        assertEquals(Optional.of(List.of(3L, 4L)), index.findActivePaymentIds(new BigDecimal("10.00")));
+        assertEquals(Optional.of(List.of()), index.findActivePaymentIds(new BigDecimal("25.50")));
+    }
+
+    @Test
+    void findActivePaymentIdsAfter_ReturnsPageAfterCursor() {
+        index.rebuild();
+        index.onPaymentCreated(new PaymentCreatedEvent(7L, new BigDecimal("10.00")));
+
+        assertEquals(Optional.of(List.of(4L)), index.findActivePaymentIdsAfter(new BigDecimal("10.00"), 1L, 1));
+        assertEquals(Optional.of(List.of(4L, 7L)), index.findActivePaymentIdsAfter(new BigDecimal("10.00"), 2L, 5));
+        assertEquals(Optional.of(List.of()), index.findActivePaymentIdsAfter(new BigDecimal("10.00"), 7L, 5));
+    }
+
+    @Test
+    void verify_ReportsDifferencesWithDatabase() {
+        index.rebuild();
+        index.onPaymentCreated(new PaymentCreatedEvent(9L, new BigDecimal("30.00")));
+        activePayment("10.00", 5L);
+
+        PaymentIndexReportDTO report = index.verify();
+
+        assertTrue(report.isReady());
+        assertFalse(report.isConsistent());
+        assertEquals(List.of(5L), report.getMissingIds());
+        assertEquals(List.of(9L), report.getUnexpectedIds());
+        assertEquals(4L, report.getIndexedPayments());
+        assertEquals(4L, report.getDatabasePayments());
+
+        index.rebuild();
+        assertTrue(index.verify().isConsistent());
+    }
+
+    @Test
+    void rebuild_AppliesUpdatesArrivingDuringScanWithoutBlockingThem() throws Exception {
+        index.rebuild();
+        ExecutorService committer = Executors.newSingleThreadExecutor();
+        try {
+            onScan(() -> {
+                index.onPaymentCreated(new PaymentCreatedEvent(8L, new BigDecimal("10.00")));
+                index.onPaymentCancelled(new PaymentCancelledEvent(2L, new BigDecimal("25.50")));
+            }, committer);
+
+            index.rebuild();
+        } finally {
+            committer.shutdownNow();
+        }
+
+        assertEquals(Optional.of(List.of(1L, 4L, 8L)), index.findActivePaymentIds(new BigDecimal("10.00")));
+        assertEquals(Optional.of(List.of()), index.findActivePaymentIds(new BigDecimal("25.50")));
+    }
+
+    @Test
+    void verify_IsConsistentWhenUpdatesArriveDuringScan() throws Exception {
+        index.rebuild();
+        ExecutorService committer = Executors.newSingleThreadExecutor();
+        PaymentIndexReportDTO report;
+        try {
+            onScan(() -> index.onPaymentCreated(new PaymentCreatedEvent(8L, new BigDecimal("10.00"))), committer);
+
+            report = index.verify();
+        } finally {
+            committer.shutdownNow();
+        }
+
+        assertTrue(report.isConsistent());
+        assertEquals(4L, report.getIndexedPayments());
+        assertEquals(4L, report.getDatabasePayments());
+    }
+
+    /**
+     * Runs {@code updates} on another thread in the middle of the next table scan and fails
+     * if they have to wait for the scan to finish.
+     */
+    private void onScan(Runnable updates, ExecutorService committer) {
+        List<Object[]> rows = new ArrayList<>(activePayments);
+        rows.sort(Comparator.comparing((Object[] row) -> (BigDecimal) row[0]).thenComparing(row -> (Long) row[1]));
+        when(paymentRepository.streamNonCancelledAmountsAndIds()).thenAnswer(invocation -> rows.stream()
+                .peek(row -> {
+                    if (row == rows.get(1)) {
+                        try {
+                            committer.submit(updates).get(5, TimeUnit.SECONDS);
+                        } catch (Exception e) {
+                            throw new AssertionError("Update was blocked by the table scan", e);
+                        }
+                    }
+                }));
+    }
+
+    @Test
+    void rebuild_DoesNothingWhenDisabled() {
+        index = new PaymentAmountIndexImpl(paymentRepository, false);
+
+        index.rebuild();
+
+        assertTrue(index.findActivePaymentIds(new BigDecimal("10.00")).isEmpty());
+        verify(paymentRepository, never()).streamNonCancelledAmountsAndIds();
+    }
+
+    private void activePayment(String amount, long id) {
+        activePayments.add(new Object[]{new BigDecimal(amount), id});
+    }
+}
@@ -0,0 +1,152 @@
+package com.service;
+
+import com.dto.PaymentRequestDTO;
+import com.model.Currency;
+import com.repository.PaymentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class PaymentSecondLevelCacheTest {
+
+    private static final int PAYMENTS = 20;
+    private static final int READERS = 4;
+    private static final int READS_AFTER_CANCEL = 50;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentEntityCache paymentEntityCache;
+
+    @Autowired
+    private NotificationResultBuffer notificationResultBuffer;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void findById_NeverReturnsActivePaymentOnceCancellationHasCommitted() throws Exception {
+        long hitsBefore = paymentEntityCache.getStats().getHits();
+        ExecutorService readers = Executors.newFixedThreadPool(READERS);
+        try {
+            for (int i = 0; i < PAYMENTS; i++) {
+                Long paymentId = paymentService.createPayment(request()).getId();
+                assertFalse(paymentRepository.findById(paymentId).orElseThrow().isCancelled());
+
+                AtomicBoolean committed = new AtomicBoolean();
+                AtomicInteger staleReads = new AtomicInteger();
+                CountDownLatch started = new CountDownLatch(READERS);
+                List<Future<?>> results = new ArrayList<>();
+                for (int r = 0; r < READERS; r++) {
+                    results.add(readers.submit(() -> {
+                        started.countDown();
+                        int readsAfterCommit = 0;
+                        while (readsAfterCommit < READS_AFTER_CANCEL) {
+                            boolean committedBeforeRead = committed.get();
+                            boolean cancelled = paymentRepository.findById(paymentId).orElseThrow().isCancelled();
+                            if (committedBeforeRead) {
+                                readsAfterCommit++;
+                                if (!cancelled) {
+                                    staleReads.incrementAndGet();
+                                }
+                            }
+                        }
+                    }));
+                }
+
+                started.await();
+                paymentService.cancelPayment(paymentId);
+                committed.set(true);
+                for (Future<?> result : results) {
+                    result.get(30, TimeUnit.SECONDS);
+                }
+
+                assertEquals(0, staleReads.get(), "stale reads of payment " + paymentId);
+            }
+        } finally {
+            readers.shutdownNow();
+        }
+
+        // most reads were answered by the cache, so the check above exercised it
+        assertThat(paymentEntityCache.getStats().getHits() - hitsBefore)
+                .isGreaterThan((long) PAYMENTS * READERS * READS_AFTER_CANCEL / 2);
+        assertThat(paymentEntityCache.getStats().getSize()).isPositive();
+    }
+
+    @Test
+    void findById_SeesNotificationResultWrittenWithJdbc() {
+        Long paymentId = paymentService.createPayment(request()).getId();
+        assertFalse(paymentRepository.findById(paymentId).orElseThrow().isNotified());
+        long hitsBefore = paymentEntityCache.getStats().getHits();
+        assertFalse(paymentRepository.findById(paymentId).orElseThrow().isNotified());
+        assertThat(paymentEntityCache.getStats().getHits()).isGreaterThan(hitsBefore);
+
+        notificationResultBuffer.record(paymentId, true, LocalDateTime.now());
+        notificationResultBuffer.flush();
+
+        assertTrue(paymentRepository.findById(paymentId).orElseThrow().isNotified());
+    }
+
+    @Test
+    void findById_SeesNotificationResultFlushedWhileCancellationWasInFlight() throws Exception {
+        Long paymentId = paymentService.createPayment(request()).getId();
+        assertFalse(paymentRepository.findById(paymentId).orElseThrow().isNotified());
+        notificationResultBuffer.record(paymentId, true, LocalDateTime.now());
+
+        ExecutorService flusher = Executors.newSingleThreadExecutor();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                // the cancellation holds the payment as it was before the flush
+                assertFalse(paymentRepository.findById(paymentId).orElseThrow().isNotified());
+                try {
+                    flusher.submit(notificationResultBuffer::flush).get(30, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                paymentService.cancelPayment(paymentId);
+            });
+        } finally {
+            flusher.shutdownNow();
+        }
+
+        long hitsBefore = paymentEntityCache.getStats().getHits();
+        assertTrue(paymentRepository.findById(paymentId).orElseThrow().isCancelled());
+        assertTrue(paymentRepository.findById(paymentId).orElseThrow().isNotified());
+        assertThat(paymentEntityCache.getStats().getHits()).isGreaterThan(hitsBefore);
+    }
+
+    private static PaymentRequestDTO request() {
+        PaymentRequestDTO request = new PaymentRequestDTO();
+        request.setAmount(new BigDecimal("25.00"));
+        request.setCurrency(Currency.EUR);
+        request.setDebtorIban("LT121000011101001000");
+        request.setCreditorIban("LT601010012345678901");
+        // TYPE3 payments queue no notification, so nothing calls out during the test
+        request.setCreditorBic("CBVILT2X");
+        return request;
+    }
+}
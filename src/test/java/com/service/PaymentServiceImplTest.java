@@ -1,67 +1,98 @@
 package com.service;
 
 
+import com.dto.PaymentBatchResponseDTO;
 import com.dto.PaymentFeeResponseDTO;
-import com.dto.PaymentNotificationDTO;
+import com.dto.PaymentIdPageDTO;
 import com.dto.PaymentRequestDTO;
 import com.dto.PaymentResponseDTO;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.dto.PaymentSearchCriteria;
+import com.event.PaymentCancelledEvent;
+import com.event.PaymentCreatedEvent;
 import com.model.Currency;
 import com.model.Payment;
 import com.model.Type1Payment;
 import com.repository.PaymentRepository;
+import com.utils.CancellationFeeCalculator;
+import com.utils.ExchangeRateTable;
 import com.utils.PaymentUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
-import java.io.File;
-import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.mockStatic;
 
 @ExtendWith(MockitoExtension.class)
 class PaymentServiceImplTest {
 
+    private static final ExchangeRateTable RATES = ExchangeRateTable.of(7, PaymentUtils.DEFAULT_EXCHANGE_RATES.getRates());
+
     @Mock
     private PaymentRepository paymentRepository;
 
     @Mock
-    private ModelMapper modelMapper;
+    private NotificationOutboxService notificationOutboxService;
+
+    @Mock
+    private PaymentAmountIndex paymentAmountIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private CancellationFeeCalculator cancellationFeeCalculator;
 
     @Mock
-    private NotificationService notificationService;
+    private ExchangeRateProvider exchangeRateProvider;
+
+    @Mock
+    private CancellationFeeQuoteService cancellationFeeQuoteService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private PaymentServiceImpl paymentService;
 
     private PaymentRequestDTO paymentRequestDTO;
     private Payment payment;
-    private ObjectMapper objectMapper;
 
     @BeforeEach
     void setUp() {
-        objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
         paymentRequestDTO = new PaymentRequestDTO();
         paymentRequestDTO.setAmount(new BigDecimal("100.00"));
         paymentRequestDTO.setCurrency(Currency.EUR);
@@ -80,37 +111,53 @@ class PaymentServiceImplTest {
     }
 
     @Test
-    void createPayment_Success() throws IOException {
+    void createPayment_Success() {
         when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
         when(paymentRepository.findById(payment.getId())).thenReturn(Optional.of(payment));
-        when(modelMapper.map(any(Payment.class), eq(PaymentResponseDTO.class)))
-                .thenReturn(loadJson("src/test/resources/responses/createPayment_success.json", PaymentResponseDTO.class));
-
-        PaymentNotificationDTO notificationDTO = mock(PaymentNotificationDTO.class);
-        when(notificationDTO.isNotified()).thenReturn(true);
-
-        when(notificationService.notifyPaymentCreated(any(Payment.class)))
-                .thenReturn(notificationDTO);
 
         PaymentResponseDTO response = paymentService.createPayment(paymentRequestDTO);
 
         assertNotNull(response, "Response should not be null");
+        assertEquals(payment.getId(), response.getId());
+        assertFalse(response.isCancelled());
         verify(paymentRepository, times(1)).save(any(Payment.class)); // Verify save method was called
-        verify(notificationService, times(1)).notifyPaymentCreated(any(Payment.class)); // Verify notify method was called
+        verify(notificationOutboxService, times(1)).enqueuePaymentCreated(any(Payment.class)); // Verify notification was queued
+        verify(eventPublisher).publishEvent(any(PaymentCreatedEvent.class));
     }
 
     @Test
-    void cancelPayment_Success() throws IOException {
+    void cancelPayment_Success() {
         when(paymentRepository.findById(1L)).thenReturn(Optional.of(payment));
-        when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
-        when(modelMapper.map(any(Payment.class), eq(PaymentResponseDTO.class)))
-                .thenReturn(loadJson("src/test/resources/responses/cancelPayment_success.json", PaymentResponseDTO.class));
+        when(exchangeRateProvider.current()).thenReturn(RATES);
+        when(cancellationFeeCalculator.calculateFee(payment, RATES)).thenReturn(new BigDecimal("0.05"));
+        when(paymentRepository.saveAndFlush(any(Payment.class))).thenReturn(payment);
 
         PaymentResponseDTO response = paymentService.cancelPayment(1L);
 
         assertNotNull(response);
+        assertTrue(response.isCancelled());
+        assertEquals(new BigDecimal("0.05"), response.getCancellationFee());
+        assertEquals(RATES.getVersion(), payment.getCancellationFeeRateVersion());
         assertTrue(payment.isCancelled());
-        verify(paymentRepository, times(1)).save(any(Payment.class));
+        verify(paymentRepository, times(1)).saveAndFlush(any(Payment.class));
+        verify(eventPublisher).publishEvent(any(PaymentCancelledEvent.class));
+        verify(transactionManager).commit(any());
+        assertEquals(1, meterRegistry.get(PaymentServiceImpl.OPERATION_TIMER).tag("operation", "cancel").timer().count());
+    }
+
+    @Test
+    void cancelPayment_CountsOptimisticLockConflict() {
+        when(paymentRepository.findById(1L)).thenReturn(Optional.of(payment));
+        when(exchangeRateProvider.current()).thenReturn(RATES);
+        when(paymentRepository.saveAndFlush(any(Payment.class)))
+                .thenThrow(new OptimisticLockingFailureException("Row was updated by another transaction"));
+
+        Exception exception = assertThrows(IllegalStateException.class, () -> paymentService.cancelPayment(1L));
+
+        assertEquals("Concurrent update detected for payment ID: 1", exception.getMessage());
+        assertEquals(1.0, meterRegistry.get(PaymentServiceImpl.OPTIMISTIC_LOCK_CONFLICTS).counter().count());
+        verify(eventPublisher, never()).publishEvent(any(PaymentCancelledEvent.class));
+        verify(transactionManager).rollback(any());
     }
 
     @Test
@@ -125,18 +172,154 @@ class PaymentServiceImplTest {
 
     @Test
     void getPaymentById_Success() {
-        try (MockedStatic<PaymentUtils> mockedUtils = mockStatic(PaymentUtils.class)) {
-            when(paymentRepository.findById(1L)).thenReturn(Optional.of(payment));
-            mockedUtils.when(() -> PaymentUtils.calculateCancellationFee(payment)).thenReturn(BigDecimal.TEN);
+        when(cancellationFeeQuoteService.getQuote(1L)).thenReturn(new PaymentFeeResponseDTO(1L, BigDecimal.TEN, RATES.getVersion()));
+
+        PaymentFeeResponseDTO response = paymentService.getPaymentById(1L);
+
+        assertNotNull(response);
+        assertEquals(BigDecimal.TEN, response.getCancellationFee());
+        assertEquals(RATES.getVersion(), response.getRateVersion());
+        verify(paymentRepository, never()).findById(any());
+    }
+
+    @Test
+    void getNonCancelledPaymentIdPage_ReturnsCursorForFullPage() {
+        ReflectionTestUtils.setField(paymentService, "maxPageLimit", 100);
+        when(paymentRepository.findNonCancelledPaymentIdsAfter(10L, PageRequest.of(0, 2))).thenReturn(List.of(11L, 15L));
+
+        PaymentIdPageDTO page = paymentService.getNonCancelledPaymentIdPage(null, 10L, 2);
+
+        assertEquals(List.of(11L, 15L), page.getIds());
+        assertEquals(15L, page.getNextAfterId());
+    }
+
+    @Test
+    void getNonCancelledPaymentIdPage_ReturnsNoCursorForLastPage() {
+        ReflectionTestUtils.setField(paymentService, "maxPageLimit", 100);
+        BigDecimal amount = new BigDecimal("100.00");
+        when(paymentRepository.findNonCancelledPaymentIdsByAmountAfter(amount, 0L, PageRequest.of(0, 5)))
+                .thenReturn(List.of(3L));
+
+        PaymentIdPageDTO page = paymentService.getNonCancelledPaymentIdPage(amount, 0L, 5);
+
+        assertEquals(List.of(3L), page.getIds());
+        assertNull(page.getNextAfterId());
+    }
+
+    @Test
+    void getNonCancelledPaymentIdPage_RejectsLimitAboveMaximum() {
+        ReflectionTestUtils.setField(paymentService, "maxPageLimit", 100);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> paymentService.getNonCancelledPaymentIdPage(null, 0L, 101));
+    }
+
+    @Test
+    void getNonCancelledPaymentIdsByAmount_UsesIndexWhenAvailable() {
+        BigDecimal amount = new BigDecimal("100.00");
+        when(paymentAmountIndex.findActivePaymentIds(amount)).thenReturn(Optional.of(List.of(1L, 2L)));
+
+        assertEquals(List.of(1L, 2L), paymentService.getNonCancelledPaymentIdsByAmount(amount));
+        verify(paymentRepository, never()).findNonCancelledPaymentIdsByAmount(any());
+    }
+
+    @Test
+    void getNonCancelledPaymentIdsByAmount_FallsBackToDatabase() {
+        BigDecimal amount = new BigDecimal("100.00");
+        when(paymentAmountIndex.findActivePaymentIds(amount)).thenReturn(Optional.empty());
+        when(paymentRepository.findNonCancelledPaymentIdsByAmount(amount)).thenReturn(List.of(3L));
+
+        assertEquals(List.of(3L), paymentService.getNonCancelledPaymentIdsByAmount(amount));
+    }
+
+    @Test
+    void getNonCancelledPaymentIdPage_UsesIndexForAmount() {
+        ReflectionTestUtils.setField(paymentService, "maxPageLimit", 100);
+        BigDecimal amount = new BigDecimal("100.00");
+        when(paymentAmountIndex.findActivePaymentIdsAfter(amount, 0L, 2)).thenReturn(Optional.of(List.of(3L, 8L)));
+
+        PaymentIdPageDTO page = paymentService.getNonCancelledPaymentIdPage(amount, 0L, 2);
+
+        assertEquals(List.of(3L, 8L), page.getIds());
+        assertEquals(8L, page.getNextAfterId());
+    }
 
-            PaymentFeeResponseDTO response = paymentService.getPaymentById(1L);
+    @Test
+    void searchPayments_ReturnsPageFromRepository() {
+        ReflectionTestUtils.setField(paymentService, "maxPageLimit", 100);
+        PaymentSearchCriteria criteria = new PaymentSearchCriteria();
+        criteria.setMinAmount(new BigDecimal("10.00"));
+        criteria.setMaxAmount(new BigDecimal("20.00"));
+        when(paymentRepository.searchPaymentIds(criteria, 0L, 2)).thenReturn(List.of(4L, 9L));
+
+        PaymentIdPageDTO page = paymentService.searchPayments(criteria, 0L, 2);
+
+        assertEquals(List.of(4L, 9L), page.getIds());
+        assertEquals(9L, page.getNextAfterId());
+    }
+
+    @Test
+    void searchPayments_RejectsInvertedRanges() {
+        ReflectionTestUtils.setField(paymentService, "maxPageLimit", 100);
+        PaymentSearchCriteria amounts = new PaymentSearchCriteria();
+        amounts.setMinAmount(new BigDecimal("20.00"));
+        amounts.setMaxAmount(new BigDecimal("10.00"));
+        PaymentSearchCriteria window = new PaymentSearchCriteria();
+        window.setCreatedFrom(LocalDateTime.of(2024, 1, 2, 0, 0));
+        window.setCreatedTo(LocalDateTime.of(2024, 1, 1, 0, 0));
+
+        assertThrows(IllegalArgumentException.class, () -> paymentService.searchPayments(amounts, 0L, 10));
+        assertThrows(IllegalArgumentException.class, () -> paymentService.searchPayments(window, 0L, 10));
+    }
+
+    @Test
+    void createPayments_ReportsInvalidItemsAndCreatesTheRest() {
+        ReflectionTestUtils.setField(paymentService, "maxBatchSize", 10);
+        PaymentRequestDTO invalid = new PaymentRequestDTO();
+        invalid.setAmount(new BigDecimal("-1"));
+        AtomicLong ids = new AtomicLong(100);
+        when(paymentRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Payment> payments = invocation.getArgument(0);
+            payments.forEach(p -> p.setId(ids.incrementAndGet()));
+            return payments;
+        });
+
+        PaymentBatchResponseDTO response = paymentService.createPayments(List.of(paymentRequestDTO, invalid, paymentRequestDTO));
 
-            assertNotNull(response);
-            assertEquals(BigDecimal.TEN, response.getCancellationFee());
-        }
+        assertEquals(3, response.getTotal());
+        assertEquals(2, response.getCreated());
+        assertEquals(1, response.getFailed());
+        assertEquals(101L, response.getResults().get(0).getPaymentId());
+        assertFalse(response.getResults().get(1).isCreated());
+        assertEquals("Amount must be positive", response.getResults().get(1).getError());
+        assertEquals(102L, response.getResults().get(2).getPaymentId());
+        verify(notificationOutboxService, times(2)).enqueuePaymentCreated(any(Payment.class));
+        verify(eventPublisher, times(2)).publishEvent(any(PaymentCreatedEvent.class));
     }
 
-    private <T> T loadJson(String path, Class<T> type) throws IOException {
-        return objectMapper.readValue(new File(path), type);
+    @Test
+    void createPayments_ReportsItemWithoutCurrency() {
+        ReflectionTestUtils.setField(paymentService, "maxBatchSize", 10);
+        PaymentRequestDTO noCurrency = new PaymentRequestDTO();
+        noCurrency.setAmount(BigDecimal.TEN);
+        noCurrency.setDebtorIban("LT123");
+        noCurrency.setCreditorIban("LT456");
+        when(paymentRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        PaymentBatchResponseDTO response = paymentService.createPayments(List.of(noCurrency, paymentRequestDTO));
+
+        assertEquals(1, response.getCreated());
+        assertEquals(1, response.getFailed());
+        assertFalse(response.getResults().get(0).isCreated());
+        assertEquals("Currency must be EUR or USD", response.getResults().get(0).getError());
+        assertTrue(response.getResults().get(1).isCreated());
+    }
+
+    @Test
+    void createPayments_RejectsOversizedBatch() {
+        ReflectionTestUtils.setField(paymentService, "maxBatchSize", 1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> paymentService.createPayments(List.of(paymentRequestDTO, paymentRequestDTO)));
     }
 }
\ No newline at end of file
@@ -0,0 +1,143 @@
+package com.utils;
+
+import com.model.Currency;
+import com.model.Payment;
+import com.model.Type1Payment;
+import com.model.Type2Payment;
+import com.model.Type3Payment;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CancellationFeeCalculatorTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Vilnius");
+    private static final ExchangeRateTable RATES = PaymentUtils.DEFAULT_EXCHANGE_RATES;
+    private static final List<Supplier<Payment>> PAYMENT_TYPES =
+            List.of(Type1Payment::new, Type2Payment::new, Type3Payment::new);
+
+    @Test
+    void shouldMatchDoubleBasedCalculation() {
+        Instant now = Instant.parse("2025-06-15T10:20:30.456Z");
+        Clock clock = Clock.fixed(now, ZONE);
+        CancellationFeeCalculator calculator = new CancellationFeeCalculator(clock);
+        LocalDateTime localNow = LocalDateTime.now(clock);
+
+        for (Supplier<Payment> type : PAYMENT_TYPES) {
+            for (Currency currency : new Currency[]{Currency.EUR, Currency.USD, null}) {
+                for (long minutes = -6_000; minutes <= 600_000; minutes += 7) {
+                    Payment payment = payment(type, currency, localNow.minusMinutes(minutes).minusNanos(123_456_789));
+
+                    assertEquals(legacyFee(payment, localNow), calculator.calculateFee(payment, RATES),
+                            () -> payment.getPaymentType() + " " + currency + " created " + payment.getCreationTime());
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldCountWallClockHoursAcrossDaylightSavingTransitions() {
+        MutableClock clock = new MutableClock(Instant.parse("2025-03-29T20:00:00Z"), ZONE);
+        CancellationFeeCalculator calculator = new CancellationFeeCalculator(clock);
+        Payment payment = payment(Type1Payment::new, Currency.EUR, LocalDateTime.of(2025, 3, 29, 23, 30));
+
+        // spring forward on 30 March and fall back on 26 October, minute by minute
+        for (Instant end = Instant.parse("2025-03-30T06:00:00Z"); clock.instant.isBefore(end); ) {
+            assertEquals(legacyFee(payment, LocalDateTime.now(clock)), calculator.calculateFee(payment, RATES));
+            clock.instant = clock.instant.plusSeconds(60);
+        }
+        clock.instant = Instant.parse("2025-10-25T22:00:00Z");
+        for (Instant end = Instant.parse("2025-10-26T04:00:00Z"); clock.instant.isBefore(end); ) {
+            assertEquals(legacyFee(payment, LocalDateTime.now(clock)), calculator.calculateFee(payment, RATES));
+            clock.instant = clock.instant.plusSeconds(60);
+        }
+    }
+
+    @Test
+    void shouldReturnMinorUnits() {
+        Clock clock = Clock.fixed(Instant.parse("2025-06-15T10:00:00Z"), ZONE);
+        CancellationFeeCalculator calculator = new CancellationFeeCalculator(clock);
+        LocalDateTime created = LocalDateTime.now(clock).minusHours(7).minusMinutes(59);
+
+        assertEquals(35, calculator.feeMinorUnits(payment(Type1Payment::new, Currency.EUR, created), RATES));
+        // 70 cents at 0.92 is 64.4 cents
+        assertEquals(64, calculator.feeMinorUnits(payment(Type2Payment::new, Currency.USD, created), RATES));
+        // 105 cents at 0.92 is 96.6 cents
+        assertEquals(97, calculator.feeMinorUnits(payment(Type3Payment::new, Currency.USD, created), RATES));
+        assertEquals(new BigDecimal("0.97"), calculator.calculateFee(payment(Type3Payment::new, Currency.USD, created), RATES));
+    }
+
+    @Test
+    void shouldConvertWithGivenRates() {
+        Clock clock = Clock.fixed(Instant.parse("2025-06-15T10:00:00Z"), ZONE);
+        CancellationFeeCalculator calculator = new CancellationFeeCalculator(clock);
+        Payment payment = payment(Type2Payment::new, Currency.USD, LocalDateTime.now(clock).minusHours(10));
+
+        // 100 cents at 0.935 is 93.5 cents
+        assertEquals(94, calculator.feeMinorUnits(payment, ExchangeRateTable.of(1,
+                Map.of(Currency.EUR, BigDecimal.ONE, Currency.USD, new BigDecimal("0.935")))));
+    }
+
+    private static Payment payment(Supplier<Payment> type, Currency currency, LocalDateTime creationTime) {
+        Payment payment = type.get();
+        payment.setCurrency(currency);
+        payment.setCreationTime(creationTime);
+        return payment;
+    }
+
+    /** The calculation PaymentUtils used before fees were computed in minor units. */
+    private static BigDecimal legacyFee(Payment payment, LocalDateTime now) {
+        long hours = payment.getCreationTime().until(now, ChronoUnit.HOURS);
+
+        double coefficient;
+        if (payment instanceof Type1Payment) {
+            coefficient = 0.05;
+        } else if (payment instanceof Type2Payment) {
+            coefficient = 0.1;
+        } else {
+            coefficient = 0.15;
+        }
+
+        BigDecimal fee = BigDecimal.valueOf(hours * coefficient);
+        if (payment.getCurrency() == Currency.USD) {
+            fee = fee.multiply(BigDecimal.valueOf(0.92)).setScale(2, RoundingMode.HALF_UP);
+        }
+        return fee.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static final class MutableClock extends Clock {
+        private final ZoneId zone;
+        private Instant instant;
+
+        private MutableClock(Instant instant, ZoneId zone) {
+            this.instant = instant;
+            this.zone = zone;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return new MutableClock(instant, zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
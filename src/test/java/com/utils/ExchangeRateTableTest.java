@@ -0,0 +1,60 @@
+package com.utils;
+
+import com.model.Currency;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExchangeRateTableTest {
+
+    @Test
+    void shouldLoadRatesFromProperties() throws IOException {
+        ExchangeRateTable table = ExchangeRateTable.load(new StringReader("# rates\nEUR=1\nUSD = 0.920000\n"), 3);
+
+        assertEquals(3, table.getVersion());
+        assertEquals(Map.of(Currency.EUR, BigDecimal.ONE, Currency.USD, new BigDecimal("0.92")), table.getRates());
+    }
+
+    @Test
+    void shouldConvertMinorUnitsRoundingHalfUp() {
+        ExchangeRateTable table = ExchangeRateTable.of(1, Map.of(Currency.EUR, BigDecimal.ONE,
+                Currency.USD, new BigDecimal("0.925")));
+
+        assertEquals(93, table.toEurMinorUnits(100, Currency.USD));
+        assertEquals(-93, table.toEurMinorUnits(-100, Currency.USD));
+        assertEquals(9, table.toEurMinorUnits(10, Currency.USD));
+        assertEquals(new BigDecimal("0.93"), table.toEur(BigDecimal.ONE, Currency.USD));
+    }
+
+    @Test
+    void shouldRejectTableMissingACurrencyOrWithEurNotOne() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ExchangeRateTable.of(1, Map.of(Currency.EUR, BigDecimal.ONE)));
+        assertThrows(IllegalArgumentException.class,
+                () -> ExchangeRateTable.of(1, Map.of(Currency.USD, new BigDecimal("0.93"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> ExchangeRateTable.of(1, Map.of(Currency.EUR, new BigDecimal("1.01"), Currency.USD, BigDecimal.ONE)));
+        assertThrows(IllegalArgumentException.class,
+                () -> ExchangeRateTable.load(new StringReader("USD=0.93"), 1));
+        assertEquals(BigDecimal.ONE, ExchangeRateTable.of(1,
+                Map.of(Currency.EUR, new BigDecimal("1.000"), Currency.USD, BigDecimal.ONE)).getRates().get(Currency.EUR));
+    }
+
+    @Test
+    void shouldRejectInvalidRates() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ExchangeRateTable.of(1, Map.of(Currency.EUR, BigDecimal.ONE, Currency.USD, new BigDecimal("0.9200001"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> ExchangeRateTable.of(1, Map.of(Currency.EUR, BigDecimal.ONE, Currency.USD, BigDecimal.ZERO)));
+        assertThrows(IllegalArgumentException.class,
+                () -> ExchangeRateTable.load(new StringReader("GBP=1.17"), 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> ExchangeRateTable.load(new StringReader("USD=abc"), 1));
+    }
+}
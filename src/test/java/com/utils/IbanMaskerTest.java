@@ -0,0 +1,31 @@
+package com.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IbanMaskerTest {
+
+    @Test
+    void shouldKeepCountryCodeAndLastFourCharacters() {
+        assertEquals("LT**************1000", IbanMasker.mask("LT121000011101001000"));
+    }
+
+    @Test
+    void shouldDropWhitespace() {
+        assertEquals("LT**************1000", IbanMasker.mask("LT12 1000 0111 0100 1000"));
+    }
+
+    @Test
+    void shouldOnlyShowCountryCodeOfShortValues() {
+        assertEquals("LT***", IbanMasker.mask("LT123"));
+        assertEquals("L", IbanMasker.mask("L"));
+        assertEquals("", IbanMasker.mask(""));
+    }
+
+    @Test
+    void shouldReturnNullForNull() {
+        assertNull(IbanMasker.mask(null));
+    }
+}
@@ -0,0 +1,78 @@
+package com.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IpAddressUtilsTest {
+
+    @Test
+    void shouldCollapseIpv4AddressToSlash24() {
+        assertEquals("192.168.1.0/24", IpAddressUtils.toNetworkPrefix("192.168.1.100"));
+    }
+
+    @Test
+    void shouldCollapseIpv6AddressToSlash48() {
+        assertEquals("2001:db8:85a3::/48", IpAddressUtils.toNetworkPrefix("2001:0db8:85a3:0000:0000:8a2e:0370:7334"));
+        assertEquals("2001:db8:0::/48", IpAddressUtils.toNetworkPrefix("2001:db8::1"));
+    }
+
+    @Test
+    void shouldCollapseIpv4MappedIpv6AddressAsIpv4() {
+        assertEquals("10.1.2.0/24", IpAddressUtils.toNetworkPrefix("::ffff:10.1.2.3"));
+    }
+
+    @Test
+    void shouldReturnNonLiteralsUnchanged() {
+        assertEquals("unknown-host", IpAddressUtils.toNetworkPrefix("unknown-host"));
+        assertEquals("10.0.0.1, 10.0.0.2", IpAddressUtils.toNetworkPrefix("10.0.0.1, 10.0.0.2"));
+        assertNull(IpAddressUtils.toNetworkPrefix(null));
+    }
+
+    @Test
+    void shouldRecogniseIpv4Literals() {
+        assertTrue(IpAddressUtils.isIpv4Literal("0.0.0.0"));
+        assertTrue(IpAddressUtils.isIpv4Literal("255.255.255.255"));
+        assertFalse(IpAddressUtils.isIpv4Literal("256.1.1.1"));
+        assertFalse(IpAddressUtils.isIpv4Literal("1.1.1"));
+        assertFalse(IpAddressUtils.isIpv4Literal("1.1.1.1.1"));
+        assertFalse(IpAddressUtils.isIpv4Literal("1..1.1"));
+        assertFalse(IpAddressUtils.isIpv4Literal("1.1.1."));
+    }
+
+    @Test
+    void shouldParseIpv6Literals() {
+        assertArrayEquals(new byte[]{0x20, 0x01, 0x0d, (byte) 0xb8, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1},
+                IpAddressUtils.parseIpv6("2001:DB8::1"));
+        assertArrayEquals(new byte[16], IpAddressUtils.parseIpv6("::"));
+        assertArrayEquals(new byte[]{0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 2, 3, 4},
+                IpAddressUtils.parseIpv6("::1.2.3.4"));
+        assertArrayEquals(new byte[]{10, 1, 2, 3}, IpAddressUtils.parseIpv6("::ffff:10.1.2.3"));
+        assertEquals(16, IpAddressUtils.parseIpv6("1:2:3:4:5:6:7:8").length);
+        assertEquals(16, IpAddressUtils.parseIpv6("1:2:3:4:5:6:7::").length);
+    }
+
+    @Test
+    void shouldRejectHostnamesAndMalformedIpv6() {
+        assertNull(IpAddressUtils.parseIpv6("zz:1"));
+        assertNull(IpAddressUtils.parseIpv6("localhost:"));
+        assertNull(IpAddressUtils.parseIpv6("example.com:443"));
+        assertNull(IpAddressUtils.parseIpv6("fe80::1%eth0"));
+        assertNull(IpAddressUtils.parseIpv6("[::1]"));
+        assertNull(IpAddressUtils.parseIpv6(":::"));
+        assertNull(IpAddressUtils.parseIpv6("1::2::3"));
+        assertNull(IpAddressUtils.parseIpv6("1:2:3:4:5:6:7:8:9"));
+        assertNull(IpAddressUtils.parseIpv6("1:2:3:4:5:6:7"));
+        assertNull(IpAddressUtils.parseIpv6("1:2:3:4:5:6:7:8::"));
+        assertNull(IpAddressUtils.parseIpv6("12345::1"));
+        assertNull(IpAddressUtils.parseIpv6("1.2.3.4::"));
+        assertNull(IpAddressUtils.parseIpv6("::1.2.3.4:5"));
+        assertNull(IpAddressUtils.parseIpv6(":1"));
+        assertNull(IpAddressUtils.parseIpv6("\uff11::1"));
+        assertEquals("localhost:", IpAddressUtils.toNetworkPrefix("localhost:"));
+    }
+}
@@ -0,0 +1,73 @@
+package com.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IpRangeTableTest {
+
+    private IpRangeTable table;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        try (Reader reader = new InputStreamReader(
+                getClass().getResourceAsStream("/geoip/ip-ranges.csv"), StandardCharsets.UTF_8)) {
+            table = IpRangeTable.load(reader);
+        }
+    }
+
+    @Test
+    void shouldLoadAllRanges() {
+        assertEquals(6, table.size());
+    }
+
+    @Test
+    void shouldResolveIpv4RangeBoundaries() {
+        assertEquals("Australia", table.lookup("1.0.0.0"));
+        assertEquals("Australia", table.lookup("1.0.0.255"));
+        assertEquals("Lithuania", table.lookup("5.20.14.1"));
+        assertEquals("Korea, Republic of", table.lookup("203.0.113.10"));
+    }
+
+    @Test
+    void shouldResolveAddressesAboveSignedIntRange() {
+        assertEquals("Reserved", table.lookup("255.255.255.255"));
+    }
+
+    @Test
+    void shouldResolveIpv6Ranges() {
+        assertEquals("Documentation", table.lookup("2001:db8::1"));
+        assertEquals("Ireland", table.lookup("2a00:1450:4001:82a::200e"));
+    }
+
+    @Test
+    void shouldResolveIpv4MappedIpv6AsIpv4() {
+        assertEquals("Lithuania", table.lookup("::ffff:5.20.1.1"));
+    }
+
+    @Test
+    void shouldReturnNullForUncoveredOrInvalidAddresses() {
+        assertNull(table.lookup("0.255.255.255"));
+        assertNull(table.lookup("1.0.1.0"));
+        assertNull(table.lookup("2001:db9::1"));
+        assertNull(table.lookup("not-an-ip"));
+        assertNull(table.lookup("localhost:"));
+        assertNull(table.lookup("zz:1"));
+    }
+
+    @Test
+    void shouldRejectOverlappingRanges() {
+        String csv = "10.0.0.0,10.0.0.255,A\n10.0.0.128,10.0.1.0,B\n";
+
+        assertThrows(IllegalArgumentException.class, () -> IpRangeTable.load(new StringReader(csv)));
+    }
+}
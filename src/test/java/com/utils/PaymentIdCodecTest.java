@@ -0,0 +1,96 @@
+package com.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaymentIdCodecTest {
+
+    @Test
+    void shouldRoundTripEmptyList() {
+        assertArrayEquals(new long[0], roundTrip(new long[0]));
+        assertEquals(1, PaymentIdCodec.encode(new long[0]).length);
+    }
+
+    @Test
+    void shouldRoundTripSingleId() {
+        assertArrayEquals(new long[]{42L}, roundTrip(new long[]{42L}));
+    }
+
+    @Test
+    void shouldRoundTripExtremeValues() {
+        long[] ids = {Long.MIN_VALUE, -1L, 0L, 1L, Long.MAX_VALUE};
+        assertArrayEquals(ids, roundTrip(ids.clone()));
+    }
+
+    @Test
+    void shouldRoundTripDuplicates() {
+        assertArrayEquals(new long[]{5L, 5L, 7L}, roundTrip(new long[]{7L, 5L, 5L}));
+    }
+
+    @Test
+    void shouldSortUnorderedInput() {
+        assertArrayEquals(new long[]{1L, 2L, 3L, 100L}, roundTrip(new long[]{100L, 3L, 1L, 2L}));
+    }
+
+    @Test
+    void shouldRoundTripRandomSparseIds() {
+        Random random = new Random(7);
+        long[] ids = random.longs(10_000, 0, Long.MAX_VALUE).toArray();
+        long[] expected = ids.clone();
+        Arrays.sort(expected);
+
+        assertArrayEquals(expected, roundTrip(ids));
+    }
+
+    @Test
+    void shouldEncodeDenseIdsInAboutOneBytePerId() {
+        long[] ids = LongStream.rangeClosed(1_000_000, 1_100_000).toArray();
+
+        byte[] encoded = PaymentIdCodec.encode(ids.clone());
+
+        assertTrue(encoded.length < ids.length + 16, "Dense IDs should take one byte each");
+        assertArrayEquals(ids, PaymentIdCodec.decode(encoded));
+    }
+
+    @Test
+    void shouldRoundTripThroughStreams() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PaymentIdCodec.encode(List.of(3L, 1L, 2L), out);
+
+        long[] decoded = PaymentIdCodec.decode(new ByteArrayInputStream(out.toByteArray()));
+
+        assertArrayEquals(new long[]{1L, 2L, 3L}, decoded);
+    }
+
+    @Test
+    void shouldRejectTruncatedData() {
+        byte[] encoded = PaymentIdCodec.encode(new long[]{1L, 300L, 70_000L});
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 1);
+
+        assertThrows(IllegalArgumentException.class, () -> PaymentIdCodec.decode(truncated));
+        assertThrows(IOException.class, () -> PaymentIdCodec.decode(new ByteArrayInputStream(truncated)));
+    }
+
+    @Test
+    void shouldRejectImplausibleCount() {
+        byte[] data = {(byte) 0xFF, (byte) 0xFF, 0x7F};
+
+        assertThrows(IllegalArgumentException.class, () -> PaymentIdCodec.decode(data));
+    }
+
+    private static long[] roundTrip(long[] ids) {
+        return PaymentIdCodec.decode(PaymentIdCodec.encode(ids));
+    }
+}
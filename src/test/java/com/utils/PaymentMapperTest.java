@@ -0,0 +1,76 @@
+package com.utils;
+
+import com.dto.PaymentResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.model.Currency;
+import com.model.Payment;
+import com.model.Type1Payment;
+import com.model.Type2Payment;
+import com.model.Type3Payment;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PaymentMapperTest {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void toResponseDTO_MatchesModelMapperForEveryPaymentType() {
+        for (Payment payment : new Payment[]{new Type1Payment(), new Type2Payment(), new Type3Payment()}) {
+            fill(payment, false, new BigDecimal("0.00"));
+            assertEquals(modelMapper.map(payment, PaymentResponseDTO.class), PaymentMapper.toResponseDTO(payment));
+
+            fill(payment, true, new BigDecimal("5.00"));
+            assertEquals(modelMapper.map(payment, PaymentResponseDTO.class), PaymentMapper.toResponseDTO(payment));
+        }
+    }
+
+    @Test
+    void toResponseDTO_MatchesModelMapperForUnsetFields() {
+        Payment payment = new Type2Payment();
+
+        assertEquals(modelMapper.map(payment, PaymentResponseDTO.class), PaymentMapper.toResponseDTO(payment));
+    }
+
+    @Test
+    void toResponseDTO_MatchesRecordedResponses() throws IOException {
+        Payment payment = new Type1Payment();
+        fill(payment, false, new BigDecimal("0.00"));
+        assertEquals(load("createPayment_success.json"), PaymentMapper.toResponseDTO(payment));
+
+        fill(payment, true, new BigDecimal("5.00"));
+        assertEquals(load("cancelPayment_success.json"), PaymentMapper.toResponseDTO(payment));
+    }
+
+    @Test
+    void toResponseDTO_ReturnsNullForNull() {
+        assertNull(PaymentMapper.toResponseDTO(null));
+    }
+
+    private static void fill(Payment payment, boolean cancelled, BigDecimal cancellationFee) {
+        payment.setId(1L);
+        payment.setAmount(new BigDecimal("100.00"));
+        payment.setCurrency(Currency.EUR);
+        payment.setDebtorIban("DE123456789");
+        payment.setCreditorIban("DE987654321");
+        payment.setCreationTime(LocalDateTime.of(2025, 3, 17, 12, 0));
+        payment.setCancelled(cancelled);
+        payment.setCancellationFee(cancellationFee);
+        payment.setNotified(true);
+        payment.setVersion(3L);
+    }
+
+    private PaymentResponseDTO load(String name) throws IOException {
+        return objectMapper.readValue(new File("src/test/resources/responses/" + name), PaymentResponseDTO.class);
+    }
+}
@@ -44,6 +44,18 @@ class PaymentUtilsTest {
         assertEquals("Amount must be positive", exception.getMessage());
     }
 
+    @Test
+    void validatePaymentRequest_MissingCurrency() {
+        PaymentRequestDTO invalidRequest = new PaymentRequestDTO();
+        invalidRequest.setAmount(BigDecimal.TEN);
+        invalidRequest.setDebtorIban("DE1234567890");
+        invalidRequest.setCreditorIban("GB0987654321");
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> PaymentUtils.validatePaymentRequest(invalidRequest));
+        assertEquals("Currency must be EUR or USD", exception.getMessage());
+    }
+
     @Test
     void validatePaymentRequest_MissingDebtorIban() {
         PaymentRequestDTO invalidRequest = new PaymentRequestDTO();
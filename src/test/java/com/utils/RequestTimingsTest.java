@@ -0,0 +1,61 @@
+package com.utils;
+
+import com.utils.RequestTimings.Phase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestTimingsTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestTimings.end();
+    }
+
+    @Test
+    void time_WithoutRequest_OnlyRunsAction() {
+        assertEquals("result", RequestTimings.time(Phase.DB, () -> "result"));
+        assertNull(RequestTimings.current());
+    }
+
+    @Test
+    void time_AddsUpRepeatedPhases() {
+        RequestTimings timings = RequestTimings.begin();
+        timings.add(Phase.DB, 1_500_000);
+        timings.add(Phase.DB, 1_000_000);
+        timings.add(Phase.MAPPING, 250_000);
+
+        assertSame(timings, RequestTimings.current());
+        assertEquals(2_500_000, timings.getPhaseNanos(Phase.DB));
+        String header = timings.toServerTiming();
+        assertTrue(header.startsWith("db;dur=2.500, mapping;dur=0.250, total;dur="), header);
+    }
+
+    @Test
+    void time_RecordsPhaseWhenActionFails() {
+        RequestTimings timings = RequestTimings.begin();
+
+        assertThrows(IllegalArgumentException.class, () -> RequestTimings.time(Phase.VALIDATION, () -> {
+            throw new IllegalArgumentException("invalid");
+        }));
+
+        assertTrue(timings.toServerTiming().startsWith("validation;dur="));
+    }
+
+    @Test
+    void end_StopsTimingOnThread() {
+        RequestTimings timings = RequestTimings.begin();
+        RequestTimings.end();
+
+        RequestTimings.time(Phase.GEO, () -> { });
+
+        assertNull(RequestTimings.current());
+        assertEquals(0, timings.getPhaseNanos(Phase.GEO));
+        assertTrue(timings.toServerTiming().startsWith("total;dur="));
+    }
+}
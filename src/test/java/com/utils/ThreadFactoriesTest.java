@@ -0,0 +1,38 @@
+package com.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ThreadFactoriesTest {
+
+    private static final Runnable NOOP = () -> {
+    };
+
+    @Test
+    void named_CreatesPlatformThreadsWithPrefix() {
+        Thread thread = ThreadFactories.named("worker-", false).newThread(NOOP);
+
+        assertTrue(thread.getName().startsWith("worker-"));
+        assertFalse(thread.getClass().getName().contains("Virtual"));
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void named_CreatesVirtualThreadsWithPrefix() {
+        Thread thread = ThreadFactories.named("worker-", true).newThread(NOOP);
+
+        assertTrue(thread.getName().startsWith("worker-"));
+        assertTrue(thread.getClass().getName().contains("Virtual"));
+    }
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    void named_RejectsVirtualThreadsBeforeJava21() {
+        assertThrows(UnsupportedOperationException.class, () -> ThreadFactories.named("worker-", true));
+    }
+}
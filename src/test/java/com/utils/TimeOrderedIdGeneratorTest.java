@@ -0,0 +1,149 @@
+package com.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeOrderedIdGeneratorTest {
+
+    private static final long NOW = TimeOrderedIdGenerator.EPOCH.toEpochMilli() + 1_000_000L;
+
+    @Test
+    void shouldEncodeTimestampAndNode() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(513, Duration.ofSeconds(1), () -> NOW);
+
+        long id = generator.nextId();
+
+        assertTrue(id > 0);
+        assertEquals(1_000_000L, TimeOrderedIdGenerator.timestampOf(id));
+        assertEquals(513, TimeOrderedIdGenerator.nodeIdOf(id));
+        assertEquals(TimeOrderedIdGenerator.EPOCH.plusMillis(1_000_000L), TimeOrderedIdGenerator.instantOf(id));
+    }
+
+    @Test
+    void shouldSortIdsByCreationTimeAcrossNodes() {
+        AtomicLong clock = new AtomicLong(NOW);
+        TimeOrderedIdGenerator highNode = new TimeOrderedIdGenerator(1000, Duration.ofSeconds(1), clock::get);
+        TimeOrderedIdGenerator lowNode = new TimeOrderedIdGenerator(1, Duration.ofSeconds(1), clock::get);
+
+        long earlier = highNode.nextId();
+        clock.incrementAndGet();
+        long later = lowNode.nextId();
+
+        assertTrue(later > earlier);
+    }
+
+    @Test
+    void shouldBorrowNextMillisecondWhenSequenceIsExhausted() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(0, Duration.ofSeconds(1), () -> NOW);
+
+        long previous = 0;
+        for (int i = 0; i < 5000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+
+        assertEquals(1_000_001L, TimeOrderedIdGenerator.timestampOf(previous));
+    }
+
+    @Test
+    void shouldKeepIncreasingWhenClockMovesBackWithinDrift() {
+        AtomicLong clock = new AtomicLong(NOW);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(0, Duration.ofSeconds(1), clock::get);
+
+        long before = generator.nextId();
+        clock.addAndGet(-500);
+        long after = generator.nextId();
+
+        assertTrue(after > before);
+        assertEquals(1_000_000L, TimeOrderedIdGenerator.timestampOf(after));
+    }
+
+    @Test
+    void shouldFailWhenClockStaysBehindLongerThanDrift() {
+        AtomicLong clock = new AtomicLong(NOW);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(0, Duration.ofMillis(20), clock::get);
+
+        generator.nextId();
+        clock.addAndGet(-60_000);
+
+        assertThrows(IllegalStateException.class, generator::nextId);
+    }
+
+    @Test
+    void shouldAdvancePastStoredIdsAndRejectIdsFromTheFuture() {
+        AtomicLong clock = new AtomicLong(NOW);
+        TimeOrderedIdGenerator stored = new TimeOrderedIdGenerator(7, Duration.ofSeconds(1), clock::get);
+        long storedId = stored.nextId();
+
+        TimeOrderedIdGenerator restarted = new TimeOrderedIdGenerator(0, Duration.ofSeconds(1), clock::get);
+        clock.addAndGet(-200);
+        restarted.advancePast(storedId);
+        assertTrue(restarted.nextId() > storedId);
+
+        TimeOrderedIdGenerator farBehind = new TimeOrderedIdGenerator(0, Duration.ofSeconds(1), () -> NOW - 60_000);
+        assertThrows(IllegalStateException.class, () -> farBehind.advancePast(storedId));
+    }
+
+    @Test
+    void shouldRejectInvalidNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new TimeOrderedIdGenerator(1024, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new TimeOrderedIdGenerator(-1, Duration.ZERO));
+    }
+
+    @Test
+    void shouldGenerateUniqueIncreasingIdsUnderContention() throws Exception {
+        int threads = 8;
+        int idsPerThread = 200_000;
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(42, Duration.ofSeconds(5));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            Future<?>[] futures = new Future<?>[threads];
+            long[][] idsByThread = new long[threads][idsPerThread];
+            for (int t = 0; t < threads; t++) {
+                long[] ids = idsByThread[t];
+                futures[t] = executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+
+            long[] all = new long[threads * idsPerThread];
+            for (int t = 0; t < threads; t++) {
+                long[] ids = idsByThread[t];
+                for (int i = 1; i < ids.length; i++) {
+                    assertTrue(ids[i] > ids[i - 1], "IDs of one thread must increase");
+                }
+                System.arraycopy(ids, 0, all, t * idsPerThread, idsPerThread);
+            }
+            Arrays.sort(all);
+            for (int i = 1; i < all.length; i++) {
+                assertTrue(all[i] != all[i - 1], "Duplicate ID " + all[i]);
+            }
+            assertTrue(Arrays.stream(all).allMatch(id -> TimeOrderedIdGenerator.nodeIdOf(id) == 42));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void shouldAllowBurstThenRefuseUntilRefilled() {
+        long start = -5 * SECOND;
+        TokenBucket bucket = new TokenBucket(2, 3, start);
+
+        assertEquals(0, bucket.tryAcquire(start));
+        assertEquals(0, bucket.tryAcquire(start));
+        assertEquals(0, bucket.tryAcquire(start));
+        assertEquals(SECOND / 2, bucket.tryAcquire(start));
+        assertEquals(SECOND / 4, bucket.tryAcquire(start + SECOND / 4));
+
+        assertEquals(0, bucket.tryAcquire(start + SECOND / 2));
+        assertEquals(SECOND / 2, bucket.tryAcquire(start + SECOND / 2));
+    }
+
+    @Test
+    void shouldNotRefillBeyondBurst() {
+        TokenBucket bucket = new TokenBucket(10, 2, 0);
+
+        long later = 60 * SECOND;
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(SECOND / 10, bucket.tryAcquire(later));
+    }
+
+    @Test
+    void shouldReportRefillTimeOfEmptyBucket() {
+        assertEquals(5 * SECOND, new TokenBucket(2, 10, 0).getRefillNanos());
+    }
+
+    @Test
+    void shouldRejectInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0, 0));
+    }
+}